@@ -0,0 +1,84 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.DimensaoAnalise;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.service.AnaliseLancamentoService;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+import br.com.cnaga.minhasfinancas.service.ResumoMensal;
+import br.com.cnaga.minhasfinancas.service.TotalAgrupado;
+
+/**
+ * Totais por ano, mês, tipo e status dos lançamentos de um usuário: agregados
+ * pelo banco a cada chamada, como no resumo mensal, ou pelas colunas em memória
+ * do {@link AnaliseLancamentoService}, já carregadas no preparo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnaliseLancamentoBenchmark {
+
+	private static final Set<DimensaoAnalise> AGRUPAMENTO = EnumSet.allOf(DimensaoAnalise.class);
+
+	@Param({ "1000", "10000" })
+	private int lancamentos;
+
+	private ConfigurableApplicationContext contexto;
+	private LancamentoService lancamentoService;
+	private AnaliseLancamentoService analiseService;
+	private Long idUsuario;
+
+	@Setup
+	public void preparar() {
+		contexto = Contexto.iniciar();
+		lancamentoService = contexto.getBean(LancamentoService.class);
+		analiseService = contexto.getBean(AnaliseLancamentoService.class);
+
+		Usuario usuario = Lancamentos.usuario();
+		usuario.setId(null);
+		usuario = contexto.getBean(UsuarioRepository.class).save(usuario);
+		idUsuario = usuario.getId();
+
+		var lista = Lancamentos.lista(usuario, lancamentos);
+		lista.forEach(lancamento -> lancamento.setId(null));
+		lancamentoService.salvarTodos(lista);
+		analiseService.totalizar(idUsuario, AGRUPAMENTO, null, null);
+	}
+
+	@TearDown
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public List<ResumoMensal> sql() {
+		return lancamentoService.obterResumoMensal(idUsuario, null, true);
+	}
+
+	@Benchmark
+	public List<TotalAgrupado> colunas() {
+		return analiseService.totalizar(idUsuario, AGRUPAMENTO, null, null);
+	}
+}
@@ -0,0 +1,96 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+import br.com.cnaga.minhasfinancas.service.Pagina;
+
+/**
+ * Busca paginada de lançamentos pela descrição: com o índice de trigramas em
+ * memória resolvendo a descrição antes do banco, ou com o {@code like} no
+ * banco ({@code indice=false}). O termo seletivo encontra poucos lançamentos; o
+ * comum, um oitavo deles, cortado na página de 100.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BuscaDescricaoBenchmark {
+
+	private static final String[] DESCRICOES = { "Supermercado", "Farmacia", "Conta de luz", "Aluguel",
+			"Restaurante", "Combustivel", "Salario", "Academia" };
+
+	@Param({ "1000", "10000" })
+	private int lancamentos;
+
+	@Param({ "true", "false" })
+	private boolean indice;
+
+	private ConfigurableApplicationContext contexto;
+	private LancamentoService service;
+	private Lancamento seletivo;
+	private Lancamento comum;
+
+	@Setup
+	public void preparar() {
+		contexto = Contexto.iniciar("minhasfinancas.descricao.indice.habilitado=" + indice);
+		service = contexto.getBean(LancamentoService.class);
+
+		Usuario usuario = Lancamentos.usuario();
+		usuario.setId(null);
+		usuario = contexto.getBean(UsuarioRepository.class).save(usuario);
+
+		List<Lancamento> lista = Lancamentos.lista(usuario, lancamentos);
+		for(int i = 0; i < lista.size(); i++) {
+			lista.get(i).setId(null);
+			lista.get(i).setDescricao(DESCRICOES[i % DESCRICOES.length] + " " + i);
+		}
+		service.salvarTodos(lista);
+
+		seletivo = filtro(usuario, "LUZ 77");
+		comum = filtro(usuario, "mercado");
+		service.buscar(seletivo, null, 100);
+	}
+
+	@TearDown
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public Pagina<Lancamento> seletivo() {
+		return service.buscar(seletivo, null, 100);
+	}
+
+	@Benchmark
+	public Pagina<Lancamento> comum() {
+		return service.buscar(comum, null, 100);
+	}
+
+	private Lancamento filtro(Usuario usuario, String descricao) {
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(Usuario.builder().id(usuario.getId()).build());
+		filtro.setDescricao(descricao);
+		return filtro;
+	}
+}
@@ -0,0 +1,44 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.util.Arrays;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.cnaga.minhasfinancas.MinhasfinancasApplication;
+
+/**
+ * Sobe a aplicação sobre o H2 em memória do perfil de teste, para os benchmarks
+ * que dependem de beans ou do banco. As propriedades informadas são passadas
+ * como argumentos de linha de comando, para que prevaleçam sobre o
+ * {@code application.properties}.
+ */
+final class Contexto {
+
+	private Contexto() {
+	}
+
+	static ConfigurableApplicationContext iniciar(String... propriedades) {
+		return iniciar(WebApplicationType.NONE, propriedades);
+	}
+
+	/**
+	 * Sobe também o Tomcat, numa porta livre, disponível em {@code local.server.port}.
+	 */
+	static ConfigurableApplicationContext iniciarServidor(String... propriedades) {
+		return iniciar(WebApplicationType.SERVLET, propriedades);
+	}
+
+	private static ConfigurableApplicationContext iniciar(WebApplicationType tipo, String... propriedades) {
+		return new SpringApplicationBuilder(MinhasfinancasApplication.class)
+				.profiles("test")
+				.web(tipo)
+				.properties(
+						"spring.main.banner-mode=off",
+						"logging.level.root=WARN",
+						"server.port=0",
+						"minhasfinancas.saldo.verificacao.cron=-")
+				.run(Arrays.stream(propriedades).map(propriedade -> "--" + propriedade).toArray(String[]::new));
+	}
+}
@@ -0,0 +1,91 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.service.InclusaoLancamentoService;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+
+/**
+ * Inclusões concorrentes de 64 clientes, cada um com o próprio usuário, pelo
+ * {@link InclusaoLancamentoService}, com uma transação por lançamento ou com a
+ * gravação agrupada. O resultado é dado em inclusões por segundo.
+ * <p>
+ * O H2 em memória não sincroniza nada com o disco a cada commit, que é o custo
+ * que o agrupamento mais reduz. Para medir contra o PostgreSQL, informe o banco
+ * por propriedades de sistema, como no {@link ThreadsVirtuaisBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class InclusaoAgrupadaBenchmark {
+
+	@Param({ "false", "true" })
+	private boolean agrupada;
+
+	private ConfigurableApplicationContext contexto;
+	private InclusaoLancamentoService service;
+
+	@Setup
+	public void preparar() {
+		contexto = Contexto.iniciar("minhasfinancas.inclusao-agrupada.habilitada=" + agrupada);
+		service = contexto.getBean(InclusaoLancamentoService.class);
+	}
+
+	@TearDown
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public Lancamento incluir(Cliente cliente) {
+		return service.salvar(cliente.novoLancamento());
+	}
+
+	/**
+	 * Usuário de cada thread, com um primeiro lançamento já gravado para que a
+	 * linha de saldo exista antes da medição.
+	 */
+	@State(Scope.Thread)
+	public static class Cliente {
+
+		private Usuario usuario;
+
+		@Setup
+		public void preparar(InclusaoAgrupadaBenchmark benchmark) {
+			Usuario novoUsuario = Lancamentos.usuario();
+			novoUsuario.setId(null);
+			novoUsuario.setEmail(UUID.randomUUID() + "@email.com");
+			usuario = benchmark.contexto.getBean(UsuarioRepository.class).save(novoUsuario);
+			benchmark.contexto.getBean(LancamentoService.class).salvar(novoLancamento());
+		}
+
+		private Lancamento novoLancamento() {
+			Lancamento lancamento = Lancamentos.lancamento(usuario, 0);
+			lancamento.setId(null);
+			return lancamento;
+		}
+	}
+}
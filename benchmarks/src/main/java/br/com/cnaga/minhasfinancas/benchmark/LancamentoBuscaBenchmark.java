@@ -0,0 +1,102 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+import br.com.cnaga.minhasfinancas.service.Pagina;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Busca de lançamentos por exemplo: a montagem da consulta a partir do
+ * {@link ExampleMatcher}, isolada, e a busca paginada completa sobre o H2
+ * em memória com mil lançamentos do usuário.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LancamentoBuscaBenchmark {
+
+	private static final int QUANTIDADE_LANCAMENTOS = 1000;
+
+	private ConfigurableApplicationContext contexto;
+	private LancamentoService service;
+	private EntityManager entityManager;
+	private Lancamento filtro;
+
+	@Setup
+	public void preparar() {
+		contexto = Contexto.iniciar();
+		service = contexto.getBean(LancamentoService.class);
+		entityManager = contexto.getBean(EntityManagerFactory.class).createEntityManager();
+		
+		Usuario usuario = Lancamentos.usuario();
+		usuario.setId(null);
+		usuario = contexto.getBean(UsuarioRepository.class).save(usuario);
+		
+		var lancamentos = Lancamentos.lista(usuario, QUANTIDADE_LANCAMENTOS);
+		lancamentos.forEach(lancamento -> lancamento.setId(null));
+		service.salvarTodos(lancamentos);
+		
+		filtro = new Lancamento();
+		filtro.setUsuario(Usuario.builder().id(usuario.getId()).build());
+		filtro.setDescricao("lancamento 1");
+		filtro.setStatus(StatusLancamento.PENDENTE);
+	}
+
+	@TearDown
+	public void encerrar() {
+		entityManager.close();
+		contexto.close();
+	}
+
+	@Benchmark
+	public TypedQuery<Lancamento> montarConsulta() {
+		Example<Lancamento> example = Example.of(filtro, 
+				ExampleMatcher.matching()
+				.withIgnoreCase()
+				.withStringMatcher(StringMatcher.CONTAINING));
+		
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Lancamento> query = cb.createQuery(Lancamento.class);
+		Root<Lancamento> root = query.from(Lancamento.class);
+		root.fetch("usuario");
+		query.select(root)
+			.where(QueryByExamplePredicateBuilder.getPredicate(root, cb, example))
+			.orderBy(cb.asc(root.get("id")));
+		return entityManager.createQuery(query).setMaxResults(101);
+	}
+
+	@Benchmark
+	public Pagina<Lancamento> buscar() {
+		return service.buscar(filtro, null, 100);
+	}
+}
@@ -0,0 +1,95 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.cnaga.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.cnaga.minhasfinancas.api.resource.LancamentoResource;
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Conversões de {@code LancamentoResource} entre DTO e entidade, incluindo a
+ * obtenção da referência ao usuário. Os métodos são privados e são chamados
+ * por {@link MethodHandle}. Um {@link EntityManager} fica associado à thread,
+ * como o open-in-view faz durante uma requisição.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LancamentoConversaoBenchmark {
+
+	private ConfigurableApplicationContext contexto;
+	private EntityManagerFactory entityManagerFactory;
+	private LancamentoResource resource;
+	private MethodHandle paraEntidade;
+	private MethodHandle paraDTO;
+	private LancamentoDTO dto;
+	private Lancamento lancamento;
+
+	@Setup
+	public void preparar() throws Exception {
+		contexto = Contexto.iniciar();
+		entityManagerFactory = contexto.getBean(EntityManagerFactory.class);
+		TransactionSynchronizationManager.bindResource(entityManagerFactory, 
+				new EntityManagerHolder(entityManagerFactory.createEntityManager()));
+		resource = contexto.getBean(LancamentoResource.class);
+		paraEntidade = metodo("converter", LancamentoDTO.class);
+		paraDTO = metodo("converter", Lancamento.class);
+		
+		lancamento = Lancamentos.lancamento(Lancamentos.usuario(), 7);
+		dto = LancamentoDTO.builder()
+				.descricao(lancamento.getDescricao())
+				.mes(lancamento.getMes())
+				.ano(lancamento.getAno())
+				.valor(lancamento.getValor())
+				.usuario(lancamento.getUsuario().getId())
+				.tipo(lancamento.getTipo().name())
+				.status(lancamento.getStatus().name())
+				.build();
+	}
+
+	@TearDown
+	public void encerrar() {
+		EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+		holder.getEntityManager().close();
+		contexto.close();
+	}
+
+	@Benchmark
+	public Object converterParaEntidade() throws Throwable {
+		return paraEntidade.invoke(resource, dto);
+	}
+
+	@Benchmark
+	public Object converterParaDTO() throws Throwable {
+		return paraDTO.invoke(resource, lancamento);
+	}
+
+	private static MethodHandle metodo(String nome, Class<?> parametro) throws Exception {
+		Method metodo = LancamentoResource.class.getDeclaredMethod(nome, parametro);
+		metodo.setAccessible(true);
+		return MethodHandles.lookup().unreflect(metodo);
+	}
+}
@@ -0,0 +1,92 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import br.com.cnaga.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+
+/**
+ * Resposta da busca com 10 mil lançamentos em JSON, CBOR e Smile, com o
+ * {@code Usuario} embutido, como hoje, ou na forma plana, só com o id, e com ou
+ * sem gzip. O tempo inclui a conversão para a forma plana e a compressão; o
+ * tamanho de cada combinação é impresso no preparo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LancamentoFormatoBenchmark {
+
+	@Param({ "json", "cbor", "smile" })
+	private String formato;
+
+	@Param({ "false", "true" })
+	private boolean plano;
+
+	@Param({ "false", "true" })
+	private boolean gzip;
+
+	private ObjectMapper mapper;
+	private List<Lancamento> lancamentos;
+
+	@Setup
+	public void preparar() throws Exception {
+		JsonFactory factory = switch (formato) {
+			case "cbor" -> new CBORFactory();
+			case "smile" -> new SmileFactory();
+			default -> new JsonFactory();
+		};
+		mapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+		lancamentos = Lancamentos.lista(Lancamentos.usuario(), 10000);
+		System.out.printf("%n%s, plano=%s, gzip=%s: %d bytes%n", formato, plano, gzip, serializar().length);
+	}
+
+	@Benchmark
+	public byte[] serializar() throws Exception {
+		Object corpo = plano ? lancamentos.stream().map(LancamentoFormatoBenchmark::converter).toList() : lancamentos;
+		if(!gzip) {
+			return mapper.writeValueAsBytes(corpo);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(GZIPOutputStream saida = new GZIPOutputStream(bytes)) {
+			mapper.writeValue(saida, corpo);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static LancamentoDTO converter(Lancamento lancamento) {
+		return LancamentoDTO.builder()
+				.id(lancamento.getId())
+				.descricao(lancamento.getDescricao())
+				.mes(lancamento.getMes())
+				.ano(lancamento.getAno())
+				.valor(lancamento.getValor())
+				.usuario(lancamento.getUsuario().getId())
+				.tipo(lancamento.getTipo().name())
+				.status(lancamento.getStatus().name())
+				.build();
+	}
+}
@@ -0,0 +1,52 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+
+/**
+ * Serialização JSON de listas de {@link Lancamento} com o {@code Usuario} embutido,
+ * com o mesmo {@code ObjectMapper} padrão que o Spring MVC usa nas respostas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LancamentoSerializacaoBenchmark {
+
+	@Param({ "10", "1000", "100000" })
+	private int tamanho;
+
+	private ObjectWriter writer;
+	private List<Lancamento> lancamentos;
+
+	@Setup
+	public void preparar() {
+		writer = Jackson2ObjectMapperBuilder.json().build().writerFor(new TypeReference<List<Lancamento>>() {});
+		lancamentos = Lancamentos.lista(Lancamentos.usuario(), tamanho);
+	}
+
+	@Benchmark
+	public byte[] serializar() throws Exception {
+		return writer.writeValueAsBytes(lancamentos);
+	}
+}
@@ -0,0 +1,44 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.service.impl.LancamentoServiceImpl;
+
+/**
+ * {@link LancamentoServiceImpl#validar}, executado em toda gravação de lançamento.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LancamentoValidacaoBenchmark {
+
+	private LancamentoServiceImpl service;
+	private Lancamento lancamento;
+
+	@Setup
+	public void preparar() {
+		service = new LancamentoServiceImpl();
+		lancamento = Lancamentos.lancamento(Lancamentos.usuario(), 7);
+	}
+
+	@Benchmark
+	public Lancamento validar() {
+		service.validar(lancamento);
+		return lancamento;
+	}
+}
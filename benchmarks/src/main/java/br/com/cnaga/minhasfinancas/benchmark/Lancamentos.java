@@ -0,0 +1,51 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Massa de dados usada pelos benchmarks.
+ */
+final class Lancamentos {
+
+	private Lancamentos() {
+	}
+
+	static Usuario usuario() {
+		return Usuario.builder()
+				.id(1L)
+				.nome("usuario")
+				.email("usuario@email.com")
+				.senha("123")
+				.build();
+	}
+
+	static Lancamento lancamento(Usuario usuario, int indice) {
+		return Lancamento.builder()
+				.id((long) indice + 1)
+				.descricao("Lancamento " + indice)
+				.mes(indice % 12 + 1)
+				.ano(2020 + indice % 4)
+				.valor(BigDecimal.valueOf(100_00L + indice, 2))
+				.tipo(indice % 3 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA)
+				.status(StatusLancamento.PENDENTE)
+				.dataCadastro(LocalDate.of(2023, 1, 1).plusDays(indice % 365))
+				.usuario(usuario)
+				.build();
+	}
+
+	static List<Lancamento> lista(Usuario usuario, int tamanho) {
+		List<Lancamento> lancamentos = new ArrayList<>(tamanho);
+		for(int i = 0; i < tamanho; i++) {
+			lancamentos.add(lancamento(usuario, i));
+		}
+		return lancamentos;
+	}
+}
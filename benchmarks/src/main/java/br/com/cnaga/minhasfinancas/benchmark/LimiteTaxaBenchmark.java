@@ -0,0 +1,101 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.cnaga.minhasfinancas.config.LimiteRequisicoes;
+import br.com.cnaga.minhasfinancas.config.LimiteTaxa;
+
+/**
+ * Disputa de 64 threads pelos limites de requisição: todas no mesmo balde
+ * global, cada uma no balde do seu usuário (busca no cache e reserva) e, como
+ * referência, um balde de fichas tradicional protegido por {@code synchronized}.
+ * As taxas são altas o bastante para que toda reserva seja liberada, medindo só
+ * o custo do limitador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class LimiteTaxaBenchmark {
+
+	private static final double SEM_LIMITE = 1e12;
+
+	private LimiteTaxa global;
+	private LimiteRequisicoes.Categoria categoria;
+	private BaldeSincronizado sincronizado;
+
+	@Setup
+	public void preparar() {
+		global = new LimiteTaxa(SEM_LIMITE, 1_000_000);
+		categoria = new LimiteRequisicoes.Categoria("consulta", SEM_LIMITE, 1_000_000, SEM_LIMITE, 1_000_000);
+		sincronizado = new BaldeSincronizado(SEM_LIMITE, 1_000_000);
+	}
+
+	@Benchmark
+	public long global() {
+		return global.reservar(System.nanoTime());
+	}
+
+	@Benchmark
+	public long usuario(Usuario usuario) {
+		long agora = System.nanoTime();
+		long espera = categoria.reservarDoUsuario(usuario.id, agora);
+		return espera > 0 ? espera : categoria.reservarGlobal(agora);
+	}
+
+	@Benchmark
+	public boolean sincronizado() {
+		return sincronizado.reservar(System.nanoTime());
+	}
+
+	@State(Scope.Thread)
+	public static class Usuario {
+
+		private static final AtomicLong SEQUENCIA = new AtomicLong();
+
+		private final Long id = SEQUENCIA.incrementAndGet();
+	}
+
+	/**
+	 * Balde de fichas com contagem e reposição sob a trava do objeto.
+	 */
+	private static final class BaldeSincronizado {
+
+		private final double porNanossegundo;
+		private final double capacidade;
+		private double fichas;
+		private long ultimaReposicao = System.nanoTime();
+
+		private BaldeSincronizado(double porSegundo, int capacidade) {
+			this.porNanossegundo = porSegundo / TimeUnit.SECONDS.toNanos(1);
+			this.capacidade = capacidade;
+			this.fichas = capacidade;
+		}
+
+		private synchronized boolean reservar(long agora) {
+			fichas = Math.min(capacidade, fichas + (agora - ultimaReposicao) * porNanossegundo);
+			ultimaReposicao = agora;
+			if(fichas < 1) {
+				return false;
+			}
+			fichas--;
+			return true;
+		}
+	}
+}
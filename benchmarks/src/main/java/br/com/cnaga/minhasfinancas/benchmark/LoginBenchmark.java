@@ -0,0 +1,72 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.service.UsuarioService;
+
+/**
+ * Vazão de login por custo do BCrypt: a conferência do hash, que todo login
+ * pagaria, e o {@code autenticar} completo, que depois do primeiro login é
+ * atendido pelo cache de credenciais verificadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+	private static final String SENHA = "senha-do-usuario";
+
+	@Param({ "4", "8", "10", "12" })
+	private int custo;
+
+	private ConfigurableApplicationContext contexto;
+	private UsuarioService usuarioService;
+	private PasswordEncoder passwordEncoder;
+	private Usuario usuario;
+
+	@Setup
+	public void preparar() {
+		contexto = Contexto.iniciar("minhasfinancas.senha.custo=" + custo);
+		usuarioService = contexto.getBean(UsuarioService.class);
+		passwordEncoder = contexto.getBean(PasswordEncoder.class);
+		
+		Usuario novoUsuario = Lancamentos.usuario();
+		novoUsuario.setId(null);
+		novoUsuario.setSenha(SENHA);
+		usuario = usuarioService.salvarUsuario(novoUsuario);
+	}
+
+	@TearDown
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public boolean conferirHash() {
+		return passwordEncoder.matches(SENHA, usuario.getSenha());
+	}
+
+	@Benchmark
+	public Usuario autenticar() {
+		return usuarioService.autenticar(usuario.getEmail(), SENHA);
+	}
+}
@@ -0,0 +1,64 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+import br.com.cnaga.minhasfinancas.service.impl.LancamentoServiceImpl;
+
+/**
+ * Custo do {@code @Timed} nos serviços: a mesma chamada a {@code validar} pelo
+ * bean instrumentado, com o histograma exportado ao Prometheus, e por uma
+ * instância sem proxy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricasBenchmark {
+
+	private ConfigurableApplicationContext contexto;
+	private LancamentoService instrumentado;
+	private LancamentoService direto;
+	private Lancamento lancamento;
+
+	@Setup
+	public void preparar() {
+		contexto = Contexto.iniciar();
+		instrumentado = contexto.getBean(LancamentoService.class);
+		direto = new LancamentoServiceImpl();
+		lancamento = Lancamentos.lancamento(Lancamentos.usuario(), 7);
+	}
+
+	@TearDown
+	public void encerrar() {
+		contexto.close();
+	}
+
+	@Benchmark
+	public Lancamento validarComMetricas() {
+		instrumentado.validar(lancamento);
+		return lancamento;
+	}
+
+	@Benchmark
+	public Lancamento validarSemMetricas() {
+		direto.validar(lancamento);
+		return lancamento;
+	}
+}
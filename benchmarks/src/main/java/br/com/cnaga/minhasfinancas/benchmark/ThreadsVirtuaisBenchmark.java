@@ -0,0 +1,117 @@
+package br.com.cnaga.minhasfinancas.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+
+/**
+ * Carga de milhares de clientes simultâneos sobre a busca de lançamentos, com o
+ * Tomcat atendendo em threads de plataforma (pool padrão de 200) ou em threads
+ * virtuais. Cada operação dispara uma rajada de {@code clientes} requisições
+ * concorrentes e aguarda todas; o resultado é dado em rajadas por segundo.
+ * <p>
+ * Sobre o H2 em memória as consultas não bloqueiam em I/O, o que favorece as
+ * threads de plataforma. Para medir contra o PostgreSQL, informe o banco por
+ * propriedades de sistema, por exemplo:
+ * {@code -Djmh.args="-jvmArgs -Dspring.datasource.url=jdbc:postgresql://... ThreadsVirtuais"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ThreadsVirtuaisBenchmark {
+
+	private static final int LANCAMENTOS_POR_USUARIO = 20;
+
+	@Param({ "plataforma", "virtual" })
+	private String threads;
+
+	@Param({ "1000", "2000" })
+	private int clientes;
+
+	private ConfigurableApplicationContext contexto;
+	private ExecutorService executor;
+	private HttpClient cliente;
+	private HttpRequest requisicao;
+
+	@Setup
+	public void preparar() {
+		contexto = Contexto.iniciarServidor(
+				"spring.threads.virtual.enabled=" + "virtual".equals(threads),
+				"server.tomcat.accept-count=" + clientes,
+				"server.tomcat.max-keep-alive-requests=-1",
+				"minhasfinancas.threads-virtuais.monitor-fixacao.habilitado=false",
+				"minhasfinancas.limite.habilitado=false");
+
+		Usuario usuario = Lancamentos.usuario();
+		usuario.setId(null);
+		usuario = contexto.getBean(UsuarioRepository.class).save(usuario);
+
+		var lancamentos = Lancamentos.lista(usuario, LANCAMENTOS_POR_USUARIO);
+		lancamentos.forEach(lancamento -> lancamento.setId(null));
+		contexto.getBean(LancamentoService.class).salvarTodos(lancamentos);
+
+		String porta = contexto.getEnvironment().getProperty("local.server.port");
+		executor = Executors.newVirtualThreadPerTaskExecutor();
+		cliente = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(executor)
+				.build();
+		requisicao = HttpRequest.newBuilder(
+				URI.create("http://localhost:" + porta + "/api/lancamentos?usuario=" + usuario.getId()))
+				.GET()
+				.build();
+	}
+
+	@TearDown
+	public void encerrar() {
+		executor.close();
+		contexto.close();
+	}
+
+	@Benchmark
+	public int rajada() throws Exception {
+		List<Future<HttpResponse<Void>>> respostas = new ArrayList<>(clientes);
+		for(int i = 0; i < clientes; i++) {
+			respostas.add(executor.submit(() -> cliente.send(requisicao, HttpResponse.BodyHandlers.discarding())));
+		}
+
+		int sucessos = 0;
+		for(Future<HttpResponse<Void>> resposta : respostas) {
+			if(resposta.get().statusCode() == 200) {
+				sucessos++;
+			}
+		}
+		if(sucessos != clientes) {
+			throw new IllegalStateException((clientes - sucessos) + " requisições falharam.");
+		}
+		return sucessos;
+	}
+}
@@ -0,0 +1,21 @@
+package br.com.cnaga.minhasfinancas.carga;
+
+/**
+ * Operações disparadas pela carga, cada uma contra um endpoint da API.
+ */
+enum Cenario {
+
+	AUTENTICAR("POST /api/usuarios/autenticar", 10),
+	BUSCAR("GET /api/lancamentos", 40),
+	INCLUIR("POST /api/lancamentos", 15),
+	ATUALIZAR_STATUS("PUT /api/lancamentos/{id}/atualiza-status", 10),
+	SALDO("GET /api/usuarios/{id}/saldo", 25);
+
+	final String endpoint;
+	final int pesoPadrao;
+
+	Cenario(String endpoint, int pesoPadrao) {
+		this.endpoint = endpoint;
+		this.pesoPadrao = pesoPadrao;
+	}
+}
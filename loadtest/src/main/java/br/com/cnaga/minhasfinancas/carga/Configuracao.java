@@ -0,0 +1,116 @@
+package br.com.cnaga.minhasfinancas.carga;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Parâmetros da carga, lidos de argumentos {@code nome=valor}. Os argumentos
+ * iniciados por {@code -} são propriedades da aplicação, repassadas ao Spring
+ * como {@code --nome=valor}.
+ *
+ * @param taxa chegadas por segundo, somando todos os cenários
+ * @param poisson intervalos entre chegadas exponenciais (processo de Poisson) ou
+ *        constantes
+ * @param aquecimento tempo inicial cujas requisições não entram nos resultados
+ * @param duracao tempo medido, depois do aquecimento
+ * @param usuarios usuários criados antes da carga, cada um com seu token
+ * @param lancamentos lançamentos criados para cada usuário
+ * @param pendentes máximo de requisições em andamento; as chegadas além dele
+ *        são descartadas e contadas, sem esperar
+ * @param mistura peso de cada cenário nas chegadas
+ */
+record Configuracao(
+		double taxa,
+		boolean poisson,
+		Duration aquecimento,
+		Duration duracao,
+		int usuarios,
+		int lancamentos,
+		int pendentes,
+		Map<Cenario, Integer> mistura,
+		String rotulo,
+		Path saida,
+		List<String> propriedadesAplicacao) {
+
+	static Configuracao ler(String[] args) {
+		Map<String, String> valores = new LinkedHashMap<>();
+		List<String> propriedadesAplicacao = new ArrayList<>();
+		for(String arg : args) {
+			if(arg.isBlank()) {
+				continue;
+			}
+			if(arg.startsWith("-")) {
+				propriedadesAplicacao.add("--" + arg.replaceFirst("^-+", ""));
+				continue;
+			}
+			int separador = arg.indexOf('=');
+			if(separador < 1) {
+				throw new IllegalArgumentException("Argumento inválido, use nome=valor: " + arg);
+			}
+			valores.put(arg.substring(0, separador), arg.substring(separador + 1));
+		}
+
+		String rotulo = valores.getOrDefault("rotulo",
+				LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+		Configuracao configuracao = new Configuracao(
+				Double.parseDouble(valores.getOrDefault("taxa", "200")),
+				!"constante".equalsIgnoreCase(valores.getOrDefault("chegadas", "poisson")),
+				DurationStyle.detectAndParse(valores.getOrDefault("aquecimento", "10s")),
+				DurationStyle.detectAndParse(valores.getOrDefault("duracao", "30s")),
+				Integer.parseInt(valores.getOrDefault("usuarios", "50")),
+				Integer.parseInt(valores.getOrDefault("lancamentos", "200")),
+				Integer.parseInt(valores.getOrDefault("pendentes", "10000")),
+				lerMistura(valores.get("mistura")),
+				rotulo,
+				Path.of(valores.getOrDefault("saida", "target/carga")).resolve(rotulo),
+				propriedadesAplicacao);
+
+		valores.keySet().removeAll(List.of("taxa", "chegadas", "aquecimento", "duracao", "usuarios",
+				"lancamentos", "pendentes", "mistura", "rotulo", "saida"));
+		if(!valores.isEmpty()) {
+			throw new IllegalArgumentException("Parâmetros desconhecidos: " + valores.keySet());
+		}
+		if(configuracao.taxa() <= 0 || configuracao.usuarios() < 1 || configuracao.lancamentos() < 1) {
+			throw new IllegalArgumentException("taxa, usuarios e lancamentos devem ser positivos.");
+		}
+		return configuracao;
+	}
+
+	/**
+	 * Lê pesos no formato {@code buscar:40,saldo:25}; cenários omitidos ficam de
+	 * fora. Sem o parâmetro, usa os pesos padrão de cada cenário.
+	 */
+	private static Map<Cenario, Integer> lerMistura(String texto) {
+		Map<Cenario, Integer> mistura = new EnumMap<>(Cenario.class);
+		if(texto == null) {
+			for(Cenario cenario : Cenario.values()) {
+				mistura.put(cenario, cenario.pesoPadrao);
+			}
+			return mistura;
+		}
+		for(String item : texto.split(",")) {
+			String[] partes = item.split(":");
+			if(partes.length != 2) {
+				throw new IllegalArgumentException("Item de mistura inválido, use cenario:peso: " + item);
+			}
+			int peso = Integer.parseInt(partes[1].trim());
+			if(peso > 0) {
+				mistura.put(Cenario.valueOf(partes[0].trim().toUpperCase(Locale.ROOT)), peso);
+			}
+		}
+		if(mistura.isEmpty()) {
+			throw new IllegalArgumentException("A mistura precisa de ao menos um cenário com peso positivo.");
+		}
+		return mistura;
+	}
+}
@@ -0,0 +1,137 @@
+package br.com.cnaga.minhasfinancas.carga;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.HistogramLogWriter;
+
+/**
+ * Dispara as chegadas em modelo aberto: os instantes de início são sorteados de
+ * antemão pela taxa configurada, sem depender das respostas anteriores, e cada
+ * requisição roda numa thread virtual própria. A latência é medida a partir do
+ * instante previsto, e não do envio, para que um atraso do próprio gerador ou
+ * do servidor apareça nos percentis em vez de reduzir a carga (omissão
+ * coordenada).
+ * <p>
+ * Só entram nos resultados as requisições previstas depois do aquecimento. A
+ * cada segundo medido, os histogramas do intervalo são gravados no log.
+ */
+final class GeradorCarga {
+
+	private final Configuracao configuracao;
+	private final Requisicoes requisicoes;
+	private final List<UsuarioSimulado> usuarios;
+	private final Medicoes medicoes = new Medicoes();
+	private final Semaphore pendentes;
+	private final Cenario[] cenarios;
+	private final int[] pesosAcumulados;
+
+	GeradorCarga(Configuracao configuracao, Requisicoes requisicoes, List<UsuarioSimulado> usuarios) {
+		this.configuracao = configuracao;
+		this.requisicoes = requisicoes;
+		this.usuarios = usuarios;
+		this.pendentes = new Semaphore(configuracao.pendentes());
+		this.cenarios = configuracao.mistura().keySet().toArray(new Cenario[0]);
+		this.pesosAcumulados = new int[cenarios.length];
+		int acumulado = 0;
+		for(int i = 0; i < cenarios.length; i++) {
+			acumulado += configuracao.mistura().get(cenarios[i]);
+			pesosAcumulados[i] = acumulado;
+		}
+	}
+
+	List<Resultado> executar(Path log) throws IOException, InterruptedException {
+		long inicio = System.nanoTime();
+		long inicioMedicao = inicio + configuracao.aquecimento().toNanos();
+		long fim = inicioMedicao + configuracao.duracao().toNanos();
+		double intervaloMedio = TimeUnit.SECONDS.toNanos(1) / configuracao.taxa();
+
+		try(PrintStream saida = new PrintStream(Files.newOutputStream(log))) {
+			HistogramLogWriter escritor = new HistogramLogWriter(saida);
+			escritor.outputComment("[" + configuracao.rotulo() + "] latências em microssegundos, uma marca (Tag) por cenário");
+			escritor.outputLogFormatVersion();
+			escritor.outputLegend();
+
+			ScheduledExecutorService relogio = Executors.newSingleThreadScheduledExecutor();
+			relogio.schedule(() -> {
+				medicoes.iniciarIntervalos();
+				escritor.outputStartTime(System.currentTimeMillis());
+			}, inicioMedicao - System.nanoTime(), TimeUnit.NANOSECONDS);
+			relogio.scheduleAtFixedRate(() -> medicoes.fecharIntervalo(escritor),
+					inicioMedicao + TimeUnit.SECONDS.toNanos(1) - System.nanoTime(), TimeUnit.SECONDS.toNanos(1), TimeUnit.NANOSECONDS);
+			System.out.printf("Aquecimento de %ds e medição de %ds a %.0f chegadas/s%n",
+					configuracao.aquecimento().toSeconds(), configuracao.duracao().toSeconds(), configuracao.taxa());
+
+			try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+				double proxima = inicio;
+				while(proxima < fim) {
+					long previsto = (long) proxima;
+					esperarAte(previsto);
+					disparar(executor, aleatorio, previsto, previsto >= inicioMedicao);
+					proxima += configuracao.poisson() ? -Math.log(1 - aleatorio.nextDouble()) * intervaloMedio : intervaloMedio;
+				}
+				System.out.println("Chegadas encerradas, aguardando as requisições pendentes");
+			}
+
+			relogio.shutdown();
+			relogio.awaitTermination(1, TimeUnit.MINUTES);
+			medicoes.fecharIntervalo(escritor);
+		}
+		return medicoes.resultados(configuracao.duracao().toNanos() / (double) TimeUnit.SECONDS.toNanos(1));
+	}
+
+	private void disparar(ExecutorService executor, ThreadLocalRandom aleatorio, long previsto, boolean medir) {
+		Cenario cenario = sortear(aleatorio);
+		UsuarioSimulado usuario = usuarios.get(aleatorio.nextInt(usuarios.size()));
+		if(!pendentes.tryAcquire()) {
+			if(medir) {
+				medicoes.registrarDescarte(cenario);
+			}
+			return;
+		}
+		executor.execute(() -> {
+			try {
+				int status = requisicoes.executar(cenario, usuario);
+				if(medir) {
+					medicoes.registrar(cenario, System.nanoTime() - previsto, status);
+				}
+			} catch (IOException e) {
+				if(medir) {
+					medicoes.registrarFalha(cenario);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				pendentes.release();
+			}
+		});
+	}
+
+	private Cenario sortear(ThreadLocalRandom aleatorio) {
+		int sorteado = aleatorio.nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+		for(int i = 0; i < pesosAcumulados.length; i++) {
+			if(sorteado < pesosAcumulados[i]) {
+				return cenarios[i];
+			}
+		}
+		return cenarios[cenarios.length - 1];
+	}
+
+	private static void esperarAte(long instante) {
+		long restante;
+		while((restante = instante - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(restante);
+		}
+	}
+}
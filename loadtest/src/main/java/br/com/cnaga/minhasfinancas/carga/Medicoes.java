@@ -0,0 +1,106 @@
+package br.com.cnaga.minhasfinancas.carga;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latências e respostas por cenário. As latências das respostas 2xx e 3xx vão
+ * para um {@link Recorder} do HdrHistogram, em microssegundos, que é esvaziado a
+ * cada intervalo no log e acumulado no histograma do cenário. As demais
+ * respostas, as falhas de conexão ou tempo esgotado e as chegadas descartadas
+ * são apenas contadas.
+ */
+final class Medicoes {
+
+	private final Map<Cenario, Medicao> porCenario = new EnumMap<>(Cenario.class);
+
+	Medicoes() {
+		for(Cenario cenario : Cenario.values()) {
+			porCenario.put(cenario, new Medicao());
+		}
+	}
+
+	void registrar(Cenario cenario, long latenciaNanos, int status) {
+		Medicao medicao = porCenario.get(cenario);
+		medicao.respostas.computeIfAbsent(status, chave -> new LongAdder()).increment();
+		if(status < 400) {
+			medicao.latencias.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latenciaNanos)));
+		}
+	}
+
+	void registrarFalha(Cenario cenario) {
+		porCenario.get(cenario).falhas.increment();
+	}
+
+	void registrarDescarte(Cenario cenario) {
+		porCenario.get(cenario).descartadas.increment();
+	}
+
+	/**
+	 * Descarta o intervalo em curso, para que o primeiro intervalo do log comece
+	 * com a medição e não com o aquecimento.
+	 */
+	synchronized void iniciarIntervalos() {
+		porCenario.values().forEach(medicao -> medicao.intervalo = medicao.latencias.getIntervalHistogram(medicao.intervalo));
+	}
+
+	/**
+	 * Esvazia os recorders, gravando no log o intervalo de cada cenário, marcado
+	 * com o nome dele, e acumulando-o no total do cenário.
+	 */
+	synchronized void fecharIntervalo(HistogramLogWriter log) {
+		porCenario.forEach((cenario, medicao) -> {
+			medicao.intervalo = medicao.latencias.getIntervalHistogram(medicao.intervalo);
+			medicao.intervalo.setTag(cenario.name());
+			log.outputIntervalHistogram(medicao.intervalo);
+			medicao.total.add(medicao.intervalo);
+		});
+	}
+
+	/**
+	 * Resultados de cada cenário com chegadas, seguidos do total de todos eles.
+	 */
+	synchronized List<Resultado> resultados(double segundos) {
+		List<Resultado> resultados = new ArrayList<>();
+		Histogram geral = new Histogram(3);
+		Map<Integer, Long> respostasGerais = new TreeMap<>();
+		long falhas = 0;
+		long descartadas = 0;
+		for(Map.Entry<Cenario, Medicao> item : porCenario.entrySet()) {
+			Medicao medicao = item.getValue();
+			Map<Integer, Long> respostas = new TreeMap<>();
+			medicao.respostas.forEach((status, contagem) -> respostas.put(status, contagem.sum()));
+			if(respostas.isEmpty() && medicao.falhas.sum() == 0 && medicao.descartadas.sum() == 0) {
+				continue;
+			}
+			resultados.add(Resultado.de(item.getKey().name(), item.getKey().endpoint, medicao.total, respostas,
+					medicao.falhas.sum(), medicao.descartadas.sum(), segundos));
+			geral.add(medicao.total);
+			respostas.forEach((status, contagem) -> respostasGerais.merge(status, contagem, Long::sum));
+			falhas += medicao.falhas.sum();
+			descartadas += medicao.descartadas.sum();
+		}
+		resultados.add(Resultado.de("TOTAL", "", geral, respostasGerais, falhas, descartadas, segundos));
+		return resultados;
+	}
+
+	private static final class Medicao {
+
+		private final Recorder latencias = new Recorder(3);
+		private final Histogram total = new Histogram(3);
+		private final Map<Integer, LongAdder> respostas = new ConcurrentHashMap<>();
+		private final LongAdder falhas = new LongAdder();
+		private final LongAdder descartadas = new LongAdder();
+		private Histogram intervalo;
+	}
+}
@@ -0,0 +1,80 @@
+package br.com.cnaga.minhasfinancas.carga;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Grava os resultados da carga em {@code resumo.json}, com a configuração usada,
+ * e em {@code resumo.csv}, uma linha por cenário, e os mostra numa tabela.
+ */
+final class Relatorio {
+
+	private static final String CABECALHO_CSV = "cenario,endpoint,requisicoes,erros,falhas,descartadas,vazao,p50_ms,p90_ms,p99_ms,p999_ms,maximo_ms,media_ms";
+
+	private final Configuracao configuracao;
+	private final OffsetDateTime inicio;
+
+	Relatorio(Configuracao configuracao, OffsetDateTime inicio) {
+		this.configuracao = configuracao;
+		this.inicio = inicio;
+	}
+
+	void gravar(List<Resultado> resultados) throws IOException {
+		Files.createDirectories(configuracao.saida());
+
+		Map<String, Object> resumo = new LinkedHashMap<>();
+		resumo.put("rotulo", configuracao.rotulo());
+		resumo.put("inicio", inicio.toString());
+		resumo.put("java", Runtime.version().toString());
+		resumo.put("processadores", Runtime.getRuntime().availableProcessors());
+		resumo.put("configuracao", descreverConfiguracao());
+		resumo.put("resultados", resultados);
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+				.writeValue(configuracao.saida().resolve("resumo.json").toFile(), resumo);
+
+		List<String> linhas = resultados.stream()
+				.map(resultado -> String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+						resultado.cenario(), resultado.endpoint(), resultado.requisicoes(), resultado.erros(),
+						resultado.falhas(), resultado.descartadas(), resultado.vazao(), resultado.p50(), resultado.p90(),
+						resultado.p99(), resultado.p999(), resultado.maximo(), resultado.media()))
+				.collect(Collectors.toList());
+		linhas.add(0, CABECALHO_CSV);
+		Files.write(configuracao.saida().resolve("resumo.csv"), linhas);
+	}
+
+	void mostrar(List<Resultado> resultados, PrintStream saida) {
+		saida.printf("%n%-17s %8s %7s %6s %6s %9s %9s %9s %9s %9s%n", "cenario", "req", "erros", "falhas",
+				"desc.", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+		for(Resultado resultado : resultados) {
+			saida.printf(Locale.ROOT, "%-17s %8d %7d %6d %6d %9.1f %9.2f %9.2f %9.2f %9.2f%n", resultado.cenario(),
+					resultado.requisicoes(), resultado.erros(), resultado.falhas(), resultado.descartadas(),
+					resultado.vazao(), resultado.p50(), resultado.p99(), resultado.p999(), resultado.maximo());
+		}
+		saida.printf("%nResultados em %s%n", configuracao.saida().toAbsolutePath());
+	}
+
+	private Map<String, Object> descreverConfiguracao() {
+		Map<String, Object> descricao = new LinkedHashMap<>();
+		descricao.put("taxa", configuracao.taxa());
+		descricao.put("chegadas", configuracao.poisson() ? "poisson" : "constante");
+		descricao.put("aquecimento", configuracao.aquecimento().toString());
+		descricao.put("duracao", configuracao.duracao().toString());
+		descricao.put("usuarios", configuracao.usuarios());
+		descricao.put("lancamentos", configuracao.lancamentos());
+		descricao.put("pendentes", configuracao.pendentes());
+		descricao.put("mistura", configuracao.mistura());
+		descricao.put("propriedadesAplicacao", configuracao.propriedadesAplicacao());
+		return descricao;
+	}
+}
@@ -0,0 +1,118 @@
+package br.com.cnaga.minhasfinancas.carga;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Monta e envia as requisições de cada cenário em nome de um usuário simulado.
+ * Os filtros da busca, os valores incluídos e os status trocados são sorteados a
+ * cada chamada.
+ */
+final class Requisicoes {
+
+	static final String[] DESCRICOES = { "Supermercado", "Farmacia", "Conta de luz", "Aluguel",
+			"Restaurante", "Combustivel", "Salario", "Academia" };
+
+	private static final Duration TEMPO_MAXIMO = Duration.ofSeconds(30);
+
+	private final HttpClient http;
+	private final URI base;
+	private final ObjectMapper json = new ObjectMapper();
+
+	Requisicoes(HttpClient http, URI base) {
+		this.http = http;
+		this.base = base;
+	}
+
+	/**
+	 * Executa o cenário e retorna o status HTTP da resposta.
+	 */
+	int executar(Cenario cenario, UsuarioSimulado usuario) throws IOException, InterruptedException {
+		HttpResponse<String> resposta = http.send(montar(cenario, usuario), HttpResponse.BodyHandlers.ofString());
+		if(cenario == Cenario.AUTENTICAR && resposta.statusCode() == 200) {
+			usuario.token = lerToken(resposta.body());
+		}
+		return resposta.statusCode();
+	}
+
+	private HttpRequest montar(Cenario cenario, UsuarioSimulado usuario) {
+		ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+		return switch(cenario) {
+			case AUTENTICAR -> post("/api/usuarios/autenticar", null,
+					Map.of("email", usuario.email, "senha", usuario.senha));
+			case BUSCAR -> get("/api/lancamentos?" + filtroDeBusca(usuario, aleatorio), usuario);
+			case INCLUIR -> post("/api/lancamentos", usuario, Map.of(
+					"descricao", DESCRICOES[aleatorio.nextInt(DESCRICOES.length)] + " " + aleatorio.nextInt(1000),
+					"mes", aleatorio.nextInt(1, 13),
+					"ano", aleatorio.nextInt(2020, 2024),
+					"valor", BigDecimal.valueOf(aleatorio.nextLong(100, 100_000), 2),
+					"usuario", usuario.id,
+					"tipo", aleatorio.nextBoolean() ? "RECEITA" : "DESPESA"));
+			case ATUALIZAR_STATUS -> put("/api/lancamentos/" + usuario.lancamentos[aleatorio.nextInt(usuario.lancamentos.length)]
+					+ "/atualiza-status", usuario, Map.of("status", aleatorio.nextBoolean() ? "EFETIVADO" : "PENDENTE"));
+			case SALDO -> get("/api/usuarios/" + usuario.id + "/saldo", usuario);
+		};
+	}
+
+	private String filtroDeBusca(UsuarioSimulado usuario, ThreadLocalRandom aleatorio) {
+		String filtro = "usuario=" + usuario.id + "&tamanho=50";
+		return switch(aleatorio.nextInt(4)) {
+			case 0 -> filtro;
+			case 1 -> filtro + "&ano=" + aleatorio.nextInt(2020, 2024);
+			case 2 -> filtro + "&ano=" + aleatorio.nextInt(2020, 2024) + "&mes=" + aleatorio.nextInt(1, 13);
+			default -> filtro + "&descricao=" + DESCRICOES[aleatorio.nextInt(DESCRICOES.length)].split(" ")[0].toLowerCase();
+		};
+	}
+
+	private HttpRequest get(String caminho, UsuarioSimulado usuario) {
+		return requisicao(caminho, usuario).GET().build();
+	}
+
+	private HttpRequest post(String caminho, UsuarioSimulado usuario, Object corpo) {
+		return requisicao(caminho, usuario)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(escrever(corpo)))
+				.build();
+	}
+
+	private HttpRequest put(String caminho, UsuarioSimulado usuario, Object corpo) {
+		return requisicao(caminho, usuario)
+				.header("Content-Type", "application/json")
+				.PUT(HttpRequest.BodyPublishers.ofString(escrever(corpo)))
+				.build();
+	}
+
+	private HttpRequest.Builder requisicao(String caminho, UsuarioSimulado usuario) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(base.resolve(caminho))
+				.timeout(TEMPO_MAXIMO)
+				.header("Accept", "application/json");
+		if(usuario != null && usuario.token != null) {
+			builder.header("Authorization", "Bearer " + usuario.token);
+		}
+		return builder;
+	}
+
+	private String escrever(Object corpo) {
+		try {
+			return json.writeValueAsString(corpo);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private String lerToken(String corpo) throws IOException {
+		JsonNode token = json.readTree(corpo).get("token");
+		return token == null || token.isNull() ? null : token.asText();
+	}
+}
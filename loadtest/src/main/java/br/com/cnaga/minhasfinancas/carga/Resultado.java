@@ -0,0 +1,49 @@
+package br.com.cnaga.minhasfinancas.carga;
+
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Resumo de um cenário no período medido. A vazão conta apenas as respostas
+ * 2xx e 3xx, as mesmas que entram nos percentis, dados em milissegundos.
+ */
+record Resultado(
+		String cenario,
+		String endpoint,
+		long requisicoes,
+		long erros,
+		long falhas,
+		long descartadas,
+		double vazao,
+		double p50,
+		double p90,
+		double p99,
+		double p999,
+		double maximo,
+		double media,
+		Map<Integer, Long> respostas) {
+
+	static Resultado de(String cenario, String endpoint, Histogram latencias, Map<Integer, Long> respostas,
+			long falhas, long descartadas, double segundos) {
+		long total = respostas.values().stream().mapToLong(Long::longValue).sum();
+		long sucessos = latencias.getTotalCount();
+		return new Resultado(cenario, endpoint, total, total - sucessos, falhas, descartadas,
+				arredondar(sucessos / segundos),
+				milissegundos(latencias.getValueAtPercentile(50)),
+				milissegundos(latencias.getValueAtPercentile(90)),
+				milissegundos(latencias.getValueAtPercentile(99)),
+				milissegundos(latencias.getValueAtPercentile(99.9)),
+				milissegundos(latencias.getMaxValue()),
+				milissegundos(sucessos == 0 ? 0 : latencias.getMean()),
+				respostas);
+	}
+
+	private static double milissegundos(double microssegundos) {
+		return arredondar(microssegundos / 1000);
+	}
+
+	private static double arredondar(double valor) {
+		return Math.round(valor * 1000) / 1000.0;
+	}
+}
@@ -0,0 +1,113 @@
+package br.com.cnaga.minhasfinancas.carga;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.cnaga.minhasfinancas.MinhasfinancasApplication;
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+import br.com.cnaga.minhasfinancas.service.UsuarioService;
+
+/**
+ * Sobe a aplicação sobre o H2 em memória do perfil de teste, numa porta livre,
+ * cria a massa de usuários e lançamentos pelos serviços, autentica cada usuário
+ * fora da medição e aplica a carga pelo HTTP.
+ */
+public final class TesteCarga {
+
+	private static final String SENHA = "carga";
+
+	private TesteCarga() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Configuracao configuracao = Configuracao.ler(args);
+		OffsetDateTime inicio = OffsetDateTime.now();
+
+		try(ConfigurableApplicationContext contexto = iniciar(configuracao);
+				HttpClient http = HttpClient.newBuilder()
+						.version(HttpClient.Version.HTTP_1_1)
+						.executor(Executors.newVirtualThreadPerTaskExecutor())
+						.build()) {
+			URI base = URI.create("http://localhost:" + contexto.getEnvironment().getProperty("local.server.port"));
+			Requisicoes requisicoes = new Requisicoes(http, base);
+
+			List<UsuarioSimulado> usuarios = criarMassa(contexto, configuracao);
+			for(UsuarioSimulado usuario : usuarios) {
+				int status = requisicoes.executar(Cenario.AUTENTICAR, usuario);
+				if(status != 200) {
+					throw new IllegalStateException("Falha ao autenticar " + usuario.email + ": HTTP " + status);
+				}
+			}
+
+			List<Resultado> resultados = new GeradorCarga(configuracao, requisicoes, usuarios)
+					.executar(prepararSaida(configuracao));
+			Relatorio relatorio = new Relatorio(configuracao, inicio);
+			relatorio.gravar(resultados);
+			relatorio.mostrar(resultados, System.out);
+		}
+	}
+
+	private static ConfigurableApplicationContext iniciar(Configuracao configuracao) {
+		return new SpringApplicationBuilder(MinhasfinancasApplication.class)
+				.profiles("test")
+				.web(WebApplicationType.SERVLET)
+				.properties(
+						"spring.main.banner-mode=off",
+						"logging.level.root=WARN",
+						"server.port=0",
+						"minhasfinancas.saldo.verificacao.cron=-")
+				.run(configuracao.propriedadesAplicacao().toArray(String[]::new));
+	}
+
+	private static List<UsuarioSimulado> criarMassa(ConfigurableApplicationContext contexto, Configuracao configuracao) {
+		UsuarioService usuarioService = contexto.getBean(UsuarioService.class);
+		LancamentoService lancamentoService = contexto.getBean(LancamentoService.class);
+		System.out.printf("Criando %d usuários com %d lançamentos cada%n", configuracao.usuarios(), configuracao.lancamentos());
+
+		List<UsuarioSimulado> usuarios = new ArrayList<>(configuracao.usuarios());
+		for(int i = 0; i < configuracao.usuarios(); i++) {
+			Usuario usuario = usuarioService.salvarUsuario(Usuario.builder()
+					.nome("Carga " + i)
+					.email("carga" + i + "@email.com")
+					.senha(SENHA)
+					.build());
+
+			List<Lancamento> lancamentos = new ArrayList<>(configuracao.lancamentos());
+			for(int j = 0; j < configuracao.lancamentos(); j++) {
+				lancamentos.add(Lancamento.builder()
+						.descricao(Requisicoes.DESCRICOES[j % Requisicoes.DESCRICOES.length] + " " + j)
+						.mes(j % 12 + 1)
+						.ano(2020 + j % 4)
+						.valor(BigDecimal.valueOf(100_00L + j, 2))
+						.tipo(j % 3 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA)
+						.status(StatusLancamento.PENDENTE)
+						.usuario(usuario)
+						.build());
+			}
+			long[] ids = lancamentoService.salvarTodos(lancamentos).stream().mapToLong(Lancamento::getId).toArray();
+			usuarios.add(new UsuarioSimulado(usuario.getId(), usuario.getEmail(), SENHA, ids));
+		}
+		return usuarios;
+	}
+
+	private static Path prepararSaida(Configuracao configuracao) throws IOException {
+		Files.createDirectories(configuracao.saida());
+		return configuracao.saida().resolve("latencias.hlog");
+	}
+}
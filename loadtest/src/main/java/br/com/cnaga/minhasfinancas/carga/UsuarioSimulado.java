@@ -0,0 +1,21 @@
+package br.com.cnaga.minhasfinancas.carga;
+
+/**
+ * Usuário criado para a carga, com os ids dos seus lançamentos iniciais e o
+ * token da última autenticação.
+ */
+final class UsuarioSimulado {
+
+	final Long id;
+	final String email;
+	final String senha;
+	final long[] lancamentos;
+	volatile String token;
+
+	UsuarioSimulado(Long id, String email, String senha, long[] lancamentos) {
+		this.id = id;
+		this.email = email;
+		this.senha = senha;
+		this.lancamentos = lancamentos;
+	}
+}
@@ -0,0 +1,149 @@
+package br.com.cnaga.minhasfinancas.api.csv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import br.com.cnaga.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
+import br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido;
+
+public final class LancamentoCsv {
+
+	public static final String CABECALHO = "id,descricao,mes,ano,valor,tipo,status,dataCadastro";
+	
+	private static final char SEPARADOR = ',';
+	private static final char ASPAS = '"';
+	
+	private LancamentoCsv() {
+	}
+	
+	public static String formatar(LancamentoResumido lancamento) {
+		StringBuilder linha = new StringBuilder(96);
+		linha.append(valor(lancamento.getId())).append(SEPARADOR);
+		escapar(linha, lancamento.getDescricao());
+		linha.append(SEPARADOR)
+			.append(valor(lancamento.getMes())).append(SEPARADOR)
+			.append(valor(lancamento.getAno())).append(SEPARADOR)
+			.append(lancamento.getValor() == null ? "" : lancamento.getValor().toPlainString()).append(SEPARADOR)
+			.append(valor(lancamento.getTipo())).append(SEPARADOR)
+			.append(valor(lancamento.getStatus())).append(SEPARADOR)
+			.append(valor(lancamento.getDataCadastro()));
+		return linha.toString();
+	}
+	
+	/**
+	 * Lê o próximo registro do arquivo, continuando nas linhas seguintes enquanto
+	 * houver um campo entre aspas aberto. Retorna null ao fim do arquivo.
+	 */
+	public static List<String> lerRegistro(BufferedReader reader) throws IOException {
+		String linha = reader.readLine();
+		if(linha == null) {
+			return null;
+		}
+		
+		List<String> campos = new ArrayList<>();
+		StringBuilder campo = new StringBuilder();
+		boolean entreAspas = false;
+		while(true) {
+			for(int i = 0; i < linha.length(); i++) {
+				char c = linha.charAt(i);
+				if(entreAspas) {
+					if(c != ASPAS) {
+						campo.append(c);
+					} else if(i + 1 < linha.length() && linha.charAt(i + 1) == ASPAS) {
+						campo.append(ASPAS);
+						i++;
+					} else {
+						entreAspas = false;
+					}
+				} else if(c == ASPAS) {
+					entreAspas = true;
+				} else if(c == SEPARADOR) {
+					campos.add(campo.toString());
+					campo.setLength(0);
+				} else {
+					campo.append(c);
+				}
+			}
+			if(!entreAspas || (linha = reader.readLine()) == null) {
+				break;
+			}
+			campo.append('\n');
+		}
+		campos.add(campo.toString());
+		return campos;
+	}
+	
+	public static Map<String, Integer> indexarCabecalho(List<String> cabecalho) {
+		Map<String, Integer> colunas = new HashMap<>();
+		for(int i = 0; i < cabecalho.size(); i++) {
+			colunas.put(cabecalho.get(i).trim().toLowerCase(), i);
+		}
+		return colunas;
+	}
+	
+	public static LancamentoDTO converter(Map<String, Integer> colunas, List<String> campos) {
+		return LancamentoDTO.builder()
+				.descricao(campo(colunas, campos, "descricao"))
+				.mes(inteiro(campo(colunas, campos, "mes")))
+				.ano(inteiro(campo(colunas, campos, "ano")))
+				.valor(decimal(campo(colunas, campos, "valor")))
+				.tipo(campo(colunas, campos, "tipo"))
+				.status(campo(colunas, campos, "status"))
+				.build();
+	}
+	
+	private static String campo(Map<String, Integer> colunas, List<String> campos, String nome) {
+		Integer indice = colunas.get(nome);
+		if(indice == null || indice >= campos.size() || campos.get(indice).isBlank()) {
+			return null;
+		}
+		return campos.get(indice).trim();
+	}
+	
+	private static Integer inteiro(String valor) {
+		try {
+			return valor == null ? null : Integer.valueOf(valor);
+		} catch (NumberFormatException e) {
+			throw new RegraNegocioException("Valor numérico inválido: " + valor);
+		}
+	}
+	
+	private static BigDecimal decimal(String valor) {
+		try {
+			return valor == null ? null : new BigDecimal(valor);
+		} catch (NumberFormatException e) {
+			throw new RegraNegocioException("Valor numérico inválido: " + valor);
+		}
+	}
+	
+	private static void escapar(StringBuilder linha, String campo) {
+		if(campo == null) {
+			return;
+		}
+		boolean precisaAspas = campo.indexOf(SEPARADOR) >= 0 || campo.indexOf(ASPAS) >= 0 
+				|| campo.indexOf('\n') >= 0 || campo.indexOf('\r') >= 0;
+		if(!precisaAspas) {
+			linha.append(campo);
+			return;
+		}
+		linha.append(ASPAS);
+		for(int i = 0; i < campo.length(); i++) {
+			char c = campo.charAt(i);
+			if(c == ASPAS) {
+				linha.append(ASPAS);
+			}
+			linha.append(c);
+		}
+		linha.append(ASPAS);
+	}
+	
+	private static String valor(Object valor) {
+		return valor == null ? "" : valor.toString();
+	}
+}
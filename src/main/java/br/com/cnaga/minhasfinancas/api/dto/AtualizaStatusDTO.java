@@ -4,10 +4,17 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Com {@code versao} e {@code usuario}, o status é trocado sem consultar o
+ * lançamento antes; {@code statusAtual}, se informado, também precisa conferir.
+ */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class AtualizaStatusDTO {
 
 	private String status;
+	private String statusAtual;
+	private Long versao;
+	private Long usuario;
 }
@@ -0,0 +1,22 @@
+package br.com.cnaga.minhasfinancas.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AtualizaStatusEmLoteDTO {
+
+	private List<Long> ids;
+	private Long usuario;
+	private Integer ano;
+	private Integer mes;
+	private String statusAtual;
+	private String status;
+}
@@ -0,0 +1,14 @@
+package br.com.cnaga.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ErroImportacaoDTO {
+
+	private Integer registro;
+	private String mensagem;
+}
@@ -0,0 +1,13 @@
+package br.com.cnaga.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoAtualizacaoStatusDTO {
+
+	private Integer atualizados;
+}
@@ -0,0 +1,16 @@
+package br.com.cnaga.minhasfinancas.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoImportacaoDTO {
+
+	private Integer importados;
+	private List<ErroImportacaoDTO> erros;
+}
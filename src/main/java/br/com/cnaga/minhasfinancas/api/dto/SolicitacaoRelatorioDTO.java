@@ -0,0 +1,16 @@
+package br.com.cnaga.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SolicitacaoRelatorioDTO {
+
+	private Long usuario;
+	private Integer ano;
+}
@@ -0,0 +1,19 @@
+package br.com.cnaga.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resposta da troca de status de um lançamento, com a versão gerada pela troca.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StatusAtualizadoDTO {
+
+	private Long id;
+	private Long usuario;
+	private String status;
+	private Long versao;
+}
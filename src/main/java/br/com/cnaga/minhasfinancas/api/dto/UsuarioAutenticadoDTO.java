@@ -0,0 +1,19 @@
+package br.com.cnaga.minhasfinancas.api.dto;
+
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+public class UsuarioAutenticadoDTO {
+
+	private Long id;
+	private String nome;
+	private String email;
+	private String token;
+	private Instant expiraEm;
+}
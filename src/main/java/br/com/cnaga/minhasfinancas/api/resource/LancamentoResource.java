@@ -1,33 +1,71 @@
 package br.com.cnaga.minhasfinancas.api.resource;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.cnaga.minhasfinancas.api.csv.LancamentoCsv;
 import br.com.cnaga.minhasfinancas.api.dto.AtualizaStatusDTO;
+import br.com.cnaga.minhasfinancas.api.dto.AtualizaStatusEmLoteDTO;
+import br.com.cnaga.minhasfinancas.api.dto.ErroImportacaoDTO;
 import br.com.cnaga.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.cnaga.minhasfinancas.api.dto.ResultadoAtualizacaoStatusDTO;
+import br.com.cnaga.minhasfinancas.api.dto.ResultadoImportacaoDTO;
+import br.com.cnaga.minhasfinancas.api.dto.StatusAtualizadoDTO;
+import br.com.cnaga.minhasfinancas.config.TokenFilter;
+import br.com.cnaga.minhasfinancas.exception.ConflitoConcorrenciaException;
+import br.com.cnaga.minhasfinancas.exception.ConflitoIdempotenciaException;
+import br.com.cnaga.minhasfinancas.exception.ExecucaoPendenteException;
+import br.com.cnaga.minhasfinancas.exception.LimiteExcedidoException;
 import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
 import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
 import br.com.cnaga.minhasfinancas.model.entity.Usuario;
 import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
 import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.service.IdempotenciaService;
+import br.com.cnaga.minhasfinancas.service.InclusaoLancamentoService;
 import br.com.cnaga.minhasfinancas.service.LancamentoService;
+import br.com.cnaga.minhasfinancas.service.Pagina;
 import br.com.cnaga.minhasfinancas.service.UsuarioService;
+import br.com.cnaga.minhasfinancas.service.VersaoDadosService;
 
 @RestController
 @RequestMapping("/api/lancamentos")
@@ -36,29 +74,149 @@ public class LancamentoResource {
 	@Autowired
 	private LancamentoService service;
 	@Autowired
+	private InclusaoLancamentoService inclusaoService;
+	@Autowired
 	private UsuarioService usuarioService;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private VersaoDadosService versaoDadosService;
+	@Autowired
+	private IdempotenciaService idempotenciaService;
+	
+	@Value("${minhasfinancas.importacao.maximo-registros:100000}")
+	private int maximoRegistrosImportacao;
 	
+	/**
+	 * Com o cabeçalho {@code Idempotency-Key}, as repetições da mesma inclusão pelo
+	 * mesmo usuário recebem a resposta da primeira, sem gravar de novo. Uma inclusão
+	 * recusada, com 400, ou retirada da fila sem ser gravada, com 503, não é
+	 * guardada: a repetição executa de novo. Se a inclusão já estava sendo gravada
+	 * quando o tempo esgotou, também responde 503, mas a repetição aguarda e recebe
+	 * o resultado dessa gravação.
+	 * Com {@code plano=true}, responde com o usuário apenas pelo id, sem consultá-lo.
+	 */
 	@PostMapping
-	public ResponseEntity salvar(@RequestBody LancamentoDTO dto) {
+	public ResponseEntity salvar(@RequestBody LancamentoDTO dto,
+			@RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia,
+			@RequestParam(value = "plano", defaultValue = "false") boolean plano,
+			@RequestAttribute(value = TokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioToken) {
+		if(!UsuarioDoToken.confere(idUsuarioToken, dto.getUsuario())) {
+			return UsuarioDoToken.negar();
+		}
 		try {
-			Lancamento entidade = converter(dto);
-			entidade = service.salvar(entidade);
-			URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(entidade.getId())
-					.toUri();
-			return ResponseEntity.created(uri).body(entidade);
+			if(chaveIdempotencia == null) {
+				return incluir(dto, plano);
+			}
+			return idempotenciaService.executar(dto.getUsuario() + ":" + chaveIdempotencia, dto, () -> incluir(dto, plano));
+		} catch (LimiteExcedidoException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+		} catch (ConflitoIdempotenciaException e) {
+			return ResponseEntity.unprocessableEntity().body(e.getMessage());
 		} catch (RegraNegocioException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
 	}
 	
+	/**
+	 * As recusas saem como exceção, e não como resposta, para não serem guardadas
+	 * pela idempotência.
+	 */
+	private ResponseEntity incluir(LancamentoDTO dto, boolean plano) {
+		Lancamento entidade = converter(dto);
+		entidade.setVersao(null);
+		UriComponentsBuilder uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}");
+		try {
+			return criado(uri, inclusaoService.salvar(entidade), plano);
+		} catch (ExecucaoPendenteException e) {
+			throw new ExecucaoPendenteException(e.getMessage(),
+					e.getResultado().thenApply(gravado -> criado(uri, (Lancamento) gravado, plano)));
+		}
+	}
+	
+	private ResponseEntity criado(UriComponentsBuilder uri, Lancamento lancamento, boolean plano) {
+		return ResponseEntity.created(uri.buildAndExpand(lancamento.getId()).toUri()).body(responder(lancamento, plano));
+	}
+	
+	/**
+	 * Lê a lista um registro por vez e recusa a importação assim que ela passa do
+	 * limite de registros, sem ler o restante do corpo.
+	 */
+	@PostMapping(value = "importar", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity importar(
+			@RequestParam(value = "usuario", required = true) Long idUsuario,
+			InputStream corpo ) throws IOException {
+		List<LancamentoDTO> dtos = new ArrayList<>();
+		try(JsonParser parser = objectMapper.getFactory().createParser(corpo)) {
+			JsonToken inicio = parser.nextToken();
+			if(inicio == null) {
+				return ResponseEntity.badRequest().body("Arquivo de importação vazio.");
+			}
+			if(inicio != JsonToken.START_ARRAY) {
+				return ResponseEntity.badRequest().body("Informe os lançamentos da importação numa lista.");
+			}
+			while(parser.nextToken() != JsonToken.END_ARRAY) {
+				if(dtos.size() >= maximoRegistrosImportacao) {
+					return excedeLimiteImportacao();
+				}
+				dtos.add(objectMapper.readValue(parser, LancamentoDTO.class));
+			}
+		} catch (JsonProcessingException e) {
+			return ResponseEntity.badRequest().body("Arquivo de importação inválido: " + e.getOriginalMessage());
+		}
+		return importar(idUsuario, dtos, new ArrayList<>());
+	}
+	
+	@PostMapping(value = "importar", consumes = "text/csv")
+	public ResponseEntity importarCsv(
+			@RequestParam(value = "usuario", required = true) Long idUsuario,
+			Reader corpo ) throws IOException {
+		BufferedReader reader = new BufferedReader(corpo);
+		List<String> cabecalho = LancamentoCsv.lerRegistro(reader);
+		if(cabecalho == null) {
+			return ResponseEntity.badRequest().body("Arquivo de importação vazio.");
+		}
+		Map<String, Integer> colunas = LancamentoCsv.indexarCabecalho(cabecalho);
+		
+		List<LancamentoDTO> dtos = new ArrayList<>();
+		List<ErroImportacaoDTO> erros = new ArrayList<>();
+		List<String> campos;
+		while((campos = LancamentoCsv.lerRegistro(reader)) != null) {
+			if(campos.size() == 1 && campos.get(0).isBlank()) {
+				continue;
+			}
+			if(dtos.size() >= maximoRegistrosImportacao) {
+				return excedeLimiteImportacao();
+			}
+			try {
+				dtos.add(LancamentoCsv.converter(colunas, campos));
+			} catch (RegraNegocioException e) {
+				dtos.add(null);
+				erros.add(new ErroImportacaoDTO(dtos.size(), e.getMessage()));
+			}
+		}
+		return importar(idUsuario, dtos, erros);
+	}
+	
 	@PutMapping("{id}")
-	public ResponseEntity atualizar(@PathVariable Long id, @RequestBody LancamentoDTO dto) {
+	public ResponseEntity atualizar(@PathVariable Long id, @RequestBody LancamentoDTO dto,
+			@RequestParam(value = "plano", defaultValue = "false") boolean plano,
+			@RequestAttribute(value = TokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioToken) {
 			return service.obterPorId(id).map(entity -> {
+				if(!UsuarioDoToken.confere(idUsuarioToken, entity.getUsuario().getId())
+						|| !UsuarioDoToken.confere(idUsuarioToken, dto.getUsuario())) {
+					return UsuarioDoToken.negar();
+				}
 				try {
 					Lancamento lancamento = converter(dto);
 					lancamento.setId(entity.getId());
+					if(lancamento.getStatus() == null) {
+						lancamento.setStatus(entity.getStatus());
+					}
 					service.atualizar(lancamento);
-					return ResponseEntity.ok(lancamento);						
+					return ResponseEntity.ok(responder(lancamento, plano));						
+				} catch (ConflitoConcorrenciaException e) {
+					return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
 				} catch (RegraNegocioException e) {
 					return ResponseEntity.badRequest().body(e.getMessage());
 				}
@@ -66,13 +224,21 @@ public class LancamentoResource {
 	}
 	
 	@DeleteMapping("{id}")
-	public ResponseEntity deletar(@PathVariable("id") Long id) {
+	public ResponseEntity deletar(@PathVariable("id") Long id, @RequestAttribute(value = TokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioToken) {
 		return service.obterPorId(id).map(entity -> {
+				if(!UsuarioDoToken.confere(idUsuarioToken, entity.getUsuario().getId())) {
+					return UsuarioDoToken.negar();
+				}
 				service.deletar(entity);
 				return new ResponseEntity(HttpStatus.NO_CONTENT);						
 		}).orElseGet(() -> new ResponseEntity("Lançamento não encontrado.", HttpStatus.BAD_REQUEST));		
 	}
 	
+	/**
+	 * Responde com a lista dos lançamentos de uma página e, havendo mais, o
+	 * endereço da seguinte no cabeçalho {@code Link} com {@code rel="next"}. Com
+	 * {@code paginado=true}, responde com a página e o próximo cursor no corpo.
+	 */
 	@GetMapping
 	public ResponseEntity buscar(
 		@RequestParam(value = "descricao", required = false) String descricao,
@@ -81,59 +247,264 @@ public class LancamentoResource {
 		@RequestParam(value = "valor", required = false) BigDecimal valor,
 		@RequestParam(value = "usuario", required = true) Long idUsuario,
 		@RequestParam(value = "tipo", required = false) TipoLancamento tipo,
-		@RequestParam(value = "status", required = false) StatusLancamento status		
+		@RequestParam(value = "status", required = false) StatusLancamento status,
+		@RequestParam(value = "cursor", required = false) Long cursor,
+		@RequestParam(value = "tamanho", required = false) Integer tamanho,
+		@RequestParam(value = "plano", defaultValue = "false") boolean plano,
+		@RequestParam(value = "paginado", defaultValue = "false") boolean paginado,
+		WebRequest request
 		) {
 		
+		// Fraco: o mesmo conteúdo vai em JSON, CBOR ou Smile, comprimido ou não, e o
+		// Tomcat não comprime respostas com ETag forte.
+		Optional<String> etag = versaoDadosService.obterEtag(idUsuario).map(versao -> "W/" + versao);
+		if(etag.isPresent() && request.checkNotModified(etag.get())) {
+			return null;
+		}
+		
 		Lancamento lancamentoFiltro = new Lancamento();
 		lancamentoFiltro.setDescricao(descricao);
 		lancamentoFiltro.setMes(mes);
 		lancamentoFiltro.setAno(ano);
 		lancamentoFiltro.setValor(valor);
 		
-		Optional<Usuario> usuario = usuarioService.obterPorId(idUsuario);
-		if(!usuario.isPresent()) {
-			return ResponseEntity.badRequest().body("Usuário não encontrado para o id informado.");
-		} else {
-			lancamentoFiltro.setUsuario(usuario.get());
-		}
-
+		lancamentoFiltro.setUsuario(Usuario.builder().id(idUsuario).build());
 		lancamentoFiltro.setTipo(tipo);
 		lancamentoFiltro.setStatus(status);
 		
-		List<Lancamento> lancamentos = service.buscar(lancamentoFiltro);
+		Pagina<Lancamento> pagina = service.buscar(lancamentoFiltro, cursor, tamanho);
+		Pagina<?> resultado = !plano ? pagina : new Pagina<>(
+				pagina.getConteudo().stream().map(this::converter).toList(), pagina.getProximoCursor());
 		
-		return ResponseEntity.ok(lancamentos);
+		ResponseEntity.BodyBuilder resposta = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+		etag.ifPresent(resposta::eTag);
+		if(paginado) {
+			return resposta.body(resultado);
+		}
+		if(pagina.getProximoCursor() != null) {
+			String proxima = ServletUriComponentsBuilder.fromCurrentRequest()
+					.replaceQueryParam("cursor", pagina.getProximoCursor()).toUriString();
+			resposta.header(HttpHeaders.LINK, "<" + proxima + ">; rel=\"next\"");
+		}
+		return resposta.body(resultado.getConteudo());
 	}
 	
+	@GetMapping("exportar")
+	public ResponseEntity<StreamingResponseBody> exportar(
+			@RequestParam(value = "usuario", required = true) Long idUsuario,
+			@RequestParam(value = "formato", defaultValue = "ndjson") String formato ) {
+		
+		boolean csv = "csv".equalsIgnoreCase(formato);
+		if(!csv && !"ndjson".equalsIgnoreCase(formato)) {
+			return erroExportacao("Formato de exportação inválido.");
+		}
+		
+		if(!usuarioService.obterPorId(idUsuario).isPresent()) {
+			return erroExportacao("Usuário não encontrado para o id informado.");
+		}
+		
+		StreamingResponseBody corpo = csv ? exportarCsv(idUsuario) : exportarNdjson(idUsuario);
+		
+		return ResponseEntity.ok()
+				.contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+				.header(HttpHeaders.CONTENT_DISPOSITION, 
+						"attachment; filename=\"lancamentos-" + idUsuario + (csv ? ".csv" : ".ndjson") + "\"")
+				.body(corpo);
+	}
+	
+	/**
+	 * Com a versão e o usuário no corpo, troca o status sem consultar o lançamento.
+	 * Sem eles, consulta o lançamento e condiciona a troca à versão lida. Nos dois
+	 * casos responde com id, usuário, status e a nova versão, e com 409 se outra
+	 * escrita chegou antes.
+	 */
 	@PutMapping("{id}/atualiza-status")
-	public ResponseEntity atualizarStatus(@PathVariable("id") Long id,  @RequestBody AtualizaStatusDTO dto) {
+	public ResponseEntity atualizarStatus(@PathVariable("id") Long id,  @RequestBody AtualizaStatusDTO dto,
+			@RequestAttribute(value = TokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioToken) {
+		StatusLancamento statusSelecionado;
+		StatusLancamento statusAtual;
+		try {
+			statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
+			statusAtual = dto.getStatusAtual() == null ? null : StatusLancamento.valueOf(dto.getStatusAtual());
+		} catch (IllegalArgumentException | NullPointerException e) {
+			return ResponseEntity.badRequest().body("Status informado inválido.");
+		}
+		
+		if(dto.getVersao() != null && dto.getUsuario() != null) {
+			if(!UsuarioDoToken.confere(idUsuarioToken, dto.getUsuario())) {
+				return UsuarioDoToken.negar();
+			}
+			Lancamento lancamento = Lancamento.builder()
+					.id(id)
+					.usuario(Usuario.builder().id(dto.getUsuario()).build())
+					.status(statusAtual)
+					.versao(dto.getVersao())
+					.build();
+			return atualizarStatus(lancamento, statusSelecionado);
+		}
+		
 		return service.obterPorId(id).map( entity -> {
-			StatusLancamento statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
-			if(statusSelecionado == null) {
-				return ResponseEntity.badRequest().body("Status informado inválido.");
+			if(!UsuarioDoToken.confere(idUsuarioToken, entity.getUsuario().getId())) {
+				return UsuarioDoToken.negar();
+			}
+			if(statusAtual != null && statusAtual != entity.getStatus()) {
+				return ResponseEntity.status(HttpStatus.CONFLICT).body("O lançamento não está com o status informado.");
+			}
+			return atualizarStatus(entity, statusSelecionado);
+		}).orElseGet(() -> new ResponseEntity("Lançamento não encontrado.", HttpStatus.BAD_REQUEST));
+	}
+	
+	private ResponseEntity atualizarStatus(Lancamento lancamento, StatusLancamento status) {
+		try {
+			service.atualizarStatus(lancamento, status);
+			return ResponseEntity.ok(new StatusAtualizadoDTO(lancamento.getId(), lancamento.getUsuario().getId(),
+					lancamento.getStatus().name(), lancamento.getVersao()));
+		} catch (ConflitoConcorrenciaException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	/**
+	 * Troca o status em lote dos lançamentos do usuário informado: dos ids
+	 * informados que forem dele ou, sem ids, dos do período.
+	 */
+	@PutMapping("atualiza-status")
+	public ResponseEntity atualizarStatusEmLote(@RequestBody AtualizaStatusEmLoteDTO dto, @RequestAttribute(value = TokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioToken) {
+		if(!UsuarioDoToken.confere(idUsuarioToken, dto.getUsuario())) {
+			return UsuarioDoToken.negar();
+		}
+		try {
+			StatusLancamento status = dto.getStatus() == null ? null : StatusLancamento.valueOf(dto.getStatus());
+			int atualizados;
+			if(dto.getIds() != null) {
+				atualizados = service.atualizarStatus(dto.getUsuario(), dto.getIds(), status);
+			} else {
+				StatusLancamento statusAtual = dto.getStatusAtual() == null ? null : StatusLancamento.valueOf(dto.getStatusAtual());
+				atualizados = service.atualizarStatus(dto.getUsuario(), dto.getAno(), dto.getMes(), statusAtual, status);
+			}
+			return ResponseEntity.ok(new ResultadoAtualizacaoStatusDTO(atualizados));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Status informado inválido.");
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	private ResponseEntity importar(Long idUsuario, List<LancamentoDTO> dtos, List<ErroImportacaoDTO> erros) {
+		if(dtos.size() > maximoRegistrosImportacao) {
+			return excedeLimiteImportacao();
+		}
+		
+		Optional<Usuario> usuario = usuarioService.obterPorId(idUsuario);
+		if(!usuario.isPresent()) {
+			return ResponseEntity.badRequest().body("Usuário não encontrado para o id informado.");
+		}
+		
+		List<Lancamento> lancamentos = new ArrayList<>(dtos.size());
+		for(int i = 0; i < dtos.size(); i++) {
+			LancamentoDTO dto = dtos.get(i);
+			if(dto == null) {
+				continue;
 			}
 			try {
-				entity.setStatus(statusSelecionado);
-				service.atualizar(entity);
-				return ResponseEntity.ok(entity);
+				Lancamento lancamento = converter(dto, usuario.get());
+				lancamento.setId(null);
+				lancamento.setVersao(null);
+				service.validar(lancamento);
+				lancamentos.add(lancamento);
 			} catch (RegraNegocioException e) {
-				return ResponseEntity.badRequest().body(e.getMessage());
+				erros.add(new ErroImportacaoDTO(i + 1, e.getMessage()));
+			} catch (IllegalArgumentException e) {
+				erros.add(new ErroImportacaoDTO(i + 1, "Tipo ou status de lançamento inválido."));
 			}
-			
-		}).orElseGet(() -> new ResponseEntity("Lançamento não encontrado.", HttpStatus.BAD_REQUEST));
+		}
+		
+		service.salvarTodos(lancamentos);
+		erros.sort(Comparator.comparing(ErroImportacaoDTO::getRegistro));
+		return ResponseEntity.ok(new ResultadoImportacaoDTO(lancamentos.size(), erros));
+	}
+	
+	private ResponseEntity excedeLimiteImportacao() {
+		return ResponseEntity.badRequest().body("A importação excede o limite de " + maximoRegistrosImportacao + " registros.");
+	}
+	
+	private ResponseEntity<StreamingResponseBody> erroExportacao(String mensagem) {
+		return ResponseEntity.badRequest()
+				.contentType(new MediaType("text", "plain", StandardCharsets.UTF_8))
+				.body(saida -> saida.write(mensagem.getBytes(StandardCharsets.UTF_8)));
+	}
+	
+	private StreamingResponseBody exportarCsv(Long idUsuario) {
+		return saida -> {
+			BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+			writer.write(LancamentoCsv.CABECALHO);
+			writer.newLine();
+			service.exportar(idUsuario, lancamento -> {
+				try {
+					writer.write(LancamentoCsv.formatar(lancamento));
+					writer.newLine();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			writer.flush();
+		};
+	}
+	
+	private StreamingResponseBody exportarNdjson(Long idUsuario) {
+		return saida -> service.exportar(idUsuario, lancamento -> {
+			try {
+				saida.write(objectMapper.writeValueAsBytes(lancamento));
+				saida.write('\n');
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+	
+	/**
+	 * O lançamento gravado referencia o usuário sem tê-lo consultado; a resposta
+	 * completa o carrega, ou vem do cache de usuários, e a plana leva apenas o id.
+	 */
+	private Object responder(Lancamento lancamento, boolean plano) {
+		if(plano) {
+			return converter(lancamento);
+		}
+		usuarioService.obterPorId(lancamento.getUsuario().getId())
+				.ifPresent(lancamento::setUsuario);
+		return lancamento;
 	}
 	
 	private Lancamento converter(LancamentoDTO dto) {
+		Usuario usuario = dto.getUsuario() == null ? null : usuarioService.obterReferencia(dto.getUsuario());
+		return converter(dto, usuario);
+	}
+	
+	private LancamentoDTO converter(Lancamento lancamento) {
+		return LancamentoDTO.builder()
+				.id(lancamento.getId())
+				.descricao(lancamento.getDescricao())
+				.mes(lancamento.getMes())
+				.ano(lancamento.getAno())
+				.valor(lancamento.getValor())
+				.usuario(lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId())
+				.tipo(lancamento.getTipo() == null ? null : lancamento.getTipo().name())
+				.status(lancamento.getStatus() == null ? null : lancamento.getStatus().name())
+				.versao(lancamento.getVersao())
+				.build();
+	}
+	
+	private Lancamento converter(LancamentoDTO dto, Usuario usuario) {
 		Lancamento lancamento = new Lancamento();
 		lancamento.setId(dto.getId());
 		lancamento.setDescricao(dto.getDescricao());
 		lancamento.setAno(dto.getAno());
 		lancamento.setMes(dto.getMes());
 		lancamento.setValor(dto.getValor());
-		
-		Usuario usuario = usuarioService.obterPorId(dto.getUsuario())
-				.orElseThrow(() -> new RegraNegocioException("Usuário não encontrado com o id informado."));
 		lancamento.setUsuario(usuario);
+		lancamento.setVersao(dto.getVersao());
 		if(dto.getTipo() != null) {
 			lancamento.setTipo(TipoLancamento.valueOf(dto.getTipo()));
 		}	
@@ -0,0 +1,86 @@
+package br.com.cnaga.minhasfinancas.api.resource;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.service.LeituraReativaService;
+import jakarta.servlet.http.HttpServletRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Leituras de lançamentos e saldo pelo driver R2DBC, sem ocupar uma thread do
+ * servidor enquanto o banco responde. Em {@code application/x-ndjson}, o padrão,
+ * os lançamentos são escritos à medida que chegam, um por linha, e só são lidos
+ * do banco conforme a resposta é consumida; em {@code application/json} são
+ * reunidos numa lista e, sem {@code tamanho}, limitados à página padrão.
+ */
+@RestController
+@RequestMapping("/api/reativo")
+public class LeituraReativaResource {
+
+	@Autowired
+	private LeituraReativaService service;
+	
+	@GetMapping(value = "lancamentos", produces = {
+			MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+	public Flux<Lancamento> buscar(
+		@RequestParam(value = "descricao", required = false) String descricao,
+		@RequestParam(value = "mes", required = false) Integer mes,
+		@RequestParam(value = "ano", required = false) Integer ano,
+		@RequestParam(value = "valor", required = false) BigDecimal valor,
+		@RequestParam(value = "usuario", required = true) Long idUsuario,
+		@RequestParam(value = "tipo", required = false) TipoLancamento tipo,
+		@RequestParam(value = "status", required = false) StatusLancamento status,
+		@RequestParam(value = "cursor", required = false) Long cursor,
+		@RequestParam(value = "tamanho", required = false) Integer tamanho,
+		HttpServletRequest request
+		) {
+		
+		Lancamento lancamentoFiltro = new Lancamento();
+		lancamentoFiltro.setDescricao(descricao);
+		lancamentoFiltro.setMes(mes);
+		lancamentoFiltro.setAno(ano);
+		lancamentoFiltro.setValor(valor);
+		lancamentoFiltro.setUsuario(Usuario.builder().id(idUsuario).build());
+		lancamentoFiltro.setTipo(tipo);
+		lancamentoFiltro.setStatus(status);
+		
+		if(emFluxo(request)) {
+			return service.transmitir(lancamentoFiltro, cursor, tamanho);
+		}
+		return service.buscar(lancamentoFiltro, cursor, tamanho);
+	}
+	
+	/**
+	 * Os tipos do {@code produces} aceitos pelo cliente; com NDJSON entre eles, o
+	 * Spring escreve o {@link Flux} como fluxo.
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean emFluxo(HttpServletRequest request) {
+		Set<MediaType> tipos = (Set<MediaType>) request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE);
+		return tipos != null && tipos.contains(MediaType.APPLICATION_NDJSON);
+	}
+	
+	@GetMapping("usuarios/{id}/saldo")
+	public Mono<ResponseEntity> obterSaldo(@PathVariable("id") Long id) {
+		return service.obterSaldo(id)
+				.map(saldo -> (ResponseEntity) ResponseEntity.ok(saldo))
+				.defaultIfEmpty(new ResponseEntity(HttpStatus.NOT_FOUND));
+	}
+}
@@ -0,0 +1,90 @@
+package br.com.cnaga.minhasfinancas.api.resource;
+
+import java.net.URI;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import br.com.cnaga.minhasfinancas.api.dto.SolicitacaoRelatorioDTO;
+import br.com.cnaga.minhasfinancas.config.TokenFilter;
+import br.com.cnaga.minhasfinancas.exception.LimiteExcedidoException;
+import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
+import br.com.cnaga.minhasfinancas.model.enums.StatusRelatorio;
+import br.com.cnaga.minhasfinancas.service.RelatorioService;
+import br.com.cnaga.minhasfinancas.service.SituacaoRelatorio;
+import br.com.cnaga.minhasfinancas.service.UsuarioService;
+
+/**
+ * Relatórios anuais gerados em segundo plano: o {@code POST} devolve a tarefa,
+ * cuja situação é consultada em {@code GET /{id}} até que o relatório possa ser
+ * baixado em {@code GET /{id}/conteudo}.
+ */
+@RestController
+@RequestMapping("/api/relatorios")
+public class RelatorioResource {
+
+	@Autowired
+	private RelatorioService service;
+	@Autowired
+	private UsuarioService usuarioService;
+	
+	@PostMapping
+	public ResponseEntity solicitar(@RequestBody SolicitacaoRelatorioDTO dto, @RequestAttribute(value = TokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioToken) {
+		if(!UsuarioDoToken.confere(idUsuarioToken, dto.getUsuario())) {
+			return UsuarioDoToken.negar();
+		}
+		if(dto.getUsuario() == null || !usuarioService.obterPorId(dto.getUsuario()).isPresent()) {
+			return ResponseEntity.badRequest().body("Usuário não encontrado com o id informado.");
+		}
+		
+		try {
+			SituacaoRelatorio situacao = service.solicitar(dto.getUsuario(), dto.getAno());
+			URI uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(situacao.getId())
+					.toUri();
+			return ResponseEntity.accepted().location(uri).body(situacao);
+		} catch (LimiteExcedidoException e) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(e.getMessage());
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	@GetMapping("{id}")
+	public ResponseEntity obterSituacao(@PathVariable("id") String id, @RequestAttribute(value = TokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioToken) {
+		return service.obterSituacao(id)
+				.map(situacao -> UsuarioDoToken.confere(idUsuarioToken, situacao.getIdUsuario())
+						? new ResponseEntity(situacao, HttpStatus.OK) : UsuarioDoToken.negar())
+				.orElseGet(() -> new ResponseEntity(HttpStatus.NOT_FOUND));
+	}
+	
+	@GetMapping("{id}/conteudo")
+	public ResponseEntity obterRelatorio(@PathVariable("id") String id, @RequestAttribute(value = TokenFilter.ATRIBUTO_USUARIO, required = false) Long idUsuarioToken) {
+		Optional<SituacaoRelatorio> situacao = service.obterSituacao(id);
+		
+		if(!situacao.isPresent()) {
+			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		}
+		if(!UsuarioDoToken.confere(idUsuarioToken, situacao.get().getIdUsuario())) {
+			return UsuarioDoToken.negar();
+		}
+		if(situacao.get().getStatus() == StatusRelatorio.EM_ANDAMENTO) {
+			return ResponseEntity.accepted().body(situacao.get());
+		}
+		if(situacao.get().getStatus() == StatusRelatorio.FALHOU) {
+			return ResponseEntity.internalServerError().body(situacao.get());
+		}
+		return service.obterRelatorio(id)
+				.map(relatorio -> new ResponseEntity(relatorio, HttpStatus.OK))
+				.orElseGet(() -> new ResponseEntity(HttpStatus.NOT_FOUND));
+	}
+}
@@ -0,0 +1,26 @@
+package br.com.cnaga.minhasfinancas.api.resource;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import br.com.cnaga.minhasfinancas.config.TokenFilter;
+
+/**
+ * Confere nos recursos o que o {@link TokenFilter} não enxerga: o usuário
+ * informado no corpo da requisição e o dono do lançamento ou do relatório
+ * carregado. Como no filtro, sem token ou sem usuário informado nada é
+ * conferido.
+ */
+final class UsuarioDoToken {
+
+	private UsuarioDoToken() {
+	}
+
+	static boolean confere(Long doToken, Long idUsuario) {
+		return doToken == null || idUsuario == null || doToken.equals(idUsuario);
+	}
+
+	static ResponseEntity negar() {
+		return ResponseEntity.status(HttpStatus.FORBIDDEN).body("O token não pertence ao usuário informado.");
+	}
+}
@@ -1,7 +1,9 @@
 package br.com.cnaga.minhasfinancas.api.resource;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -11,14 +13,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import br.com.cnaga.minhasfinancas.api.dto.UsuarioAutenticadoDTO;
 import br.com.cnaga.minhasfinancas.api.dto.UsuarioDTO;
 import br.com.cnaga.minhasfinancas.exception.ErroAutenticacao;
 import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
 import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.DimensaoAnalise;
+import br.com.cnaga.minhasfinancas.service.AnaliseLancamentoService;
 import br.com.cnaga.minhasfinancas.service.LancamentoService;
+import br.com.cnaga.minhasfinancas.service.ResumoMensal;
+import br.com.cnaga.minhasfinancas.service.TokenService;
+import br.com.cnaga.minhasfinancas.service.TotalAgrupado;
+import br.com.cnaga.minhasfinancas.service.TokenService.TokenSessao;
 import br.com.cnaga.minhasfinancas.service.UsuarioService;
+import br.com.cnaga.minhasfinancas.service.VersaoDadosService;
 
 @RestController
 @RequestMapping("/api/usuarios")
@@ -28,6 +40,12 @@ public class UsuarioResource {
 	private UsuarioService service;
 	@Autowired
 	LancamentoService lancamentoService;
+	@Autowired
+	TokenService tokenService;
+	@Autowired
+	VersaoDadosService versaoDadosService;
+	@Autowired
+	AnaliseLancamentoService analiseService;
 	
 	public UsuarioResource (UsuarioService service) {
 		this.service = service;
@@ -37,7 +55,14 @@ public class UsuarioResource {
 	public ResponseEntity autenticar(@RequestBody UsuarioDTO dto) {
 		try {
 			Usuario usuarioAutenticado = service.autenticar(dto.getEmail(), dto.getSenha());
-			return ResponseEntity.ok(usuarioAutenticado);
+			TokenSessao sessao = tokenService.gerar(usuarioAutenticado);
+			return ResponseEntity.ok(UsuarioAutenticadoDTO.builder()
+					.id(usuarioAutenticado.getId())
+					.nome(usuarioAutenticado.getNome())
+					.email(usuarioAutenticado.getEmail())
+					.token(sessao.token())
+					.expiraEm(sessao.expiraEm())
+					.build());
 		} catch (ErroAutenticacao e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
@@ -67,14 +92,19 @@ public class UsuarioResource {
 		
 		try {
 			Usuario usuarioSalvo = service.salvarUsuario(usuario);
-			return new ResponseEntity(dto, HttpStatus.CREATED);
+			return new ResponseEntity(usuarioSalvo, HttpStatus.CREATED);
 		}catch (RegraNegocioException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
 	}
 	
 	@GetMapping("{id}/saldo")
-	public ResponseEntity obterSaldo(@PathVariable("id") Long id ) {
+	public ResponseEntity obterSaldo(@PathVariable("id") Long id, WebRequest request) {
+		Optional<String> etag = versaoDadosService.obterEtag(id);
+		if(etag.isPresent() && request.checkNotModified(etag.get())) {
+			return null;
+		}
+		
 		Optional<Usuario> usuario = service.obterPorId(id);
 		
 		if(!usuario.isPresent()) {
@@ -82,7 +112,40 @@ public class UsuarioResource {
 		}
 		
 		BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
-		return ResponseEntity.ok(saldo);
+		ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+		etag.ifPresent(resposta::eTag);
+		return resposta.body(saldo);
+	}
+	
+	@GetMapping("{id}/resumo-mensal")
+	public ResponseEntity obterResumoMensal(
+			@PathVariable("id") Long id,
+			@RequestParam(value = "ano", required = false) Integer ano,
+			@RequestParam(value = "porStatus", defaultValue = "false") boolean porStatus ) {
+		Optional<Usuario> usuario = service.obterPorId(id);
+		
+		if(!usuario.isPresent()) {
+			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		}
+		
+		List<ResumoMensal> resumo = lancamentoService.obterResumoMensal(id, ano, porStatus);
+		return ResponseEntity.ok(resumo);
+	}
+	
+	@GetMapping("{id}/totais")
+	public ResponseEntity obterTotais(
+			@PathVariable("id") Long id,
+			@RequestParam(value = "agrupar", defaultValue = "ANO,MES") Set<DimensaoAnalise> agrupamento,
+			@RequestParam(value = "anoInicial", required = false) Integer anoInicial,
+			@RequestParam(value = "anoFinal", required = false) Integer anoFinal ) {
+		Optional<Usuario> usuario = service.obterPorId(id);
+		
+		if(!usuario.isPresent()) {
+			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		}
+		
+		List<TotalAgrupado> totais = analiseService.totalizar(id, agrupamento, anoInicial, anoFinal);
+		return ResponseEntity.ok(totais);
 	}
 	
 }
@@ -0,0 +1,30 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Envolve o gerenciador de cache da autoconfiguração para que as remoções e
+ * inclusões feitas dentro de uma transação só aconteçam depois do commit. Sem
+ * isso, a remoção feita ao gravar um usuário acontecia antes do commit, e uma
+ * leitura concorrente podia guardar de novo os dados antigos por toda a validade.
+ */
+@Configuration
+public class CacheConfiguration {
+
+	@Bean
+	public static BeanPostProcessor cacheManagerTransacional() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String nome) {
+				if(bean instanceof CacheManager cacheManager && !(bean instanceof TransactionAwareCacheManagerProxy)) {
+					return new TransactionAwareCacheManagerProxy(cacheManager);
+				}
+				return bean;
+			}
+		};
+	}
+}
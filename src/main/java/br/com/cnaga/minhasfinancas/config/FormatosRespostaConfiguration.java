@@ -0,0 +1,31 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Formatos binários negociados pelo {@code Accept}: {@code application/cbor} e
+ * {@code application/x-jackson-smile}. Os conversores usam o mesmo construtor de
+ * {@code ObjectMapper} do JSON, com os módulos e ajustes da autoconfiguração, e
+ * substituem os padrões do Spring MVC na mesma posição, depois do JSON, que
+ * continua sendo a resposta de quem aceita qualquer formato.
+ */
+@Configuration
+public class FormatosRespostaConfiguration {
+
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+}
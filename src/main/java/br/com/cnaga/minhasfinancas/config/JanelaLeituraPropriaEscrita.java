@@ -0,0 +1,112 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.cnaga.minhasfinancas.service.LancamentoAlteradoEvento;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Garante que o usuário leia as próprias escritas apesar do atraso de replicação:
+ * depois do commit de uma alteração nos lançamentos de um usuário, as leituras
+ * feitas em nome dele seguem para o primário durante a janela configurada. Uma
+ * alteração sem usuário definido abre a janela para todos.
+ * <p>
+ * O usuário da requisição é o do token, ou o parâmetro {@code usuario}, ou o id
+ * em {@code /api/usuarios/{id}}. Requisições que não são GET nem HEAD usam sempre
+ * o primário, pois costumam ler a entidade antes de alterá-la. A escolha da
+ * requisição acompanha o processamento assíncrono dela, como o corpo da
+ * exportação escrito fora da thread da requisição. Leituras fora de uma
+ * requisição, como as dos jobs e relatórios, vão para as réplicas.
+ * <p>
+ * A janela é guardada em memória e vale apenas para a instância que fez a
+ * escrita. Com várias instâncias atrás do balanceador, uma leitura que cai em
+ * outra instância vai às réplicas e pode não ver a escrita. A garantia só vale
+ * com uma instância ou com sessões fixas por usuário no balanceador, como os
+ * ETags do {@code VersaoDadosServiceImpl}.
+ */
+public class JanelaLeituraPropriaEscrita implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+	private static final ThreadLocal<Boolean> PRIMARIO = new ThreadLocal<>();
+	private static final String ATRIBUTO_PRIMARIO = JanelaLeituraPropriaEscrita.class.getName() + ".primario";
+
+	private final Duration janela;
+	private final Cache<Long, Boolean> usuariosNaJanela;
+	private volatile long fimJanelaGlobal = System.nanoTime();
+
+	public JanelaLeituraPropriaEscrita(Duration janela) {
+		this.janela = janela;
+		this.usuariosNaJanela = Caffeine.newBuilder().expireAfterWrite(janela).build();
+	}
+
+	/**
+	 * Indica se a thread atual deve ler do primário.
+	 */
+	public boolean exigePrimario() {
+		return Boolean.TRUE.equals(PRIMARIO.get());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void registrar(LancamentoAlteradoEvento evento) {
+		if(evento.idsUsuarios().isEmpty()) {
+			fimJanelaGlobal = System.nanoTime() + janela.toNanos();
+			return;
+		}
+		for(Long idUsuario : evento.idsUsuarios()) {
+			usuariosNaJanela.put(idUsuario, Boolean.TRUE);
+		}
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		PRIMARIO.set(exigePrimario(request));
+		return true;
+	}
+
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		PRIMARIO.remove();
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		PRIMARIO.remove();
+	}
+
+	@Override
+	public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+		request.setAttribute(ATRIBUTO_PRIMARIO, exigePrimario(), RequestAttributes.SCOPE_REQUEST);
+	}
+
+	@Override
+	public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+		PRIMARIO.set(Boolean.TRUE.equals(request.getAttribute(ATRIBUTO_PRIMARIO, RequestAttributes.SCOPE_REQUEST)));
+	}
+
+	@Override
+	public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+		PRIMARIO.remove();
+	}
+
+	private boolean exigePrimario(HttpServletRequest request) {
+		if(!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+			return true;
+		}
+		if(System.nanoTime() - fimJanelaGlobal < 0) {
+			return true;
+		}
+		Long idUsuario = UsuarioRequisicao.obter(request);
+		return idUsuario != null && usuariosNaJanela.getIfPresent(idUsuario) != null;
+	}
+}
@@ -0,0 +1,176 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limita a taxa de requisições da API por usuário e no total, com baldes de
+ * fichas {@link LimiteTaxa} separados para consultas (GET e HEAD, como a busca
+ * de lançamentos e o saldo), para escritas e para as operações em lote, como a
+ * importação e a exportação de lançamentos. Estas são reconhecidas pelo caminho,
+ * qualquer que seja o método, pois uma só delas custa tanto quanto muitas
+ * consultas ou escritas. O balde do usuário é escolhido só pelo token
+ * verificado no {@link TokenFilter}; sem token, é o do endereço de origem. O
+ * parâmetro {@code usuario} e o id do caminho não são considerados, para que
+ * um cliente não gaste o limite de outro usuário nem fuja do próprio trocando
+ * o id. Excedido um limite, responde 429 com {@code Retry-After}. O
+ * limite do usuário é conferido primeiro, para que quem já passou do próprio
+ * não gaste o global; se o global recusar, a ficha do usuário é devolvida.
+ * <p>
+ * Antes dos limites, descarta a requisição com 503 quando o pool de conexões já
+ * tem o número configurado de threads aguardando conexão, em vez de deixá-la
+ * esperar na fila do pool. Os pools das réplicas de leitura só descartam
+ * consultas, já que as escritas não passam por eles.
+ * <p>
+ * As recusas são contadas em {@code minhasfinancas.limite.recusadas}, com as tags
+ * {@code categoria} e {@code motivo} ({@code usuario}, {@code global} ou
+ * {@code pool}).
+ */
+public class LimiteRequisicoes implements HandlerInterceptor {
+
+	private static final Duration INATIVIDADE = Duration.ofMinutes(1);
+	private static final long MAXIMO_USUARIOS = 100_000;
+	private static final AntPathMatcher CAMINHOS = new AntPathMatcher();
+
+	private final Categoria consulta;
+	private final Categoria escrita;
+	private final Categoria lote;
+	private final List<String> caminhosLote;
+	private final List<HikariDataSource> pools;
+	private final List<HikariDataSource> poolsLeitura;
+	private final int aguardandoConexao;
+	private final MeterRegistry registry;
+
+	public LimiteRequisicoes(Categoria consulta, Categoria escrita, Categoria lote, List<String> caminhosLote,
+			List<HikariDataSource> pools, int aguardandoConexao, MeterRegistry registry) {
+		this(consulta, escrita, lote, caminhosLote, pools, List.of(), aguardandoConexao, registry);
+	}
+
+	public LimiteRequisicoes(Categoria consulta, Categoria escrita, Categoria lote, List<String> caminhosLote,
+			List<HikariDataSource> pools, List<HikariDataSource> poolsLeitura, int aguardandoConexao,
+			MeterRegistry registry) {
+		this.consulta = consulta;
+		this.escrita = escrita;
+		this.lote = lote;
+		this.caminhosLote = caminhosLote;
+		this.pools = pools;
+		this.poolsLeitura = poolsLeitura;
+		this.aguardandoConexao = aguardandoConexao;
+		this.registry = registry;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+		boolean leitura = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+		Categoria categoria = classificar(request, leitura);
+
+		if(saturado(pools) || (leitura && saturado(poolsLeitura))) {
+			return recusar(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1), categoria, "pool",
+					"Serviço sobrecarregado. Tente novamente mais tarde.");
+		}
+
+		Object autenticado = request.getAttribute(TokenFilter.ATRIBUTO_USUARIO);
+		Object usuario = autenticado instanceof Long ? autenticado : request.getRemoteAddr();
+		long agora = System.nanoTime();
+		long espera = categoria.reservarDoUsuario(usuario, agora);
+		if(espera > 0) {
+			return recusar(response, HttpStatus.TOO_MANY_REQUESTS, espera, categoria, "usuario",
+					"Limite de requisições do usuário excedido. Tente novamente mais tarde.");
+		}
+		espera = categoria.reservarGlobal(agora);
+		if(espera > 0) {
+			categoria.devolverDoUsuario(usuario);
+			return recusar(response, HttpStatus.TOO_MANY_REQUESTS, espera, categoria, "global",
+					"Limite de requisições excedido. Tente novamente mais tarde.");
+		}
+		return true;
+	}
+
+	private Categoria classificar(HttpServletRequest request, boolean leitura) {
+		String caminho = request.getRequestURI().substring(request.getContextPath().length());
+		for(String padrao : caminhosLote) {
+			if(CAMINHOS.match(padrao, caminho)) {
+				return lote;
+			}
+		}
+		return leitura ? consulta : escrita;
+	}
+
+	private boolean saturado(List<HikariDataSource> pools) {
+		for(HikariDataSource pool : pools) {
+			HikariPoolMXBean situacao = pool.getHikariPoolMXBean();
+			if(situacao != null && situacao.getThreadsAwaitingConnection() >= aguardandoConexao) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean recusar(HttpServletResponse response, HttpStatus status, long espera, Categoria categoria,
+			String motivo, String mensagem) throws IOException {
+		registry.counter("minhasfinancas.limite.recusadas", "categoria", categoria.nome, "motivo", motivo).increment();
+		long segundos = Math.max(1, (espera + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+		response.setStatus(status.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(segundos));
+		response.setContentType("text/plain;charset=UTF-8");
+		response.getWriter().write(mensagem);
+		return false;
+	}
+
+	/**
+	 * Limites de uma categoria de requisições: um balde por usuário, criado no
+	 * primeiro uso e descartado depois de um minuto sem requisições, e um balde
+	 * global.
+	 */
+	public static final class Categoria {
+
+		private final String nome;
+		private final double porSegundoUsuario;
+		private final int rajadaUsuario;
+		private final Cache<Object, LimiteTaxa> porUsuario;
+		private final LimiteTaxa global;
+
+		public Categoria(String nome, double porSegundoUsuario, int rajadaUsuario, double porSegundoGlobal, int rajadaGlobal) {
+			this.nome = nome;
+			this.porSegundoUsuario = porSegundoUsuario;
+			this.rajadaUsuario = rajadaUsuario;
+			this.porUsuario = Caffeine.newBuilder()
+					.expireAfterAccess(INATIVIDADE)
+					.maximumSize(MAXIMO_USUARIOS)
+					.build();
+			this.global = new LimiteTaxa(porSegundoGlobal, rajadaGlobal);
+		}
+
+		public long reservarDoUsuario(Object usuario, long agora) {
+			return porUsuario.get(usuario, chave -> new LimiteTaxa(porSegundoUsuario, rajadaUsuario)).reservar(agora);
+		}
+
+		public long reservarGlobal(long agora) {
+			return global.reservar(agora);
+		}
+
+		public void devolverDoUsuario(Object usuario) {
+			LimiteTaxa limite = porUsuario.getIfPresent(usuario);
+			if(limite != null) {
+				limite.devolver();
+			}
+		}
+	}
+}
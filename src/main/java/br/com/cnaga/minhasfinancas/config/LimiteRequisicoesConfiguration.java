@@ -0,0 +1,65 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registra o {@link LimiteRequisicoes} para {@code /api/**}. Ligado com
+ * {@code minhasfinancas.limite.habilitado=true}. Os caminhos das operações em
+ * lote vêm de {@code minhasfinancas.limite.lote.caminhos}, como padrões Ant. O descarte acompanha os pools
+ * Hikari registrados como beans e, só para as consultas, os das réplicas de
+ * leitura, que não são beans.
+ */
+@Configuration
+@ConditionalOnProperty(name = "minhasfinancas.limite.habilitado", havingValue = "true")
+public class LimiteRequisicoesConfiguration {
+
+	@Bean
+	public LimiteRequisicoes limiteRequisicoes(ObjectProvider<HikariDataSource> pools,
+			ObjectProvider<ReplicasDataSource> replicas, MeterRegistry registry,
+			@Value("${minhasfinancas.limite.consulta.usuario.por-segundo:20}") double consultasPorUsuario,
+			@Value("${minhasfinancas.limite.consulta.usuario.rajada:40}") int rajadaConsultasPorUsuario,
+			@Value("${minhasfinancas.limite.consulta.global.por-segundo:500}") double consultas,
+			@Value("${minhasfinancas.limite.consulta.global.rajada:1000}") int rajadaConsultas,
+			@Value("${minhasfinancas.limite.escrita.usuario.por-segundo:50}") double escritasPorUsuario,
+			@Value("${minhasfinancas.limite.escrita.usuario.rajada:100}") int rajadaEscritasPorUsuario,
+			@Value("${minhasfinancas.limite.escrita.global.por-segundo:2000}") double escritas,
+			@Value("${minhasfinancas.limite.escrita.global.rajada:4000}") int rajadaEscritas,
+			@Value("${minhasfinancas.limite.lote.usuario.por-segundo:0.5}") double lotesPorUsuario,
+			@Value("${minhasfinancas.limite.lote.usuario.rajada:2}") int rajadaLotesPorUsuario,
+			@Value("${minhasfinancas.limite.lote.global.por-segundo:10}") double lotes,
+			@Value("${minhasfinancas.limite.lote.global.rajada:20}") int rajadaLotes,
+			@Value("${minhasfinancas.limite.lote.caminhos:/api/lancamentos/importar,/api/lancamentos/exportar}") List<String> caminhosLote,
+			@Value("${minhasfinancas.limite.descarte.aguardando-conexao:10}") int aguardandoConexao) {
+		return new LimiteRequisicoes(
+				new LimiteRequisicoes.Categoria("consulta", consultasPorUsuario, rajadaConsultasPorUsuario, consultas, rajadaConsultas),
+				new LimiteRequisicoes.Categoria("escrita", escritasPorUsuario, rajadaEscritasPorUsuario, escritas, rajadaEscritas),
+				new LimiteRequisicoes.Categoria("lote", lotesPorUsuario, rajadaLotesPorUsuario, lotes, rajadaLotes),
+				caminhosLote,
+				pools.stream().toList(),
+				replicas.stream().flatMap(replica -> replica.obterPools().stream()).toList(),
+				aguardandoConexao,
+				registry);
+	}
+
+	@Bean
+	public WebMvcConfigurer limiteRequisicoesConfigurer(LimiteRequisicoes limite) {
+		return new WebMvcConfigurer() {
+			@Override
+			public void addInterceptors(InterceptorRegistry registry) {
+				registry.addInterceptor(limite).addPathPatterns("/api/**");
+			}
+		};
+	}
+}
@@ -0,0 +1,57 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de fichas sem trava, no formato GCRA: em vez de contar fichas, guarda
+ * num único {@link AtomicLong} o instante teórico em que o balde estaria cheio
+ * de novo. Cada requisição adianta esse instante em um intervalo; ela é recusada
+ * quando o instante passaria do agora mais a rajada permitida. A reserva é uma
+ * leitura e um compare-and-set, repetidos apenas quando outra thread reservou
+ * no meio.
+ */
+public final class LimiteTaxa {
+
+	private final long intervalo;
+	private final long tolerancia;
+	private final AtomicLong cheio;
+
+	/**
+	 * @param porSegundo fichas repostas por segundo
+	 * @param rajada capacidade do balde, em requisições seguidas
+	 */
+	public LimiteTaxa(double porSegundo, int rajada) {
+		this.intervalo = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / porSegundo));
+		this.tolerancia = intervalo * rajada;
+		// Começa no passado: o balde nasce cheio mesmo para um agora lido antes de criá-lo.
+		this.cheio = new AtomicLong(System.nanoTime() - tolerancia);
+	}
+
+	/**
+	 * Reserva uma ficha. Retorna zero quando liberado, ou quantos nanossegundos
+	 * faltam para a próxima ficha.
+	 */
+	public long reservar(long agora) {
+		while(true) {
+			long atual = cheio.get();
+			long novo = (atual - agora < 0 ? agora : atual) + intervalo;
+			long espera = novo - agora - tolerancia;
+			if(espera > 0) {
+				return espera;
+			}
+			if(cheio.compareAndSet(atual, novo)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Devolve uma ficha reservada que não chegou a ser usada. O instante recua em
+	 * um intervalo; se ficar no passado, a próxima reserva parte do agora, então a
+	 * devolução nunca dá mais que a rajada.
+	 */
+	public void devolver() {
+		cheio.addAndGet(-intervalo);
+	}
+}
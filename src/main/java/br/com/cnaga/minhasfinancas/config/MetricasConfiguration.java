@@ -0,0 +1,21 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Registra o aspecto que cronometra os métodos das classes anotadas com
+ * {@code @Timed}. Endpoints, repositórios, pool de conexões e Hibernate
+ * são medidos pela autoconfiguração do Actuator.
+ */
+@Configuration
+public class MetricasConfiguration {
+
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry registry) {
+		return new TimedAspect(registry);
+	}
+}
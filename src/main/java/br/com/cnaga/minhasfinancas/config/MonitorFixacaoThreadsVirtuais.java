@@ -0,0 +1,89 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Acompanha, pelo evento {@code jdk.VirtualThreadPinned} do JFR, as threads virtuais
+ * que ficaram presas à thread carregadora por mais tempo que o limite configurado
+ * (bloqueio dentro de {@code synchronized} ou de código nativo). Cada ocorrência é
+ * registrada no timer {@code minhasfinancas.threads.virtuais.fixacao} e logada com
+ * os quadros do topo da pilha, que apontam o monitor responsável.
+ * <p>
+ * Ativo apenas quando {@code spring.threads.virtual.enabled=true}.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "minhasfinancas.threads-virtuais.monitor-fixacao.habilitado", matchIfMissing = true)
+public class MonitorFixacaoThreadsVirtuais implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory.getLogger(MonitorFixacaoThreadsVirtuais.class);
+
+	private static final String EVENTO = "jdk.VirtualThreadPinned";
+	private static final int QUADROS_LOGADOS = 8;
+
+	private final Timer fixacoes;
+	private final Duration limite;
+	private RecordingStream stream;
+
+	public MonitorFixacaoThreadsVirtuais(MeterRegistry registry,
+			@Value("${minhasfinancas.threads-virtuais.monitor-fixacao.limite:20ms}") Duration limite) {
+		this.fixacoes = Timer.builder("minhasfinancas.threads.virtuais.fixacao")
+				.description("Tempo em que threads virtuais ficaram fixadas na thread carregadora")
+				.register(registry);
+		this.limite = limite;
+	}
+
+	@Override
+	public synchronized void start() {
+		stream = new RecordingStream();
+		stream.enable(EVENTO).withThreshold(limite).withStackTrace();
+		stream.onEvent(EVENTO, this::registrar);
+		stream.startAsync();
+	}
+
+	@Override
+	public synchronized void stop() {
+		stream.close();
+		stream = null;
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return stream != null;
+	}
+
+	private void registrar(RecordedEvent evento) {
+		fixacoes.record(evento.getDuration());
+		log.warn("Thread virtual fixada na carregadora por {} ms em:\n\t{}",
+				evento.getDuration().toMillis(), pilha(evento));
+	}
+
+	private String pilha(RecordedEvent evento) {
+		if(evento.getStackTrace() == null) {
+			return "(pilha indisponível)";
+		}
+		List<RecordedFrame> quadros = evento.getStackTrace().getFrames();
+		return quadros.stream()
+				.limit(QUADROS_LOGADOS)
+				.map(quadro -> quadro.getMethod().getType().getName() + "." + quadro.getMethod().getName()
+						+ ":" + quadro.getLineNumber())
+				.collect(Collectors.joining("\n\t"));
+	}
+}
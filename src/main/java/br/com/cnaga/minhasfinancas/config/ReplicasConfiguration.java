@@ -0,0 +1,127 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Envia as transações {@code readOnly} para as réplicas de leitura listadas em
+ * {@code minhasfinancas.replicas.urls} e todo o resto para o primário. A conexão
+ * só é obtida no primeiro comando, depois que o gerenciador de transações marcou
+ * a conexão como somente leitura, e por isso a escolha acompanha a transação.
+ * <p>
+ * Exige {@code spring.jpa.open-in-view=false}: com o EntityManager aberto durante
+ * toda a requisição, a conexão obtida pela primeira leitura seria reaproveitada
+ * pelas escritas seguintes.
+ */
+@Configuration
+@ConditionalOnProperty("minhasfinancas.replicas.urls")
+public class ReplicasConfiguration {
+
+	private static final Status DEGRADADO = new Status("DEGRADADO", "Leituras servidas pelo primário");
+
+	public ReplicasConfiguration(@Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+		if(openInView) {
+			throw new IllegalStateException(
+					"O roteamento para réplicas exige spring.jpa.open-in-view=false.");
+		}
+	}
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primarioDataSource(DataSourceProperties propriedades) {
+		return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	@Bean
+	public JanelaLeituraPropriaEscrita janelaLeituraPropriaEscrita(
+			@Value("${minhasfinancas.replicas.janela-leitura-propria-escrita:5s}") Duration janela) {
+		return new JanelaLeituraPropriaEscrita(janela);
+	}
+
+	@Bean
+	public ReplicasDataSource replicasDataSource(
+			@Qualifier("primarioDataSource") DataSource primario,
+			JanelaLeituraPropriaEscrita janela,
+			MeterRegistry registry,
+			@Value("${minhasfinancas.replicas.urls}") List<String> urls,
+			@Value("${minhasfinancas.replicas.username:${spring.datasource.username:}}") String usuario,
+			@Value("${minhasfinancas.replicas.password:${spring.datasource.password:}}") String senha,
+			@Value("${minhasfinancas.replicas.pool.tamanho-maximo:10}") int tamanhoMaximo,
+			@Value("${minhasfinancas.replicas.tempo-conexao:1s}") Duration tempoConexao) {
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		for(int i = 0; i < urls.size(); i++) {
+			HikariDataSource replica = DataSourceBuilder.create()
+					.type(HikariDataSource.class)
+					.url(urls.get(i).trim())
+					.username(usuario)
+					.password(senha)
+					.build();
+			replica.setPoolName("replica-" + i);
+			replica.setMaximumPoolSize(tamanhoMaximo);
+			replica.setConnectionTimeout(tempoConexao.toMillis());
+			replica.setInitializationFailTimeout(-1);
+			replica.setReadOnly(true);
+			replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+			replicas.put(replica.getPoolName(), replica);
+		}
+		return new ReplicasDataSource(primario, replicas, janela::exigePrimario);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(@Qualifier("primarioDataSource") DataSource primario, ReplicasDataSource replicas) {
+		LazyConnectionDataSourceProxy roteador = new LazyConnectionDataSourceProxy(primario);
+		roteador.setReadOnlyDataSource(replicas);
+		return roteador;
+	}
+
+	@Bean
+	public HealthIndicator replicasHealthIndicator(ReplicasDataSource replicas) {
+		return () -> {
+			Map<String, Boolean> situacao = replicas.obterSituacao();
+			Health.Builder saude = situacao.containsValue(true) ? Health.up() : Health.status(DEGRADADO);
+			return saude.withDetails(situacao).build();
+		};
+	}
+
+	@Bean
+	public WebMvcConfigurer janelaLeituraPropriaEscritaConfigurer(JanelaLeituraPropriaEscrita janela) {
+		return new WebMvcConfigurer() {
+			@Override
+			public void addInterceptors(InterceptorRegistry registry) {
+				registry.addInterceptor(janela).addPathPatterns("/api/**");
+			}
+
+			@Override
+			public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+				configurer.registerCallableInterceptors(janela);
+			}
+		};
+	}
+}
@@ -0,0 +1,149 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Distribui as conexões de leitura entre as réplicas disponíveis em rodízio. Uma
+ * réplica que falha ao entregar conexão é marcada como indisponível e a próxima
+ * é tentada; ela só volta ao rodízio quando {@link #verificar()} consegue validar
+ * uma conexão. Sem réplica disponível, ou quando {@code exigePrimario} indica que
+ * a leitura precisa ver as escritas recentes, a conexão vem do primário.
+ * <p>
+ * Apenas a obtenção da conexão é protegida: um erro durante a consulta numa
+ * réplica chega à aplicação como qualquer outro erro de banco.
+ */
+public class ReplicasDataSource extends AbstractDataSource implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(ReplicasDataSource.class);
+
+	private static final int TEMPO_VALIDACAO_SEGUNDOS = 2;
+
+	private final DataSource primario;
+	private final List<Replica> replicas = new ArrayList<>();
+	private final BooleanSupplier exigePrimario;
+	private final AtomicInteger proxima = new AtomicInteger();
+
+	public ReplicasDataSource(DataSource primario, Map<String, DataSource> replicas, BooleanSupplier exigePrimario) {
+		this.primario = primario;
+		replicas.forEach((nome, dataSource) -> this.replicas.add(new Replica(nome, dataSource)));
+		this.exigePrimario = exigePrimario;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if(!replicas.isEmpty() && !exigePrimario.getAsBoolean()) {
+			int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+			for(int i = 0; i < replicas.size(); i++) {
+				Replica replica = replicas.get((inicio + i) % replicas.size());
+				if(!replica.disponivel) {
+					continue;
+				}
+				try {
+					return replica.dataSource.getConnection();
+				} catch (SQLException e) {
+					indisponibilizar(replica, e);
+				}
+			}
+		}
+		return primario.getConnection();
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		throw new SQLFeatureNotSupportedException("As réplicas usam as credenciais configuradas em cada pool.");
+	}
+
+	/**
+	 * Valida uma conexão de cada réplica e atualiza sua disponibilidade.
+	 */
+	@Scheduled(fixedDelayString = "${minhasfinancas.replicas.verificacao.intervalo-segundos:5}", timeUnit = TimeUnit.SECONDS)
+	public void verificar() {
+		for(Replica replica : replicas) {
+			try (Connection conexao = replica.dataSource.getConnection()) {
+				if(conexao.isValid(TEMPO_VALIDACAO_SEGUNDOS)) {
+					if(!replica.disponivel) {
+						log.info("Réplica {} disponível novamente.", replica.nome);
+					}
+					replica.disponivel = true;
+				} else {
+					indisponibilizar(replica, null);
+				}
+			} catch (SQLException e) {
+				indisponibilizar(replica, e);
+			}
+		}
+	}
+
+	/**
+	 * Disponibilidade de cada réplica, pelo nome, na ordem configurada.
+	 */
+	public Map<String, Boolean> obterSituacao() {
+		Map<String, Boolean> situacao = new LinkedHashMap<>();
+		for(Replica replica : replicas) {
+			situacao.put(replica.nome, replica.disponivel);
+		}
+		return situacao;
+	}
+
+	/**
+	 * Os pools Hikari das réplicas, na ordem configurada, para quem acompanha a
+	 * ocupação das conexões.
+	 */
+	public List<HikariDataSource> obterPools() {
+		List<HikariDataSource> pools = new ArrayList<>();
+		for(Replica replica : replicas) {
+			if(replica.dataSource instanceof HikariDataSource pool) {
+				pools.add(pool);
+			}
+		}
+		return pools;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		for(Replica replica : replicas) {
+			if(replica.dataSource instanceof AutoCloseable pool) {
+				pool.close();
+			}
+		}
+	}
+
+	private void indisponibilizar(Replica replica, SQLException erro) {
+		if(replica.disponivel) {
+			log.warn("Réplica {} indisponível; leituras seguem para as demais ou para o primário: {}",
+					replica.nome, erro == null ? "conexão inválida" : erro.getMessage());
+		}
+		replica.disponivel = false;
+	}
+
+	private static final class Replica {
+
+		private final String nome;
+		private final DataSource dataSource;
+		private volatile boolean disponivel = true;
+
+		private Replica(String nome, DataSource dataSource) {
+			this.nome = nome;
+			this.dataSource = dataSource;
+		}
+	}
+}
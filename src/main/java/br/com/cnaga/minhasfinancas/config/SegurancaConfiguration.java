@@ -0,0 +1,27 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.cnaga.minhasfinancas.service.TokenService;
+
+@Configuration
+public class SegurancaConfiguration {
+
+	@Bean
+	public PasswordEncoder passwordEncoder(@Value("${minhasfinancas.senha.custo:10}") int custo) {
+		return new BCryptPasswordEncoder(custo);
+	}
+	
+	@Bean
+	public FilterRegistrationBean<TokenFilter> tokenFilter(TokenService tokenService,
+			@Value("${minhasfinancas.token.obrigatorio:false}") boolean obrigatorio) {
+		FilterRegistrationBean<TokenFilter> registro = new FilterRegistrationBean<>(new TokenFilter(tokenService, obrigatorio));
+		registro.addUrlPatterns("/api/*");
+		return registro;
+	}
+}
@@ -0,0 +1,117 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import br.com.cnaga.minhasfinancas.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Valida o token de sessão enviado em {@code Authorization: Bearer} apenas pela
+ * assinatura e expiração, sem acessar o banco, e expõe o id do usuário no
+ * atributo {@link #ATRIBUTO_USUARIO} da requisição. Sem o cabeçalho, a
+ * requisição só é recusada quando o token é obrigatório.
+ * <p>
+ * Com o token, o parâmetro {@code usuario} e o id em {@code /api/usuarios/{id}}
+ * ou {@code /api/reativo/usuarios/{id}} devem ser os do usuário do token; caso
+ * contrário a requisição é recusada com 403. O usuário informado no corpo e o
+ * dono do lançamento ou do relatório são conferidos pelos recursos, com o mesmo
+ * atributo. Sem o token nada é conferido.
+ */
+public class TokenFilter extends OncePerRequestFilter {
+
+	public static final String ATRIBUTO_USUARIO = "minhasfinancas.idUsuario";
+	
+	private static final String PREFIXO = "Bearer ";
+	private static final Pattern CAMINHO_USUARIO = Pattern.compile("^/api/(?:reativo/)?usuarios/([^/]+)(?:/.*)?$");
+	
+	private final TokenService tokenService;
+	private final boolean obrigatorio;
+	
+	public TokenFilter(TokenService tokenService, boolean obrigatorio) {
+		this.tokenService = tokenService;
+		this.obrigatorio = obrigatorio;
+	}
+	
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String autorizacao = request.getHeader(HttpHeaders.AUTHORIZATION);
+		
+		if(autorizacao == null || !autorizacao.startsWith(PREFIXO)) {
+			if(obrigatorio && !publico(request)) {
+				recusar(response);
+				return;
+			}
+			chain.doFilter(request, response);
+			return;
+		}
+		
+		Optional<Long> idUsuario = tokenService.validar(autorizacao.substring(PREFIXO.length()).trim());
+		if(!idUsuario.isPresent()) {
+			recusar(response);
+			return;
+		}
+		if(!pertenceAoUsuario(request, idUsuario.get())) {
+			negar(response);
+			return;
+		}
+		request.setAttribute(ATRIBUTO_USUARIO, idUsuario.get());
+		chain.doFilter(request, response);
+	}
+	
+	private boolean pertenceAoUsuario(HttpServletRequest request, Long idUsuario) {
+		if(!mesmoUsuario(request.getParameter("usuario"), idUsuario)) {
+			return false;
+		}
+		Matcher caminho = CAMINHO_USUARIO.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+		return !caminho.matches() || mesmoUsuario(caminho.group(1), idUsuario);
+	}
+	
+	/**
+	 * Valores que não são ids ficam para o recurso recusar.
+	 */
+	private boolean mesmoUsuario(String informado, Long idUsuario) {
+		if(informado == null) {
+			return true;
+		}
+		try {
+			return idUsuario.equals(Long.valueOf(informado));
+		} catch (NumberFormatException e) {
+			return true;
+		}
+	}
+	
+	private boolean publico(HttpServletRequest request) {
+		String caminho = request.getRequestURI().substring(request.getContextPath().length());
+		return HttpMethod.POST.matches(request.getMethod())
+				&& (caminho.equals("/api/usuarios") || caminho.equals("/api/usuarios/autenticar"));
+	}
+	
+	private void recusar(HttpServletResponse response) throws IOException {
+		responder(response, HttpStatus.UNAUTHORIZED, "Token inválido ou expirado.");
+	}
+	
+	private void negar(HttpServletResponse response) throws IOException {
+		responder(response, HttpStatus.FORBIDDEN, "O token não pertence ao usuário informado.");
+	}
+	
+	private void responder(HttpServletResponse response, HttpStatus status, String mensagem) throws IOException {
+		response.setStatus(status.value());
+		response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		response.getWriter().write(mensagem);
+	}
+}
@@ -0,0 +1,35 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import java.util.Map;
+
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Usuário em nome de quem a requisição é feita, para os interceptadores: o do
+ * token, ou o parâmetro {@code usuario}, ou o id em {@code /api/usuarios/{id}}.
+ */
+final class UsuarioRequisicao {
+
+	private UsuarioRequisicao() {
+	}
+
+	@SuppressWarnings("unchecked")
+	static Long obter(HttpServletRequest request) {
+		Object autenticado = request.getAttribute(TokenFilter.ATRIBUTO_USUARIO);
+		if(autenticado instanceof Long idUsuario) {
+			return idUsuario;
+		}
+		String parametro = request.getParameter("usuario");
+		if(parametro == null && request.getRequestURI().startsWith(request.getContextPath() + "/api/usuarios/")) {
+			Map<String, String> variaveis = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+			parametro = variaveis == null ? null : variaveis.get("id");
+		}
+		try {
+			return parametro == null ? null : Long.valueOf(parametro);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+}
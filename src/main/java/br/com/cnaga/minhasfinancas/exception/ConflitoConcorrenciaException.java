@@ -0,0 +1,12 @@
+package br.com.cnaga.minhasfinancas.exception;
+
+/**
+ * O lançamento foi alterado por outra requisição depois de lido.
+ */
+public class ConflitoConcorrenciaException extends RegraNegocioException {
+	private static final long serialVersionUID = 1L;
+
+	public ConflitoConcorrenciaException(String msg) {
+		super(msg);
+	}
+}
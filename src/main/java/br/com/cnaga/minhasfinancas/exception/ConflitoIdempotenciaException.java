@@ -0,0 +1,12 @@
+package br.com.cnaga.minhasfinancas.exception;
+
+/**
+ * Chave de idempotência já usada com uma requisição diferente.
+ */
+public class ConflitoIdempotenciaException extends RegraNegocioException {
+	private static final long serialVersionUID = 1L;
+
+	public ConflitoIdempotenciaException(String msg) {
+		super(msg);
+	}
+}
@@ -0,0 +1,22 @@
+package br.com.cnaga.minhasfinancas.exception;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Execução não confirmada a tempo que ainda pode terminar: o resultado final,
+ * gravado ou recusado, chega pelo {@code resultado}.
+ */
+public class ExecucaoPendenteException extends LimiteExcedidoException {
+	private static final long serialVersionUID = 1L;
+
+	private final transient CompletableFuture<?> resultado;
+
+	public ExecucaoPendenteException(String msg, CompletableFuture<?> resultado) {
+		super(msg);
+		this.resultado = resultado;
+	}
+
+	public CompletableFuture<?> getResultado() {
+		return resultado;
+	}
+}
@@ -0,0 +1,12 @@
+package br.com.cnaga.minhasfinancas.exception;
+
+/**
+ * Recusa por falta de capacidade: a mesma solicitação pode ser atendida mais tarde.
+ */
+public class LimiteExcedidoException extends RegraNegocioException {
+	private static final long serialVersionUID = 1L;
+
+	public LimiteExcedidoException(String msg) {
+		super(msg);
+	}
+}
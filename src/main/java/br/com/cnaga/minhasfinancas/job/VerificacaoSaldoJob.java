@@ -0,0 +1,47 @@
+package br.com.cnaga.minhasfinancas.job;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.cnaga.minhasfinancas.service.DivergenciaSaldo;
+import br.com.cnaga.minhasfinancas.service.SaldoUsuarioService;
+
+/**
+ * Recalcula os saldos a partir da tabela de lançamentos e reporta as divergências
+ * encontradas em relação aos saldos mantidos incrementalmente. Quando habilitado,
+ * reconstrói o saldo dos usuários divergentes.
+ */
+@Component
+public class VerificacaoSaldoJob {
+
+	private static final Logger log = LoggerFactory.getLogger(VerificacaoSaldoJob.class);
+	
+	@Autowired
+	private SaldoUsuarioService service;
+	
+	@Value("${minhasfinancas.saldo.verificacao.corrigir:true}")
+	private boolean corrigir;
+	
+	@Scheduled(cron = "${minhasfinancas.saldo.verificacao.cron:0 0 3 * * *}")
+	public List<DivergenciaSaldo> executar() {
+		List<DivergenciaSaldo> divergencias = service.verificar();
+		
+		for(DivergenciaSaldo divergencia : divergencias) {
+			log.warn("Saldo divergente para o usuário {}: registrado {}, calculado {} (diferença {}).",
+					divergencia.getIdUsuario(), divergencia.getSaldoRegistrado(),
+					divergencia.getSaldoCalculado(), divergencia.getDiferenca());
+			if(corrigir) {
+				service.reconstruir(divergencia.getIdUsuario());
+			}
+		}
+		
+		log.info("Verificação de saldos concluída: {} divergência(s) encontrada(s).", divergencias.size());
+		return divergencias;
+	}
+}
@@ -0,0 +1,39 @@
+package br.com.cnaga.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totais acumulados de receitas e despesas de um usuário, mantidos por delta
+ * a cada escrita em {@link Lancamento} para que o saldo seja lido por chave primária.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "saldo_usuario", schema = "financas")
+public class SaldoUsuario {
+
+	@Id
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "receitas")
+	private BigDecimal receitas;
+	
+	@Column(name = "despesas")
+	private BigDecimal despesas;
+	
+	public BigDecimal getSaldo() {
+		return receitas.subtract(despesas);
+	}
+}
@@ -0,0 +1,9 @@
+package br.com.cnaga.minhasfinancas.model.enums;
+
+public enum DimensaoAnalise {
+
+	ANO,
+	MES,
+	TIPO,
+	STATUS
+}
@@ -0,0 +1,8 @@
+package br.com.cnaga.minhasfinancas.model.enums;
+
+public enum StatusRelatorio {
+
+	EM_ANDAMENTO,
+	CONCLUIDO,
+	FALHOU
+}
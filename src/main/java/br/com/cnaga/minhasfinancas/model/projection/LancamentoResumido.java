@@ -0,0 +1,29 @@
+package br.com.cnaga.minhasfinancas.model.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Colunas de um lançamento sem o usuário associado. Por não ser uma entidade,
+ * não é mantido no contexto de persistência quando lido em grandes volumes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LancamentoResumido {
+
+	private Long id;
+	private String descricao;
+	private Integer mes;
+	private Integer ano;
+	private BigDecimal valor;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private LocalDate dataCadastro;
+}
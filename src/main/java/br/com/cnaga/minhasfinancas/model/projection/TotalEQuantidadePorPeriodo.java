@@ -0,0 +1,6 @@
+package br.com.cnaga.minhasfinancas.model.projection;
+
+public interface TotalEQuantidadePorPeriodo extends TotalPorPeriodo {
+
+	Long getQuantidade();
+}
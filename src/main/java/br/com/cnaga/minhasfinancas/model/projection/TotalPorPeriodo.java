@@ -0,0 +1,15 @@
+package br.com.cnaga.minhasfinancas.model.projection;
+
+import java.math.BigDecimal;
+
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+
+public interface TotalPorPeriodo {
+
+	Integer getAno();
+	Integer getMes();
+	TipoLancamento getTipo();
+	StatusLancamento getStatus();
+	BigDecimal getTotal();
+}
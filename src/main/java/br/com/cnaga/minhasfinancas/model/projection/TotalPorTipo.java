@@ -0,0 +1,12 @@
+package br.com.cnaga.minhasfinancas.model.projection;
+
+import java.math.BigDecimal;
+
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+
+public interface TotalPorTipo {
+
+	Long getIdUsuario();
+	TipoLancamento getTipo();
+	BigDecimal getTotal();
+}
@@ -0,0 +1,26 @@
+package br.com.cnaga.minhasfinancas.model.projection;
+
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import lombok.Value;
+
+/**
+ * Dados de um usuário sem a senha, guardados no cache {@code usuarios}. É imutável
+ * e não é uma entidade: o mesmo valor pode ser lido por várias threads sem estar
+ * preso a nenhum contexto de persistência.
+ */
+@Value
+public class UsuarioResumido {
+
+	Long id;
+	String nome;
+	String email;
+	
+	/** Cria um usuário novo, desanexado e sem senha, a cada chamada. */
+	public Usuario paraUsuario() {
+		return Usuario.builder()
+				.id(id)
+				.nome(nome)
+				.email(email)
+				.build();
+	}
+}
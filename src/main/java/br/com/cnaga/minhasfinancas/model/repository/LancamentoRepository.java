@@ -1,15 +1,29 @@
 package br.com.cnaga.minhasfinancas.model.repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
 import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import jakarta.persistence.QueryHint;
+import br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido;
+import br.com.cnaga.minhasfinancas.model.projection.TotalEQuantidadePorPeriodo;
+import br.com.cnaga.minhasfinancas.model.projection.TotalPorPeriodo;
+import br.com.cnaga.minhasfinancas.model.projection.TotalPorTipo;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long>{
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryCustom {
 
 	@Query( value = 
 	  " select sum(l.valor) from Lancamento l join l.usuario u "
@@ -18,4 +32,98 @@ public interface LancamentoRepository extends JpaRepository<Lancamento, Long>{
 	BigDecimal obterSaldoPorTipoLancamentoEUsuario(
 			@Param("idUsuario") Long idUsuario,
 			@Param("tipo") TipoLancamento tipo) ;
+	
+	@Query( value = 
+	  " select l.usuario.id as idUsuario, l.tipo as tipo, sum(l.valor) as total from Lancamento l "
+	+ " where l.usuario.id = :idUsuario group by l.usuario.id, l.tipo " )
+	List<TotalPorTipo> obterTotaisPorTipo(@Param("idUsuario") Long idUsuario);
+	
+	@Query( value = 
+	  " select l.usuario.id as idUsuario, l.tipo as tipo, sum(l.valor) as total from Lancamento l "
+	+ " group by l.usuario.id, l.tipo " )
+	List<TotalPorTipo> obterTotaisPorUsuarioETipo();
+	
+	@Query( value = 
+	  " select l.usuario.id as idUsuario, l.tipo as tipo, sum(l.valor) as total from Lancamento l "
+	+ " where l.usuario.id = :idUsuario and l.ano < :ano group by l.usuario.id, l.tipo " )
+	List<TotalPorTipo> obterTotaisPorTipoAntesDoAno(
+			@Param("idUsuario") Long idUsuario,
+			@Param("ano") Integer ano);
+	
+	@Query( value = 
+	  " select l.ano as ano, l.mes as mes, l.tipo as tipo, l.status as status, sum(l.valor) as total "
+	+ " from Lancamento l where l.usuario.id = :idUsuario and (:ano is null or l.ano = :ano) "
+	+ " group by l.ano, l.mes, l.tipo, l.status order by l.ano, l.mes " )
+	List<TotalPorPeriodo> obterTotaisPorPeriodo(
+			@Param("idUsuario") Long idUsuario,
+			@Param("ano") Integer ano);
+	
+	@Query( value = 
+	  " select l.ano as ano, l.mes as mes, l.tipo as tipo, l.status as status, sum(l.valor) as total, count(l) as quantidade "
+	+ " from Lancamento l where l.usuario.id = :idUsuario and l.ano between :anoInicial and :anoFinal "
+	+ " group by l.ano, l.mes, l.tipo, l.status " )
+	List<TotalEQuantidadePorPeriodo> obterTotaisEQuantidadesPorPeriodo(
+			@Param("idUsuario") Long idUsuario,
+			@Param("anoInicial") Integer anoInicial,
+			@Param("anoFinal") Integer anoFinal);
+	
+	@QueryHints( @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500") )
+	@Query( value = 
+	  " select new br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido( "
+	+ " l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.dataCadastro ) "
+	+ " from Lancamento l where l.usuario.id = :idUsuario order by l.id " )
+	Stream<LancamentoResumido> streamPorUsuario(@Param("idUsuario") Long idUsuario);
+	
+	@Query( value = 
+	  " select new br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido( "
+	+ " l.id, l.descricao, l.mes, l.ano, l.valor, l.tipo, l.status, l.dataCadastro ) "
+	+ " from Lancamento l where l.usuario.id = :idUsuario and l.ano = :ano and l.id > :cursor order by l.id " )
+	List<LancamentoResumido> buscarResumidosPorAno(
+			@Param("idUsuario") Long idUsuario,
+			@Param("ano") Integer ano,
+			@Param("cursor") Long cursor,
+			Limit limite);
+	
+	/**
+	 * As trocas de status em lote também incrementam a versão, para que uma
+	 * gravação condicionada à versão lida antes delas responda com conflito.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query( value = 
+	  " update Lancamento l set l.status = :status, l.versao = l.versao + 1 "
+	+ " where l.usuario.id = :idUsuario and l.id in :ids and l.status in :statusPermitidos " )
+	int atualizarStatusPorIds(
+			@Param("idUsuario") Long idUsuario,
+			@Param("ids") Collection<Long> ids,
+			@Param("statusPermitidos") Collection<StatusLancamento> statusPermitidos,
+			@Param("status") StatusLancamento status);
+	
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query( value = 
+	  " update Lancamento l set l.status = :status, l.versao = l.versao + 1 "
+	+ " where l.usuario.id = :idUsuario and (:ano is null or l.ano = :ano) and (:mes is null or l.mes = :mes) "
+	+ " and l.status in :statusPermitidos " )
+	int atualizarStatusPorPeriodo(
+			@Param("idUsuario") Long idUsuario,
+			@Param("ano") Integer ano,
+			@Param("mes") Integer mes,
+			@Param("statusPermitidos") Collection<StatusLancamento> statusPermitidos,
+			@Param("status") StatusLancamento status);
+	
+	/**
+	 * Troca o status de um lançamento apenas se ele ainda estiver na versão (e,
+	 * quando informados, com o usuário e o status) esperada, incrementando a versão.
+	 * Retorna zero quando outra escrita chegou antes.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query( value = 
+	  " update Lancamento l set l.status = :status, l.versao = l.versao + 1 "
+	+ " where l.id = :id and l.versao = :versao and (:idUsuario is null or l.usuario.id = :idUsuario) "
+	+ " and (:statusAtual is null or l.status = :statusAtual) " )
+	int atualizarStatusNaVersao(
+			@Param("id") Long id,
+			@Param("idUsuario") Long idUsuario,
+			@Param("versao") Long versao,
+			@Param("statusAtual") StatusLancamento statusAtual,
+			@Param("status") StatusLancamento status);
 }
@@ -0,0 +1,13 @@
+package br.com.cnaga.minhasfinancas.model.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Example;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+
+public interface LancamentoRepositoryCustom {
+
+	List<Lancamento> buscarPagina(Example<Lancamento> example, Long cursor, int limite);
+	List<Lancamento> buscarPaginaEntreIds(Example<Lancamento> example, long[] ids, Long cursor, int limite);
+}
@@ -0,0 +1,87 @@
+package br.com.cnaga.minhasfinancas.model.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Example;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class LancamentoRepositoryCustomImpl implements LancamentoRepositoryCustom {
+
+	private static final int IDS_POR_CONSULTA = 1000;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	/**
+	 * Busca os lançamentos que atendem ao exemplo com id maior que o cursor,
+	 * em ordem de id, limitando a quantidade de linhas lidas do banco.
+	 */
+	@Override
+	public List<Lancamento> buscarPagina(Example<Lancamento> example, Long cursor, int limite) {
+		return buscar(example, cursor, null, limite);
+	}
+	
+	/**
+	 * Como {@link #buscarPagina}, restrito aos ids informados em ordem crescente.
+	 * Os ids vão para o banco em blocos que começam do tamanho da página e dobram
+	 * até {@value #IDS_POR_CONSULTA}; os blocos seguintes só são consultados se os
+	 * demais filtros deixarem a página incompleta.
+	 */
+	@Override
+	public List<Lancamento> buscarPaginaEntreIds(Example<Lancamento> example, long[] ids, Long cursor, int limite) {
+		int inicio = 0;
+		if(cursor != null) {
+			int posicao = Arrays.binarySearch(ids, cursor);
+			inicio = posicao >= 0 ? posicao + 1 : -(posicao + 1);
+		}
+		
+		List<Lancamento> lancamentos = new ArrayList<>();
+		int tamanhoBloco = Math.min(limite, IDS_POR_CONSULTA);
+		while(inicio < ids.length && lancamentos.size() < limite) {
+			int fim = Math.min(inicio + tamanhoBloco, ids.length);
+			List<Long> bloco = Arrays.stream(ids, inicio, fim).boxed().toList();
+			lancamentos.addAll(buscar(example, null, bloco, limite - lancamentos.size()));
+			inicio = fim;
+			tamanhoBloco = Math.min(tamanhoBloco * 2, IDS_POR_CONSULTA);
+		}
+		return lancamentos;
+	}
+	
+	private List<Lancamento> buscar(Example<Lancamento> example, Long cursor, Collection<Long> ids, int limite) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Lancamento> query = cb.createQuery(Lancamento.class);
+		Root<Lancamento> root = query.from(Lancamento.class);
+		root.fetch("usuario");
+		
+		List<Predicate> predicados = new ArrayList<>();
+		Predicate filtro = QueryByExamplePredicateBuilder.getPredicate(root, cb, example);
+		if(filtro != null) {
+			predicados.add(filtro);
+		}
+		if(cursor != null) {
+			predicados.add(cb.greaterThan(root.<Long>get("id"), cursor));
+		}
+		if(ids != null) {
+			predicados.add(root.<Long>get("id").in(ids));
+		}
+		
+		query.select(root)
+			.where(predicados.toArray(new Predicate[0]))
+			.orderBy(cb.asc(root.get("id")));
+		
+		return entityManager.createQuery(query)
+				.setMaxResults(limite)
+				.getResultList();
+	}
+}
@@ -0,0 +1,157 @@
+package br.com.cnaga.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Leituras de lançamentos e saldo por um driver R2DBC, sobre as mesmas tabelas
+ * mapeadas pelo JPA. O pool de conexões é próprio deste repositório e não é
+ * publicado como bean: um {@code ConnectionFactory} no contexto faria o Spring Boot
+ * desistir de configurar o {@code DataSource} usado pelo JPA e pelo Flyway.
+ */
+@Repository
+public class LeituraReativaRepository implements DisposableBean {
+
+	private static final int TAMANHO_BUSCA = 500;
+
+	private final ConnectionPool pool;
+	private final DatabaseClient client;
+
+	public LeituraReativaRepository(
+			@Value("${minhasfinancas.leitura-reativa.url}") String url,
+			@Value("${minhasfinancas.leitura-reativa.username:${spring.datasource.username:}}") String usuario,
+			@Value("${minhasfinancas.leitura-reativa.password:${spring.datasource.password:}}") String senha,
+			@Value("${minhasfinancas.leitura-reativa.pool.tamanho-maximo:20}") int tamanhoMaximo) {
+		ConnectionFactoryOptions opcoes = ConnectionFactoryOptions.parse(url).mutate()
+				.option(ConnectionFactoryOptions.USER, usuario)
+				.option(ConnectionFactoryOptions.PASSWORD, senha)
+				.build();
+		this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(opcoes))
+				.maxSize(tamanhoMaximo)
+				.build());
+		this.client = DatabaseClient.create(pool);
+	}
+
+	/**
+	 * Mesmo filtro da busca por exemplo do JPA: textos por "contém" sem diferenciar
+	 * maiúsculas, demais atributos por igualdade, ignorando os nulos. Os lançamentos
+	 * são emitidos em ordem de id a partir do cursor, conforme a demanda do assinante.
+	 */
+	public Flux<Lancamento> buscar(Lancamento filtro, Long cursor, Integer limite) {
+		Map<String, Object> parametros = new LinkedHashMap<>();
+		List<String> condicoes = new ArrayList<>();
+
+		if(filtro.getUsuario() != null && filtro.getUsuario().getId() != null) {
+			condicoes.add("l.id_usuario = :idUsuario");
+			parametros.put("idUsuario", filtro.getUsuario().getId());
+		}
+		if(filtro.getDescricao() != null) {
+			condicoes.add("lower(l.descricao) like :descricao escape '\\'");
+			parametros.put("descricao", "%" + escaparLike(filtro.getDescricao().toLowerCase()) + "%");
+		}
+		adicionarIgualdade(condicoes, parametros, "l.id", "id", filtro.getId());
+		adicionarIgualdade(condicoes, parametros, "l.mes", "mes", filtro.getMes());
+		adicionarIgualdade(condicoes, parametros, "l.ano", "ano", filtro.getAno());
+		adicionarIgualdade(condicoes, parametros, "l.valor", "valor", filtro.getValor());
+		adicionarIgualdade(condicoes, parametros, "l.data_cadastro", "dataCadastro", filtro.getDataCadastro());
+		adicionarIgualdade(condicoes, parametros, "l.tipo", "tipo", filtro.getTipo() == null ? null : filtro.getTipo().name());
+		adicionarIgualdade(condicoes, parametros, "l.status", "status", filtro.getStatus() == null ? null : filtro.getStatus().name());
+		if(cursor != null) {
+			condicoes.add("l.id > :cursor");
+			parametros.put("cursor", cursor);
+		}
+
+		StringBuilder sql = new StringBuilder()
+				.append(" select l.id, l.descricao, l.mes, l.ano, l.valor, l.data_cadastro, l.tipo, l.status, ")
+				.append(" u.id as id_usuario, u.nome as nome_usuario, u.email as email_usuario ")
+				.append(" from financas.lancamento l join financas.usuario u on u.id = l.id_usuario ");
+		if(!condicoes.isEmpty()) {
+			sql.append(" where ").append(String.join(" and ", condicoes));
+		}
+		sql.append(" order by l.id ");
+		if(limite != null) {
+			sql.append(" limit :limite ");
+			parametros.put("limite", limite);
+		}
+
+		GenericExecuteSpec consulta = client.sql(sql.toString())
+				.filter(statement -> statement.fetchSize(TAMANHO_BUSCA));
+		for(Map.Entry<String, Object> parametro : parametros.entrySet()) {
+			consulta = consulta.bind(parametro.getKey(), parametro.getValue());
+		}
+		return consulta.map(this::converterLancamento).all();
+	}
+
+	/**
+	 * Saldo lido de {@code saldo_usuario}, ou calculado a partir dos lançamentos
+	 * quando o usuário ainda não tem linha de saldo. Vazio se o usuário não existe.
+	 */
+	public Mono<BigDecimal> obterSaldo(Long idUsuario) {
+		return client.sql(
+				  " select coalesce(s.receitas - s.despesas, "
+				+ "   (select coalesce(sum(case when l.tipo = 'RECEITA' then l.valor else -l.valor end), 0) "
+				+ "    from financas.lancamento l where l.id_usuario = u.id)) as saldo "
+				+ " from financas.usuario u left join financas.saldo_usuario s on s.id_usuario = u.id "
+				+ " where u.id = :idUsuario ")
+				.bind("idUsuario", idUsuario)
+				.map(linha -> linha.get("saldo", BigDecimal.class))
+				.one();
+	}
+
+	@Override
+	public void destroy() {
+		pool.dispose();
+	}
+
+	private void adicionarIgualdade(List<String> condicoes, Map<String, Object> parametros,
+			String coluna, String nome, Object valor) {
+		if(valor != null) {
+			condicoes.add(coluna + " = :" + nome);
+			parametros.put(nome, valor);
+		}
+	}
+
+	private String escaparLike(String texto) {
+		return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+	private Lancamento converterLancamento(Readable linha) {
+		return Lancamento.builder()
+				.id(linha.get("id", Long.class))
+				.descricao(linha.get("descricao", String.class))
+				.mes(linha.get("mes", Integer.class))
+				.ano(linha.get("ano", Integer.class))
+				.valor(linha.get("valor", BigDecimal.class))
+				.dataCadastro(linha.get("data_cadastro", LocalDate.class))
+				.tipo(TipoLancamento.valueOf(linha.get("tipo", String.class)))
+				.status(StatusLancamento.valueOf(linha.get("status", String.class)))
+				.usuario(Usuario.builder()
+						.id(linha.get("id_usuario", Long.class))
+						.nome(linha.get("nome_usuario", String.class))
+						.email(linha.get("email_usuario", String.class))
+						.build())
+				.build();
+	}
+}
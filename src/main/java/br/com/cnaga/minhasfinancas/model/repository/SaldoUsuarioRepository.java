@@ -0,0 +1,56 @@
+package br.com.cnaga.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.cnaga.minhasfinancas.model.entity.SaldoUsuario;
+import jakarta.persistence.LockModeType;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+	@Modifying(flushAutomatically = true)
+	@Query( nativeQuery = true, value = 
+	  " update financas.saldo_usuario set receitas = receitas + :receitas, despesas = despesas + :despesas "
+	+ " where id_usuario = :idUsuario " )
+	int acumular(
+			@Param("idUsuario") Long idUsuario,
+			@Param("receitas") BigDecimal receitas,
+			@Param("despesas") BigDecimal despesas);
+	
+	/**
+	 * Insere o registro sem o merge do {@code save}, que sobrescreveria um
+	 * registro criado por uma escrita concorrente em vez de falhar pela chave.
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query( nativeQuery = true, value = 
+	  " insert into financas.saldo_usuario (id_usuario, receitas, despesas) values (:idUsuario, :receitas, :despesas) " )
+	int inserir(
+			@Param("idUsuario") Long idUsuario,
+			@Param("receitas") BigDecimal receitas,
+			@Param("despesas") BigDecimal despesas);
+	
+	/**
+	 * Insere o registro apenas se o usuário ainda não tiver um. Um registro criado
+	 * por uma escrita concorrente ainda não confirmada faz o insert esperar o commit
+	 * dela e retornar zero, sem erro que marque a transação para rollback. No H2, o
+	 * {@code on conflict} exige o modo de compatibilidade com o PostgreSQL.
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query( nativeQuery = true, value = 
+	  " insert into financas.saldo_usuario (id_usuario, receitas, despesas) values (:idUsuario, :receitas, :despesas) "
+	+ " on conflict do nothing " )
+	int inserirSeAusente(
+			@Param("idUsuario") Long idUsuario,
+			@Param("receitas") BigDecimal receitas,
+			@Param("despesas") BigDecimal despesas);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query( value = " select s from SaldoUsuario s where s.idUsuario = :idUsuario " )
+	Optional<SaldoUsuario> bloquearPorUsuario(@Param("idUsuario") Long idUsuario);
+}
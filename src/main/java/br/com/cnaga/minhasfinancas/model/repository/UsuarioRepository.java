@@ -2,13 +2,35 @@ package br.com.cnaga.minhasfinancas.model.repository;
 
 import java.util.Optional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.projection.UsuarioResumido;
 
+/**
+ * A busca do resumo por id passa pelo cache {@code usuarios}; apenas usuários
+ * encontrados são armazenados, e toda gravação remove a entrada do usuário
+ * gravado, depois do commit. O cache guarda o resumo imutável, nunca a entidade
+ * nem o hash da senha, e por isso a busca por e-mail do login vai sempre ao banco.
+ */
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 	
 	boolean existsByEmail(String email);
 	
 	Optional<Usuario> findByEmail(String email);
+	
+	@Cacheable(cacheNames = "usuarios", key = "#p0", unless = "#result == null")
+	@Query( value = 
+	  " select new br.com.cnaga.minhasfinancas.model.projection.UsuarioResumido( "
+	+ " u.id, u.nome, u.email ) "
+	+ " from Usuario u where u.id = :id " )
+	Optional<UsuarioResumido> buscarResumidoPorId(@Param("id") Long id);
+	
+	@Override
+	@CacheEvict(cacheNames = "usuarios", key = "#result.id")
+	<S extends Usuario> S save(S usuario);
 }
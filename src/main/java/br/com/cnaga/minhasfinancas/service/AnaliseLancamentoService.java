@@ -0,0 +1,18 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.util.List;
+import java.util.Set;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.enums.DimensaoAnalise;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+
+public interface AnaliseLancamentoService {
+
+	List<TotalAgrupado> totalizar(Long idUsuario, Set<DimensaoAnalise> agrupamento, Integer anoInicial, Integer anoFinal);
+	void registrarInclusoes(List<Lancamento> lancamentos);
+	void registrarAlteracao(Long idUsuarioAnterior, Lancamento lancamento);
+	void registrarAlteracaoDeStatus(Long idUsuario, Long id, StatusLancamento status);
+	void registrarExclusao(Lancamento lancamento);
+	void descartar(Long idUsuario);
+}
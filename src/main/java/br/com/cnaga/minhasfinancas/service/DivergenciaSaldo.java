@@ -0,0 +1,23 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DivergenciaSaldo {
+
+	private Long idUsuario;
+	private BigDecimal saldoRegistrado;
+	private BigDecimal saldoCalculado;
+	
+	public BigDecimal getDiferenca() {
+		return saldoRegistrado.subtract(saldoCalculado);
+	}
+}
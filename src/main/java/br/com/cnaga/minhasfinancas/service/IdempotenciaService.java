@@ -0,0 +1,8 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotenciaService {
+
+	<T> T executar(String chave, Object requisicao, Supplier<T> execucao);
+}
@@ -0,0 +1,8 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+
+public interface InclusaoLancamentoService {
+
+	Lancamento salvar(Lancamento lancamento);
+}
@@ -0,0 +1,15 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+
+public interface IndiceDescricaoService {
+
+	Optional<long[]> buscar(Long idUsuario, String descricao);
+	void registrarInclusoes(List<Lancamento> lancamentos);
+	void registrarAlteracao(Long idUsuarioAnterior, Lancamento lancamento);
+	void registrarExclusao(Lancamento lancamento);
+	void reconstruir(Long idUsuario);
+}
@@ -0,0 +1,19 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Publicado a cada escrita em lançamentos, com os usuários cujos dados mudaram.
+ * Sem usuários informados, a alteração pode ter atingido qualquer usuário.
+ */
+public record LancamentoAlteradoEvento(Set<Long> idsUsuarios) {
+
+	public static LancamentoAlteradoEvento dosUsuarios(Long... idsUsuarios) {
+		return new LancamentoAlteradoEvento(Set.copyOf(Arrays.asList(idsUsuarios)));
+	}
+	
+	public static LancamentoAlteradoEvento deTodosOsUsuarios() {
+		return new LancamentoAlteradoEvento(Set.of());
+	}
+}
@@ -3,18 +3,26 @@ package br.com.cnaga.minhasfinancas.service;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
 import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido;
 
 public interface LancamentoService {
 
 	Lancamento salvar(Lancamento lancamento);
+	List<Lancamento> salvarTodos(List<Lancamento> lancamentos);
 	Lancamento atualizar(Lancamento lancamento);
 	void deletar(Lancamento lancamento);
 	List<Lancamento> buscar(Lancamento lancamentoFiltro);
+	Pagina<Lancamento> buscar(Lancamento lancamentoFiltro, Long cursor, Integer tamanho);
 	void atualizarStatus(Lancamento lancamento, StatusLancamento status);
+	int atualizarStatus(Long idUsuario, List<Long> ids, StatusLancamento status);
+	int atualizarStatus(Long idUsuario, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento status);
 	void validar(Lancamento lancamento);
 	Optional<Lancamento> obterPorId(Long id);
 	BigDecimal obterSaldoPorUsuario(Long id);
+	void exportar(Long idUsuario, Consumer<LancamentoResumido> consumidor);
+	List<ResumoMensal> obterResumoMensal(Long idUsuario, Integer ano, boolean porStatus);
 }
@@ -0,0 +1,14 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.math.BigDecimal;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface LeituraReativaService {
+
+	Flux<Lancamento> buscar(Lancamento lancamentoFiltro, Long cursor, Integer tamanho);
+	Flux<Lancamento> transmitir(Lancamento lancamentoFiltro, Long cursor, Integer tamanho);
+	Mono<BigDecimal> obterSaldo(Long idUsuario);
+}
@@ -0,0 +1,16 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Pagina<T> {
+
+	private List<T> conteudo;
+	private Long proximoCursor;
+}
@@ -0,0 +1,31 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lançamentos de um ano do usuário com os totais por mês, tipo e status e o
+ * saldo acumulado ao fim de cada mês, a partir do saldo dos anos anteriores.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatorioAnual {
+
+	private Long idUsuario;
+	private Integer ano;
+	private BigDecimal saldoInicial;
+	private List<LancamentoResumido> lancamentos;
+	private List<ResumoMensal> totais;
+	private List<SaldoMensal> saldos;
+	
+	public record SaldoMensal(Integer mes, BigDecimal saldo) {
+	}
+}
@@ -0,0 +1,11 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.util.Optional;
+
+public interface RelatorioService {
+
+	SituacaoRelatorio solicitar(Long idUsuario, Integer ano);
+	Optional<SituacaoRelatorio> obterSituacao(String id);
+	Optional<RelatorioAnual> obterRelatorio(String id);
+	RelatorioAnual gerar(Long idUsuario, Integer ano);
+}
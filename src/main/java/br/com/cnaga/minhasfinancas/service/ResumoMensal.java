@@ -0,0 +1,26 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.math.BigDecimal;
+
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMensal {
+
+	private Integer ano;
+	private Integer mes;
+	private StatusLancamento status;
+	private BigDecimal receitas;
+	private BigDecimal despesas;
+	
+	public BigDecimal getSaldo() {
+		return receitas.subtract(despesas);
+	}
+}
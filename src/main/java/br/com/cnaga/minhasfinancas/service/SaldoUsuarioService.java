@@ -0,0 +1,18 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+
+public interface SaldoUsuarioService {
+
+	void registrarUsuario(Long idUsuario);
+	void registrarInclusao(Lancamento lancamento);
+	void registrarInclusoes(List<Lancamento> lancamentos);
+	void registrarExclusao(Lancamento lancamento);
+	void registrarAlteracao(Lancamento anterior, Lancamento atual);
+	BigDecimal obterSaldo(Long idUsuario);
+	List<DivergenciaSaldo> verificar();
+	void reconstruir(Long idUsuario);
+}
@@ -0,0 +1,24 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.time.Instant;
+
+import br.com.cnaga.minhasfinancas.model.enums.StatusRelatorio;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SituacaoRelatorio {
+
+	private String id;
+	private Long idUsuario;
+	private Integer ano;
+	private StatusRelatorio status;
+	private Instant solicitadoEm;
+	private Instant concluidoEm;
+	private String erro;
+}
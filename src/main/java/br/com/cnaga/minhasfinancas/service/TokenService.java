@@ -0,0 +1,16 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+
+public interface TokenService {
+
+	TokenSessao gerar(Usuario usuario);
+	
+	Optional<Long> validar(String token);
+	
+	record TokenSessao(String token, Instant expiraEm) {
+	}
+}
@@ -0,0 +1,32 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.math.BigDecimal;
+
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totais de um grupo de lançamentos. As dimensões fora do agrupamento ficam nulas.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalAgrupado {
+
+	private Integer ano;
+	private Integer mes;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private BigDecimal receitas;
+	private BigDecimal despesas;
+	private Integer quantidade;
+	
+	public BigDecimal getSaldo() {
+		return receitas.subtract(despesas);
+	}
+}
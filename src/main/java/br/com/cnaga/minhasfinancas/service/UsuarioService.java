@@ -13,4 +13,6 @@ public interface UsuarioService {
 	void validarEmail(String email);
 	
 	Optional<Usuario> obterPorId(Long id);
+	
+	Usuario obterReferencia(Long id);
 }
@@ -0,0 +1,11 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import java.util.Optional;
+
+public interface VersaoDadosService {
+
+	/**
+	 * Vazio quando as requisições condicionais estão desligadas.
+	 */
+	Optional<String> obterEtag(Long idUsuario);
+}
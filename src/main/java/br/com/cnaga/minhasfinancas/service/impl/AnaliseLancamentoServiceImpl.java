@@ -0,0 +1,185 @@
+package br.com.cnaga.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.annotation.Timed;
+
+import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.enums.DimensaoAnalise;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido;
+import br.com.cnaga.minhasfinancas.model.projection.TotalEQuantidadePorPeriodo;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.cnaga.minhasfinancas.service.AnaliseLancamentoService;
+import br.com.cnaga.minhasfinancas.service.TotalAgrupado;
+
+/**
+ * Responde às totalizações a partir de uma cópia em colunas dos lançamentos de
+ * cada usuário, carregada do banco na primeira consulta e mantida pelas escritas
+ * do {@code LancamentoServiceImpl} depois do commit, em {@link CopiasPorUsuario}.
+ * As atualizações de status em lote não informam as linhas afetadas e descartam
+ * as cópias. O usuário cuja cópia não cabe na memória é totalizado no banco.
+ * <p>
+ * Como o índice de descrições, as cópias só enxergam as escritas desta
+ * instância. Por isso vêm desligadas, e tudo é totalizado no banco, até que
+ * {@code minhasfinancas.analise.habilitada=true} seja ligado numa instância que
+ * seja a única escrevendo no banco; com réplicas de leitura configuradas, a
+ * aplicação não sobe com elas ligadas.
+ */
+@Service
+@Timed("minhasfinancas.servico")
+public class AnaliseLancamentoServiceImpl implements AnaliseLancamentoService {
+
+	private static final Comparator<TotalAgrupado> ORDEM = Comparator
+			.comparing(TotalAgrupado::getAno, Comparator.nullsFirst(Comparator.<Integer>naturalOrder()))
+			.thenComparing(TotalAgrupado::getMes, Comparator.nullsFirst(Comparator.<Integer>naturalOrder()))
+			.thenComparing(TotalAgrupado::getTipo, Comparator.nullsFirst(Comparator.<TipoLancamento>naturalOrder()))
+			.thenComparing(TotalAgrupado::getStatus, Comparator.nullsFirst(Comparator.<StatusLancamento>naturalOrder()));
+
+	private final LancamentoRepository repository;
+	private final TransactionTemplate leitura;
+	private final boolean habilitada;
+	private final CopiasPorUsuario<ColunasLancamentos> colunas;
+
+	public AnaliseLancamentoServiceImpl(LancamentoRepository repository, PlatformTransactionManager transactionManager,
+			@Value("${minhasfinancas.analise.habilitada:false}") boolean habilitada,
+			@Value("${minhasfinancas.analise.memoria-maxima:64MB}") DataSize memoriaMaxima,
+			@Value("${minhasfinancas.replicas.urls:}") List<String> replicas) {
+		if(habilitada && !replicas.isEmpty()) {
+			throw new IllegalStateException("minhasfinancas.analise.habilitada não pode ser usado com "
+					+ "minhasfinancas.replicas.urls: as cópias não enxergam as escritas das outras instâncias.");
+		}
+		this.repository = repository;
+		this.leitura = new TransactionTemplate(transactionManager);
+		this.leitura.setReadOnly(true);
+		this.habilitada = habilitada;
+		this.colunas = new CopiasPorUsuario<>(this::carregar, ColunasLancamentos::bytes, memoriaMaxima.toBytes());
+	}
+
+	@Override
+	public List<TotalAgrupado> totalizar(Long idUsuario, Set<DimensaoAnalise> agrupamento, Integer anoInicial, Integer anoFinal) {
+		if(idUsuario == null) {
+			throw new RegraNegocioException("Informe um Usuário.");
+		}
+		int inicio = anoInicial == null ? Integer.MIN_VALUE : anoInicial;
+		int fim = anoFinal == null ? Integer.MAX_VALUE : anoFinal;
+		if(!habilitada) {
+			return totalizarNoBanco(idUsuario, agrupamento, inicio, fim);
+		}
+		return colunas.obter(idUsuario)
+				.map(colunasDoUsuario -> colunasDoUsuario.totalizar(
+						agrupamento.contains(DimensaoAnalise.ANO),
+						agrupamento.contains(DimensaoAnalise.MES),
+						agrupamento.contains(DimensaoAnalise.TIPO),
+						agrupamento.contains(DimensaoAnalise.STATUS),
+						inicio, fim))
+				.orElseGet(() -> totalizarNoBanco(idUsuario, agrupamento, inicio, fim));
+	}
+
+	@Override
+	public void registrarInclusoes(List<Lancamento> lancamentos) {
+		CopiasPorUsuario.aposCommit(() -> {
+			for(Lancamento lancamento : lancamentos) {
+				colunas.alterar(idUsuario(lancamento), colunasDoUsuario -> incluir(colunasDoUsuario, lancamento));
+			}
+		});
+	}
+
+	/**
+	 * Tira o lançamento da cópia do usuário a que ele pertencia, se pertencia a
+	 * algum, e o inclui na do usuário atual.
+	 */
+	@Override
+	public void registrarAlteracao(Long idUsuarioAnterior, Lancamento lancamento) {
+		CopiasPorUsuario.aposCommit(() -> {
+			if(idUsuarioAnterior != null) {
+				colunas.alterar(idUsuarioAnterior, colunasDoUsuario -> colunasDoUsuario.remover(lancamento.getId()));
+			}
+			colunas.alterar(idUsuario(lancamento), colunasDoUsuario -> incluir(colunasDoUsuario, lancamento));
+		});
+	}
+
+	@Override
+	public void registrarAlteracaoDeStatus(Long idUsuario, Long id, StatusLancamento status) {
+		CopiasPorUsuario.aposCommit(() -> colunas.alterar(idUsuario, colunasDoUsuario -> colunasDoUsuario.alterarStatus(id, status)));
+	}
+
+	@Override
+	public void registrarExclusao(Lancamento lancamento) {
+		CopiasPorUsuario.aposCommit(() -> colunas.alterar(idUsuario(lancamento), colunasDoUsuario -> colunasDoUsuario.remover(lancamento.getId())));
+	}
+
+	@Override
+	public void descartar(Long idUsuario) {
+		CopiasPorUsuario.aposCommit(() -> colunas.descartar(idUsuario));
+	}
+
+	private ColunasLancamentos carregar(Long idUsuario) {
+		ColunasLancamentos novas = new ColunasLancamentos();
+		leitura.executeWithoutResult(status -> {
+			try(Stream<LancamentoResumido> lancamentos = repository.streamPorUsuario(idUsuario)) {
+				lancamentos.forEach(lancamento -> novas.incluir(lancamento.getId(), lancamento.getAno(),
+						lancamento.getMes(), lancamento.getTipo(), lancamento.getStatus(),
+						ColunasLancamentos.centavos(lancamento.getValor())));
+			}
+		});
+		return novas;
+	}
+
+	/**
+	 * Totaliza os lançamentos de um usuário que não cabe na memória, ou com as
+	 * cópias desligadas: o banco agrupa
+	 * por ano, mês, tipo e status, e os grupos são somados aqui pelas dimensões
+	 * pedidas, na mesma ordem das colunas.
+	 */
+	private List<TotalAgrupado> totalizarNoBanco(Long idUsuario, Set<DimensaoAnalise> agrupamento, int anoInicial, int anoFinal) {
+		Map<List<Object>, TotalAgrupado> totais = new HashMap<>();
+		for(TotalEQuantidadePorPeriodo grupo : repository.obterTotaisEQuantidadesPorPeriodo(idUsuario, anoInicial, anoFinal)) {
+			Integer ano = agrupamento.contains(DimensaoAnalise.ANO) ? grupo.getAno() : null;
+			Integer mes = agrupamento.contains(DimensaoAnalise.MES) ? grupo.getMes() : null;
+			TipoLancamento tipo = agrupamento.contains(DimensaoAnalise.TIPO) ? grupo.getTipo() : null;
+			StatusLancamento status = agrupamento.contains(DimensaoAnalise.STATUS) ? grupo.getStatus() : null;
+			TotalAgrupado total = totais.computeIfAbsent(Arrays.asList(ano, mes, tipo, status), chave -> TotalAgrupado.builder()
+					.ano(ano)
+					.mes(mes)
+					.tipo(tipo)
+					.status(status)
+					.receitas(BigDecimal.ZERO.setScale(2))
+					.despesas(BigDecimal.ZERO.setScale(2))
+					.quantidade(0)
+					.build());
+			BigDecimal valor = grupo.getTotal() == null ? BigDecimal.ZERO : grupo.getTotal();
+			if(grupo.getTipo() == TipoLancamento.RECEITA) {
+				total.setReceitas(total.getReceitas().add(valor));
+			} else {
+				total.setDespesas(total.getDespesas().add(valor));
+			}
+			total.setQuantidade(total.getQuantidade() + grupo.getQuantidade().intValue());
+		}
+		return totais.values().stream().sorted(ORDEM).toList();
+	}
+
+	private void incluir(ColunasLancamentos colunasDoUsuario, Lancamento lancamento) {
+		colunasDoUsuario.incluir(lancamento.getId(), lancamento.getAno(), lancamento.getMes(),
+				lancamento.getTipo(), lancamento.getStatus(), ColunasLancamentos.centavos(lancamento.getValor()));
+	}
+
+	private Long idUsuario(Lancamento lancamento) {
+		return lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+	}
+}
@@ -0,0 +1,192 @@
+package br.com.cnaga.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.service.TotalAgrupado;
+
+/**
+ * Lançamentos de um usuário guardados em colunas de tipos primitivos e ordenados
+ * por id: o valor em centavos num {@code long}, tipo e status pelo ordinal. As
+ * somas percorrem as colunas acumulando em vetores indexados pelo grupo, sem
+ * criar objetos por linha. Incluir um id já presente substitui a linha, o que
+ * torna a reaplicação de uma alteração inofensiva.
+ */
+final class ColunasLancamentos {
+
+	static final int BYTES_POR_LINHA = 2 * Long.BYTES + Short.BYTES + 3 * Byte.BYTES;
+
+	private static final int BYTES_FIXOS = 6 * 16 + 64;
+	private static final int CAPACIDADE_INICIAL = 16;
+	private static final TipoLancamento[] TIPOS = TipoLancamento.values();
+	private static final StatusLancamento[] STATUS = StatusLancamento.values();
+	private static final int RECEITA = TipoLancamento.RECEITA.ordinal();
+
+	private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+	private long[] ids = new long[CAPACIDADE_INICIAL];
+	private short[] anos = new short[CAPACIDADE_INICIAL];
+	private byte[] meses = new byte[CAPACIDADE_INICIAL];
+	private byte[] tipos = new byte[CAPACIDADE_INICIAL];
+	private byte[] status = new byte[CAPACIDADE_INICIAL];
+	private long[] valores = new long[CAPACIDADE_INICIAL];
+	private int tamanho;
+	private int anoMinimo = Integer.MAX_VALUE;
+	private int anoMaximo = Integer.MIN_VALUE;
+
+	static long centavos(BigDecimal valor) {
+		return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+	}
+
+	void incluir(long id, int ano, int mes, TipoLancamento tipo, StatusLancamento situacao, long centavos) {
+		trava.writeLock().lock();
+		try {
+			int posicao = tamanho > 0 && id > ids[tamanho - 1] ? -(tamanho + 1) : Arrays.binarySearch(ids, 0, tamanho, id);
+			if(posicao < 0) {
+				posicao = -(posicao + 1);
+				abrirEspaco(posicao);
+			}
+			ids[posicao] = id;
+			anos[posicao] = (short) ano;
+			meses[posicao] = (byte) mes;
+			tipos[posicao] = (byte) tipo.ordinal();
+			status[posicao] = (byte) situacao.ordinal();
+			valores[posicao] = centavos;
+			anoMinimo = Math.min(anoMinimo, ano);
+			anoMaximo = Math.max(anoMaximo, ano);
+		} finally {
+			trava.writeLock().unlock();
+		}
+	}
+
+	boolean remover(long id) {
+		trava.writeLock().lock();
+		try {
+			int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+			if(posicao < 0) {
+				return false;
+			}
+			int seguintes = tamanho - posicao - 1;
+			System.arraycopy(ids, posicao + 1, ids, posicao, seguintes);
+			System.arraycopy(anos, posicao + 1, anos, posicao, seguintes);
+			System.arraycopy(meses, posicao + 1, meses, posicao, seguintes);
+			System.arraycopy(tipos, posicao + 1, tipos, posicao, seguintes);
+			System.arraycopy(status, posicao + 1, status, posicao, seguintes);
+			System.arraycopy(valores, posicao + 1, valores, posicao, seguintes);
+			tamanho--;
+			return true;
+		} finally {
+			trava.writeLock().unlock();
+		}
+	}
+
+	boolean alterarStatus(long id, StatusLancamento situacao) {
+		trava.writeLock().lock();
+		try {
+			int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+			if(posicao < 0) {
+				return false;
+			}
+			status[posicao] = (byte) situacao.ordinal();
+			return true;
+		} finally {
+			trava.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Memória aproximada ocupada pelas colunas, pela capacidade alocada.
+	 */
+	long bytes() {
+		return BYTES_FIXOS + (long) ids.length * BYTES_POR_LINHA;
+	}
+
+	List<TotalAgrupado> totalizar(boolean porAno, boolean porMes, boolean porTipo, boolean porStatus,
+			int anoInicial, int anoFinal) {
+		trava.readLock().lock();
+		try {
+			int inicio = Math.max(anoInicial, anoMinimo);
+			int fim = Math.min(anoFinal, anoMaximo);
+			if(tamanho == 0 || inicio > fim) {
+				return List.of();
+			}
+
+			int quantidadeMeses = porMes ? 12 : 1;
+			int quantidadeTipos = porTipo ? TIPOS.length : 1;
+			int quantidadeStatus = porStatus ? STATUS.length : 1;
+			int grupos = (porAno ? fim - inicio + 1 : 1) * quantidadeMeses * quantidadeTipos * quantidadeStatus;
+			long[] receitas = new long[grupos];
+			long[] despesas = new long[grupos];
+			int[] quantidades = new int[grupos];
+
+			for(int i = 0; i < tamanho; i++) {
+				int ano = anos[i];
+				if(ano < inicio || ano > fim) {
+					continue;
+				}
+				int grupo = porAno ? ano - inicio : 0;
+				grupo = grupo * quantidadeMeses + (porMes ? meses[i] - 1 : 0);
+				grupo = grupo * quantidadeTipos + (porTipo ? tipos[i] : 0);
+				grupo = grupo * quantidadeStatus + (porStatus ? status[i] : 0);
+				if(tipos[i] == RECEITA) {
+					receitas[grupo] += valores[i];
+				} else {
+					despesas[grupo] += valores[i];
+				}
+				quantidades[grupo]++;
+			}
+
+			List<TotalAgrupado> totais = new ArrayList<>();
+			for(int grupo = 0; grupo < grupos; grupo++) {
+				if(quantidades[grupo] == 0) {
+					continue;
+				}
+				int resto = grupo;
+				int indiceStatus = resto % quantidadeStatus;
+				resto /= quantidadeStatus;
+				int indiceTipo = resto % quantidadeTipos;
+				resto /= quantidadeTipos;
+				int indiceMes = resto % quantidadeMeses;
+				int indiceAno = resto / quantidadeMeses;
+				totais.add(TotalAgrupado.builder()
+						.ano(porAno ? inicio + indiceAno : null)
+						.mes(porMes ? indiceMes + 1 : null)
+						.tipo(porTipo ? TIPOS[indiceTipo] : null)
+						.status(porStatus ? STATUS[indiceStatus] : null)
+						.receitas(BigDecimal.valueOf(receitas[grupo], 2))
+						.despesas(BigDecimal.valueOf(despesas[grupo], 2))
+						.quantidade(quantidades[grupo])
+						.build());
+			}
+			return totais;
+		} finally {
+			trava.readLock().unlock();
+		}
+	}
+
+	private void abrirEspaco(int posicao) {
+		if(tamanho == ids.length) {
+			int capacidade = ids.length * 2;
+			ids = Arrays.copyOf(ids, capacidade);
+			anos = Arrays.copyOf(anos, capacidade);
+			meses = Arrays.copyOf(meses, capacidade);
+			tipos = Arrays.copyOf(tipos, capacidade);
+			status = Arrays.copyOf(status, capacidade);
+			valores = Arrays.copyOf(valores, capacidade);
+		}
+		int seguintes = tamanho - posicao;
+		System.arraycopy(ids, posicao, ids, posicao + 1, seguintes);
+		System.arraycopy(anos, posicao, anos, posicao + 1, seguintes);
+		System.arraycopy(meses, posicao, meses, posicao + 1, seguintes);
+		System.arraycopy(tipos, posicao, tipos, posicao + 1, seguintes);
+		System.arraycopy(status, posicao, status, posicao + 1, seguintes);
+		System.arraycopy(valores, posicao, valores, posicao + 1, seguintes);
+		tamanho++;
+	}
+}
@@ -0,0 +1,182 @@
+package br.com.cnaga.minhasfinancas.service.impl;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cópias em memória dos lançamentos de cada usuário, carregadas na primeira
+ * consulta e mantidas pelas escritas depois do commit. As cópias menos usadas
+ * recentemente são descartadas quando a memória estimada passa do orçamento.
+ * <p>
+ * Consultas simultâneas do mesmo usuário aguardam uma única carga. Uma escrita
+ * que chega durante a carga invalida a carga: o resultado é usado pelas
+ * consultas que a aguardavam, mas não é guardado.
+ * <p>
+ * A cópia que sozinha passa do orçamento também é usada apenas pelas consultas
+ * que aguardavam a carga. O usuário fica marcado, e as consultas seguintes
+ * recebem vazio e devem ir ao banco, em vez de carregar tudo de novo, até que a
+ * cópia dele seja descartada.
+ */
+final class CopiasPorUsuario<T> {
+
+	private final Function<Long, T> carregar;
+	private final ToLongFunction<T> bytes;
+	private final long memoriaMaxima;
+
+	private final LinkedHashMap<Long, T> copias = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<Long, Carga<T>> cargas = new HashMap<>();
+	private final Set<Long> acimaDoOrcamento = new HashSet<>();
+	private long memoriaEmUso;
+
+	CopiasPorUsuario(Function<Long, T> carregar, ToLongFunction<T> bytes, long memoriaMaxima) {
+		this.carregar = carregar;
+		this.bytes = bytes;
+		this.memoriaMaxima = memoriaMaxima;
+	}
+
+	/**
+	 * Executa a ação depois do commit da transação corrente, ou já, sem transação.
+	 */
+	static void aposCommit(Runnable acao) {
+		if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+			acao.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				acao.run();
+			}
+		});
+	}
+
+	/**
+	 * Cópia do usuário, carregada se preciso. Vazio quando ela não cabe no
+	 * orçamento.
+	 */
+	Optional<T> obter(Long idUsuario) {
+		Carga<T> carga;
+		boolean carregando = false;
+		synchronized (this) {
+			T existente = copias.get(idUsuario);
+			if(existente != null) {
+				return Optional.of(existente);
+			}
+			if(acimaDoOrcamento.contains(idUsuario)) {
+				return Optional.empty();
+			}
+			carga = cargas.get(idUsuario);
+			if(carga == null) {
+				carga = new Carga<>();
+				cargas.put(idUsuario, carga);
+				carregando = true;
+			}
+		}
+		if(!carregando) {
+			return Optional.of(carga.copia.join());
+		}
+
+		T nova;
+		try {
+			nova = carregar.apply(idUsuario);
+		} catch (RuntimeException e) {
+			synchronized (this) {
+				cargas.remove(idUsuario);
+			}
+			carga.copia.completeExceptionally(e);
+			throw e;
+		}
+		synchronized (this) {
+			cargas.remove(idUsuario);
+			if(!carga.obsoleta) {
+				guardar(idUsuario, nova);
+			}
+		}
+		carga.copia.complete(nova);
+		return Optional.of(nova);
+	}
+
+	/**
+	 * Aplica a alteração à cópia do usuário, se estiver em memória, e invalida a
+	 * carga em andamento. Sem usuário, descarta todas as cópias.
+	 */
+	synchronized void alterar(Long idUsuario, Consumer<T> alteracao) {
+		if(idUsuario == null) {
+			descartar(null);
+			return;
+		}
+		invalidarCarga(idUsuario);
+		T copia = copias.get(idUsuario);
+		if(copia == null) {
+			return;
+		}
+		long antes = bytes.applyAsLong(copia);
+		alteracao.accept(copia);
+		memoriaEmUso += bytes.applyAsLong(copia) - antes;
+		liberarMemoria();
+	}
+
+	/**
+	 * Descarta a cópia do usuário e invalida a carga em andamento; sem usuário,
+	 * vale para todos.
+	 */
+	synchronized void descartar(Long idUsuario) {
+		if(idUsuario == null) {
+			cargas.values().forEach(carga -> carga.obsoleta = true);
+			copias.clear();
+			acimaDoOrcamento.clear();
+			memoriaEmUso = 0;
+			return;
+		}
+		invalidarCarga(idUsuario);
+		acimaDoOrcamento.remove(idUsuario);
+		T copia = copias.remove(idUsuario);
+		if(copia != null) {
+			memoriaEmUso -= bytes.applyAsLong(copia);
+		}
+	}
+
+	private void invalidarCarga(Long idUsuario) {
+		Carga<T> carga = cargas.get(idUsuario);
+		if(carga != null) {
+			carga.obsoleta = true;
+		}
+	}
+
+	private void guardar(Long idUsuario, T nova) {
+		long tamanho = bytes.applyAsLong(nova);
+		if(tamanho > memoriaMaxima) {
+			acimaDoOrcamento.add(idUsuario);
+			return;
+		}
+		copias.put(idUsuario, nova);
+		memoriaEmUso += tamanho;
+		liberarMemoria();
+	}
+
+	private void liberarMemoria() {
+		Iterator<T> menosRecentes = copias.values().iterator();
+		while(memoriaEmUso > memoriaMaxima && menosRecentes.hasNext()) {
+			memoriaEmUso -= bytes.applyAsLong(menosRecentes.next());
+			menosRecentes.remove();
+		}
+	}
+
+	private static final class Carga<T> {
+
+		private final CompletableFuture<T> copia = new CompletableFuture<>();
+		private boolean obsoleta;
+	}
+}
@@ -0,0 +1,65 @@
+package br.com.cnaga.minhasfinancas.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Lembra, por pouco tempo, as senhas já conferidas contra o hash armazenado, para
+ * que logins repetidos não paguem o custo do BCrypt a cada chamada. Guarda apenas
+ * um HMAC da senha com uma chave aleatória que nunca sai da memória, atrelado ao
+ * hash vigente: trocar a senha invalida a entrada.
+ */
+@Component
+public class CredenciaisVerificadas {
+
+	private static final String ALGORITMO = "HmacSHA256";
+	
+	private final Cache<String, Credencial> credenciais;
+	private final SecretKeySpec chave;
+	
+	public CredenciaisVerificadas(@Value("${minhasfinancas.senha.cache-credenciais.duracao:5m}") Duration duracao) {
+		this.credenciais = Caffeine.newBuilder()
+				.maximumSize(10_000)
+				.expireAfterWrite(duracao)
+				.build();
+		byte[] bytesChave = new byte[32];
+		new SecureRandom().nextBytes(bytesChave);
+		this.chave = new SecretKeySpec(bytesChave, ALGORITMO);
+	}
+	
+	public boolean contem(String email, String hash, String senha) {
+		Credencial credencial = credenciais.getIfPresent(email);
+		return credencial != null 
+				&& credencial.hash().equals(hash) 
+				&& MessageDigest.isEqual(credencial.resumoSenha(), resumir(senha));
+	}
+	
+	public void registrar(String email, String hash, String senha) {
+		credenciais.put(email, new Credencial(hash, resumir(senha)));
+	}
+	
+	private byte[] resumir(String senha) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITMO);
+			mac.init(chave);
+			return mac.doFinal(senha.getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private record Credencial(String hash, byte[] resumoSenha) {
+	}
+}
@@ -0,0 +1,117 @@
+package br.com.cnaga.minhasfinancas.service.impl;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import br.com.cnaga.minhasfinancas.exception.ConflitoIdempotenciaException;
+import br.com.cnaga.minhasfinancas.exception.ExecucaoPendenteException;
+import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
+import br.com.cnaga.minhasfinancas.service.IdempotenciaService;
+
+/**
+ * Guarda o resultado de cada execução pela chave de idempotência informada pelo
+ * cliente, por um período de validade e até um número máximo de chaves. A
+ * primeira requisição com a chave executa; as concorrentes aguardam a mesma
+ * execução, e as seguintes recebem o resultado guardado sem executar nada.
+ * <p>
+ * A requisição fica guardada junto do resultado: repetir a chave com outra
+ * requisição é recusado. Uma execução que termina em exceção não é guardada, e
+ * a chave pode ser usada de novo. A exceção é a {@link ExecucaoPendenteException},
+ * de uma execução que ainda pode terminar: a chave fica presa ao resultado dela,
+ * que as repetições aguardam, e só é liberada se ela também falhar. Se a chave for descartada pelo limite de
+ * tamanho antes de a execução terminar, uma repetição executa outra vez.
+ * <p>
+ * Publica o número de chaves em {@code minhasfinancas.idempotencia.chaves} e as
+ * requisições em {@code minhasfinancas.idempotencia.requisicoes}, com a tag
+ * {@code resultado} igual a {@code executada} ou {@code repetida}.
+ */
+@Service
+public class IdempotenciaServiceImpl implements IdempotenciaService {
+
+	private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+	private final Cache<String, Execucao> execucoes;
+	private final Counter executadas;
+	private final Counter repetidas;
+
+	public IdempotenciaServiceImpl(MeterRegistry registry,
+			@Value("${minhasfinancas.idempotencia.validade:24h}") Duration validade,
+			@Value("${minhasfinancas.idempotencia.maximo-chaves:100000}") long maximoChaves) {
+		this.execucoes = Caffeine.newBuilder()
+				.expireAfterWrite(validade)
+				.maximumSize(maximoChaves)
+				.build();
+		Gauge.builder("minhasfinancas.idempotencia.chaves", execucoes, Cache::estimatedSize)
+				.description("Chaves de idempotência guardadas")
+				.register(registry);
+		this.executadas = Counter.builder("minhasfinancas.idempotencia.requisicoes")
+				.description("Requisições com chave de idempotência")
+				.tag("resultado", "executada")
+				.register(registry);
+		this.repetidas = Counter.builder("minhasfinancas.idempotencia.requisicoes")
+				.description("Requisições com chave de idempotência")
+				.tag("resultado", "repetida")
+				.register(registry);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T executar(String chave, Object requisicao, Supplier<T> execucao) {
+		if(chave == null || chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+			throw new RegraNegocioException("Informe uma chave de idempotência com até " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+		}
+
+		Execucao nova = new Execucao(requisicao, new CompletableFuture<>());
+		Execucao existente = execucoes.asMap().putIfAbsent(chave, nova);
+		if(existente != null) {
+			if(!existente.requisicao().equals(requisicao)) {
+				throw new ConflitoIdempotenciaException("Chave de idempotência já usada com outra requisição.");
+			}
+			repetidas.increment();
+			try {
+				return (T) existente.resultado().join();
+			} catch (CompletionException e) {
+				if(e.getCause() instanceof RuntimeException causa) {
+					throw causa;
+				}
+				throw e;
+			}
+		}
+
+		executadas.increment();
+		try {
+			T resultado = execucao.get();
+			nova.resultado().complete(resultado);
+			return resultado;
+		} catch (ExecucaoPendenteException e) {
+			e.getResultado().whenComplete((resultado, erro) -> {
+				if(erro == null) {
+					nova.resultado().complete(resultado);
+				} else {
+					execucoes.asMap().remove(chave, nova);
+					nova.resultado().completeExceptionally(erro);
+				}
+			});
+			throw e;
+		} catch (RuntimeException e) {
+			execucoes.asMap().remove(chave, nova);
+			nova.resultado().completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	private record Execucao(Object requisicao, CompletableFuture<Object> resultado) {
+	}
+}
@@ -0,0 +1,222 @@
+package br.com.cnaga.minhasfinancas.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import br.com.cnaga.minhasfinancas.exception.ExecucaoPendenteException;
+import br.com.cnaga.minhasfinancas.exception.LimiteExcedidoException;
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.service.InclusaoLancamentoService;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+
+/**
+ * Inclusão de lançamentos com gravação agrupada: quando habilitada, as inclusões
+ * concorrentes são validadas na thread de quem chama e entram numa fila; threads
+ * próprias juntam o que chegar durante a espera configurada, ou até o tamanho do
+ * lote, e gravam tudo pelo {@link LancamentoService#salvarTodos} numa única
+ * transação, com um só commit. Cada chamada aguarda o lote e recebe o próprio
+ * lançamento com o id gerado.
+ * <p>
+ * Um usuário inexistente só é detectado pela chave estrangeira e desfaz o lote
+ * inteiro; nesse caso os lançamentos do lote são gravados de novo um a um, para
+ * que o erro chegue apenas a quem o causou.
+ * <p>
+ * A fila é limitada: cheia, a inclusão é gravada sozinha na thread de quem chama.
+ * Quem chama aguarda o lote até o tempo máximo configurado; se o lançamento ainda
+ * estiver na fila, é retirado e não será gravado. Do contrário pode ter sido, e a
+ * {@link ExecucaoPendenteException} leva o resultado do lote, que ainda termina.
+ * <p>
+ * Publica o tamanho dos lotes em {@code minhasfinancas.inclusao.lote} e o tempo
+ * de cada inclusão, da fila ao commit, em {@code minhasfinancas.inclusao.latencia}.
+ * Desabilitada, repassa cada chamada ao {@link LancamentoService#salvar}.
+ */
+@Service
+public class InclusaoLancamentoServiceImpl implements InclusaoLancamentoService, DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(InclusaoLancamentoServiceImpl.class);
+
+	private final LancamentoService service;
+	private final boolean habilitada;
+	private final long espera;
+	private final int tamanhoLote;
+	private final Duration tempoMaximo;
+	private final BlockingQueue<Pedido> fila;
+	private final List<Thread> gravadores = new ArrayList<>();
+	private final DistributionSummary lotes;
+	private final Timer latencia;
+	private volatile boolean encerrando;
+
+	public InclusaoLancamentoServiceImpl(LancamentoService service, MeterRegistry registry,
+			@Value("${minhasfinancas.inclusao-agrupada.habilitada:false}") boolean habilitada,
+			@Value("${minhasfinancas.inclusao-agrupada.espera:5ms}") Duration espera,
+			@Value("${minhasfinancas.inclusao-agrupada.tamanho-lote:100}") int tamanhoLote,
+			@Value("${minhasfinancas.inclusao-agrupada.threads:2}") int threads,
+			@Value("${minhasfinancas.inclusao-agrupada.fila:1000}") int capacidadeFila,
+			@Value("${minhasfinancas.inclusao-agrupada.tempo-maximo:30s}") Duration tempoMaximo) {
+		this.service = service;
+		this.habilitada = habilitada;
+		this.espera = espera.toNanos();
+		this.tamanhoLote = tamanhoLote;
+		this.tempoMaximo = tempoMaximo;
+		this.fila = new LinkedBlockingQueue<>(capacidadeFila);
+		this.lotes = DistributionSummary.builder("minhasfinancas.inclusao.lote")
+				.description("Lançamentos gravados por transação na inclusão agrupada")
+				.register(registry);
+		this.latencia = Timer.builder("minhasfinancas.inclusao.latencia")
+				.description("Tempo de cada inclusão agrupada, da entrada na fila ao commit do lote")
+				.register(registry);
+
+		if(habilitada) {
+			ThreadFactory fabrica = new CustomizableThreadFactory("inclusao-agrupada-");
+			for(int i = 0; i < threads; i++) {
+				Thread gravador = fabrica.newThread(this::gravarLotes);
+				gravadores.add(gravador);
+				gravador.start();
+			}
+		}
+	}
+
+	@Override
+	public Lancamento salvar(Lancamento lancamento) {
+		if(!habilitada || encerrando) {
+			return service.salvar(lancamento);
+		}
+		service.validar(lancamento);
+		lancamento.setStatus(StatusLancamento.PENDENTE);
+
+		Pedido pedido = new Pedido(lancamento, new CompletableFuture<>(), System.nanoTime());
+		if(!fila.offer(pedido)) {
+			return service.salvar(lancamento);
+		}
+		// O encerramento pode ter esvaziado a fila antes desta inclusão entrar.
+		if(encerrando && fila.remove(pedido)) {
+			return service.salvar(lancamento);
+		}
+		try {
+			// O tempo máximo vale para a cópia: o resultado do pedido continua pendente
+			// até o lote terminar, para quem o recebe na ExecucaoPendenteException.
+			return pedido.resultado().copy().orTimeout(tempoMaximo.toNanos(), TimeUnit.NANOSECONDS).join();
+		} catch (CompletionException e) {
+			if(e.getCause() instanceof TimeoutException) {
+				throw tempoEsgotado(pedido);
+			}
+			if(e.getCause() instanceof RuntimeException causa) {
+				throw causa;
+			}
+			throw e;
+		}
+	}
+
+	private LimiteExcedidoException tempoEsgotado(Pedido pedido) {
+		if(fila.remove(pedido)) {
+			return new LimiteExcedidoException("A inclusão não foi gravada a tempo. Tente novamente mais tarde.");
+		}
+		return new ExecucaoPendenteException("A inclusão não foi confirmada a tempo e pode ter sido gravada.",
+				pedido.resultado());
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		encerrando = true;
+		for(Thread gravador : gravadores) {
+			gravador.join();
+		}
+		Pedido restante;
+		while((restante = fila.poll()) != null) {
+			gravar(List.of(restante));
+		}
+	}
+
+	/**
+	 * Laço de cada thread gravadora. Ao encerrar, termina de gravar o que ainda
+	 * estiver na fila.
+	 */
+	private void gravarLotes() {
+		while(!encerrando || !fila.isEmpty()) {
+			try {
+				List<Pedido> lote = juntarLote();
+				if(!lote.isEmpty()) {
+					gravar(lote);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("Falha inesperada na inclusão agrupada de lançamentos.", e);
+			}
+		}
+	}
+
+	private List<Pedido> juntarLote() throws InterruptedException {
+		List<Pedido> lote = new ArrayList<>(tamanhoLote);
+		Pedido primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+		if(primeiro == null) {
+			return lote;
+		}
+		lote.add(primeiro);
+		long limite = primeiro.inicio() + espera;
+		while(lote.size() < tamanhoLote) {
+			fila.drainTo(lote, tamanhoLote - lote.size());
+			long restante = limite - System.nanoTime();
+			if(lote.size() >= tamanhoLote || restante <= 0) {
+				break;
+			}
+			Pedido proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+			if(proximo == null) {
+				break;
+			}
+			lote.add(proximo);
+		}
+		return lote;
+	}
+
+	private void gravar(List<Pedido> lote) {
+		lotes.record(lote.size());
+		try {
+			service.salvarTodos(lote.stream().map(Pedido::lancamento).toList());
+			lote.forEach(pedido -> concluir(pedido, pedido.lancamento(), null));
+		} catch (RuntimeException e) {
+			for(Pedido pedido : lote) {
+				pedido.lancamento().setId(null);
+				pedido.lancamento().setVersao(null);
+				try {
+					concluir(pedido, service.salvar(pedido.lancamento()), null);
+				} catch (RuntimeException erro) {
+					concluir(pedido, null, erro);
+				}
+			}
+		}
+	}
+
+	private void concluir(Pedido pedido, Lancamento lancamento, RuntimeException erro) {
+		latencia.record(System.nanoTime() - pedido.inicio(), TimeUnit.NANOSECONDS);
+		if(erro == null) {
+			pedido.resultado().complete(lancamento);
+		} else {
+			pedido.resultado().completeExceptionally(erro);
+		}
+	}
+
+	private record Pedido(Lancamento lancamento, CompletableFuture<Lancamento> resultado, long inicio) {
+	}
+}
@@ -0,0 +1,119 @@
+package br.com.cnaga.minhasfinancas.service.impl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.annotation.Timed;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.cnaga.minhasfinancas.service.IndiceDescricaoService;
+
+/**
+ * Resolve a parte de descrição da busca de lançamentos por um
+ * {@link IndiceDescricoes} de cada usuário, montado a partir do banco na primeira
+ * busca e mantido pelas escritas do {@code LancamentoServiceImpl} depois do
+ * commit, em {@link CopiasPorUsuario}, como as colunas do
+ * {@link AnaliseLancamentoServiceImpl}.
+ * <p>
+ * Como o índice só enxerga as escritas desta instância, ele vem desligado e a
+ * busca usa o {@code like} no banco. Só deve ser ligado, com
+ * {@code minhasfinancas.descricao.indice.habilitado=true}, quando esta for a
+ * única instância escrevendo no banco; com réplicas de leitura configuradas, a
+ * aplicação não sobe com ele ligado.
+ */
+@Service
+@Timed("minhasfinancas.servico")
+public class IndiceDescricaoServiceImpl implements IndiceDescricaoService {
+
+	private final LancamentoRepository repository;
+	private final TransactionTemplate leitura;
+	private final boolean habilitado;
+	private final CopiasPorUsuario<IndiceDescricoes> indices;
+
+	public IndiceDescricaoServiceImpl(LancamentoRepository repository, PlatformTransactionManager transactionManager,
+			@Value("${minhasfinancas.descricao.indice.habilitado:false}") boolean habilitado,
+			@Value("${minhasfinancas.descricao.indice.memoria-maxima:64MB}") DataSize memoriaMaxima,
+			@Value("${minhasfinancas.replicas.urls:}") List<String> replicas) {
+		if(habilitado && !replicas.isEmpty()) {
+			throw new IllegalStateException("minhasfinancas.descricao.indice.habilitado não pode ser usado com "
+					+ "minhasfinancas.replicas.urls: o índice não enxerga as escritas das outras instâncias.");
+		}
+		this.repository = repository;
+		this.leitura = new TransactionTemplate(transactionManager);
+		this.leitura.setReadOnly(true);
+		this.habilitado = habilitado;
+		this.indices = new CopiasPorUsuario<>(this::carregar, IndiceDescricoes::bytes, memoriaMaxima.toBytes());
+	}
+
+	/**
+	 * Ids, em ordem crescente, dos lançamentos do usuário cuja descrição contém o
+	 * termo, ignorando a caixa como o {@code like} do banco. Vazio quando o índice
+	 * não pode responder, inclusive quando o do usuário não cabe na memória, e a
+	 * descrição deve ser filtrada no banco.
+	 */
+	@Override
+	public Optional<long[]> buscar(Long idUsuario, String descricao) {
+		if(!habilitado || idUsuario == null || IndiceDescricoes.normalizar(descricao).isEmpty()) {
+			return Optional.empty();
+		}
+		return indices.obter(idUsuario).map(indice -> indice.buscar(descricao));
+	}
+
+	@Override
+	public void registrarInclusoes(List<Lancamento> lancamentos) {
+		CopiasPorUsuario.aposCommit(() -> {
+			for(Lancamento lancamento : lancamentos) {
+				indices.alterar(idUsuario(lancamento), indice -> indice.incluir(lancamento.getId(), lancamento.getDescricao()));
+			}
+		});
+	}
+
+	@Override
+	public void registrarAlteracao(Long idUsuarioAnterior, Lancamento lancamento) {
+		CopiasPorUsuario.aposCommit(() -> {
+			if(idUsuarioAnterior != null) {
+				indices.alterar(idUsuarioAnterior, indice -> indice.remover(lancamento.getId()));
+			}
+			indices.alterar(idUsuario(lancamento), indice -> indice.incluir(lancamento.getId(), lancamento.getDescricao()));
+		});
+	}
+
+	@Override
+	public void registrarExclusao(Lancamento lancamento) {
+		CopiasPorUsuario.aposCommit(() -> indices.alterar(idUsuario(lancamento), indice -> indice.remover(lancamento.getId())));
+	}
+
+	/**
+	 * Descarta o índice do usuário e o monta de novo a partir do banco.
+	 */
+	@Override
+	public void reconstruir(Long idUsuario) {
+		indices.descartar(idUsuario);
+		if(habilitado) {
+			indices.obter(idUsuario);
+		}
+	}
+
+	private IndiceDescricoes carregar(Long idUsuario) {
+		IndiceDescricoes novo = new IndiceDescricoes();
+		leitura.executeWithoutResult(status -> {
+			try(Stream<LancamentoResumido> lancamentos = repository.streamPorUsuario(idUsuario)) {
+				lancamentos.forEach(lancamento -> novo.incluir(lancamento.getId(), lancamento.getDescricao()));
+			}
+		});
+		return novo;
+	}
+
+	private Long idUsuario(Lancamento lancamento) {
+		return lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+	}
+}
@@ -0,0 +1,259 @@
+package br.com.cnaga.minhasfinancas.service.impl;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido das descrições dos lançamentos de um usuário. A descrição é
+ * passada para minúsculas e decomposta em trigramas; cada trigrama, empacotado
+ * num {@code long}, aponta para a lista ordenada dos ids que o contêm, numa
+ * tabela de endereçamento aberto sem objetos por entrada. A busca intersecta as
+ * listas dos trigramas do termo, começando pela menor, e confirma cada candidato
+ * na descrição em minúsculas: o resultado é o mesmo do
+ * {@code lower(descricao) like '%termo%'} das buscas no banco, que ignora a caixa
+ * mas não os acentos nem os espaços. Termos com menos de três caracteres
+ * percorrem as descrições.
+ */
+final class IndiceDescricoes {
+
+	private static final long MARCA_TRIGRAMA = 1L << 48;
+	private static final long[] VAZIA = new long[0];
+	private static final int BYTES_FIXOS = 8 * 16 + 64;
+	private static final int BYTES_POR_TEXTO = 48;
+	private static final int CAPACIDADE_INICIAL = 16;
+
+	private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+	private long[] ids = new long[CAPACIDADE_INICIAL];
+	private String[] textos = new String[CAPACIDADE_INICIAL];
+	private int tamanho;
+	private long bytesTextos;
+
+	private long[] trigramas = new long[CAPACIDADE_INICIAL];
+	private long[][] listas = new long[CAPACIDADE_INICIAL][];
+	private int[] tamanhosListas = new int[CAPACIDADE_INICIAL];
+	private int quantidadeTrigramas;
+	private long bytesListas;
+
+	static String normalizar(String texto) {
+		return texto == null ? "" : texto.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Indexa a descrição do lançamento, substituindo a anterior se o id já estiver
+	 * no índice.
+	 */
+	void incluir(long id, String descricao) {
+		String texto = normalizar(descricao);
+		trava.writeLock().lock();
+		try {
+			int posicao = tamanho > 0 && id > ids[tamanho - 1] ? -(tamanho + 1) : Arrays.binarySearch(ids, 0, tamanho, id);
+			if(posicao >= 0) {
+				desindexar(id, textos[posicao]);
+				bytesTextos += 2L * (texto.length() - textos[posicao].length());
+			} else {
+				posicao = -(posicao + 1);
+				abrirEspaco(posicao);
+				bytesTextos += BYTES_POR_TEXTO + 2L * texto.length();
+			}
+			ids[posicao] = id;
+			textos[posicao] = texto;
+			for(int i = 0; i + 3 <= texto.length(); i++) {
+				adicionarALista(trigrama(texto, i), id);
+			}
+		} finally {
+			trava.writeLock().unlock();
+		}
+	}
+
+	boolean remover(long id) {
+		trava.writeLock().lock();
+		try {
+			int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+			if(posicao < 0) {
+				return false;
+			}
+			desindexar(id, textos[posicao]);
+			bytesTextos -= BYTES_POR_TEXTO + 2L * textos[posicao].length();
+			int seguintes = tamanho - posicao - 1;
+			System.arraycopy(ids, posicao + 1, ids, posicao, seguintes);
+			System.arraycopy(textos, posicao + 1, textos, posicao, seguintes);
+			textos[--tamanho] = null;
+			return true;
+		} finally {
+			trava.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Ids, em ordem crescente, dos lançamentos cuja descrição normalizada contém o
+	 * termo normalizado.
+	 */
+	long[] buscar(String termo) {
+		String normalizado = normalizar(termo);
+		trava.readLock().lock();
+		try {
+			if(normalizado.length() < 3) {
+				long[] resultado = new long[tamanho];
+				int encontrados = 0;
+				for(int i = 0; i < tamanho; i++) {
+					if(textos[i].contains(normalizado)) {
+						resultado[encontrados++] = ids[i];
+					}
+				}
+				return Arrays.copyOf(resultado, encontrados);
+			}
+
+			int quantidade = normalizado.length() - 2;
+			long[][] candidatas = new long[quantidade][];
+			int[] tamanhos = new int[quantidade];
+			for(int i = 0; i < quantidade; i++) {
+				int slot = localizar(trigrama(normalizado, i));
+				if(trigramas[slot] == 0 || tamanhosListas[slot] == 0) {
+					return VAZIA;
+				}
+				candidatas[i] = listas[slot];
+				tamanhos[i] = tamanhosListas[slot];
+			}
+
+			int menor = 0;
+			for(int i = 1; i < quantidade; i++) {
+				if(tamanhos[i] < tamanhos[menor]) {
+					menor = i;
+				}
+			}
+			long[] resultado = Arrays.copyOf(candidatas[menor], tamanhos[menor]);
+			int encontrados = tamanhos[menor];
+			for(int i = 0; i < quantidade && encontrados > 0; i++) {
+				if(i == menor || candidatas[i] == candidatas[menor]) {
+					continue;
+				}
+				int mantidos = 0;
+				for(int j = 0; j < encontrados; j++) {
+					if(Arrays.binarySearch(candidatas[i], 0, tamanhos[i], resultado[j]) >= 0) {
+						resultado[mantidos++] = resultado[j];
+					}
+				}
+				encontrados = mantidos;
+			}
+			return filtrar(resultado, encontrados, normalizado);
+		} finally {
+			trava.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Memória aproximada ocupada pelo índice, pela capacidade alocada.
+	 */
+	long bytes() {
+		return BYTES_FIXOS + (long) ids.length * (Long.BYTES + 8) + bytesTextos
+				+ (long) trigramas.length * (Long.BYTES + 8 + Integer.BYTES) + bytesListas;
+	}
+
+	private long[] filtrar(long[] candidatos, int quantidade, String termo) {
+		int mantidos = 0;
+		for(int i = 0; i < quantidade; i++) {
+			int posicao = Arrays.binarySearch(ids, 0, tamanho, candidatos[i]);
+			if(posicao >= 0 && textos[posicao].contains(termo)) {
+				candidatos[mantidos++] = candidatos[i];
+			}
+		}
+		return Arrays.copyOf(candidatos, mantidos);
+	}
+
+	private void desindexar(long id, String texto) {
+		for(int i = 0; i + 3 <= texto.length(); i++) {
+			int slot = localizar(trigrama(texto, i));
+			if(trigramas[slot] == 0) {
+				continue;
+			}
+			int posicao = Arrays.binarySearch(listas[slot], 0, tamanhosListas[slot], id);
+			if(posicao >= 0) {
+				System.arraycopy(listas[slot], posicao + 1, listas[slot], posicao, tamanhosListas[slot] - posicao - 1);
+				tamanhosListas[slot]--;
+			}
+		}
+	}
+
+	/**
+	 * Inclui o id na lista do trigrama, mantendo a ordem. Um trigrama repetido na
+	 * mesma descrição encontra o id já presente e não o duplica.
+	 */
+	private void adicionarALista(long trigrama, long id) {
+		int slot = localizar(trigrama);
+		if(trigramas[slot] == 0) {
+			if(2 * (quantidadeTrigramas + 1) > trigramas.length) {
+				redimensionarTabela();
+				slot = localizar(trigrama);
+			}
+			trigramas[slot] = trigrama;
+			listas[slot] = new long[4];
+			bytesListas += 16 + 4 * Long.BYTES;
+			quantidadeTrigramas++;
+		}
+		long[] lista = listas[slot];
+		int quantidade = tamanhosListas[slot];
+		int posicao = quantidade > 0 && id > lista[quantidade - 1] ? -(quantidade + 1) : Arrays.binarySearch(lista, 0, quantidade, id);
+		if(posicao >= 0) {
+			return;
+		}
+		posicao = -(posicao + 1);
+		if(quantidade == lista.length) {
+			bytesListas += (long) lista.length * Long.BYTES;
+			lista = Arrays.copyOf(lista, lista.length * 2);
+			listas[slot] = lista;
+		}
+		System.arraycopy(lista, posicao, lista, posicao + 1, quantidade - posicao);
+		lista[posicao] = id;
+		tamanhosListas[slot] = quantidade + 1;
+	}
+
+	/**
+	 * Posição do trigrama na tabela ou a posição vazia onde ele entraria. As
+	 * chaves nunca são removidas, então a sondagem linear não precisa de marcas
+	 * de exclusão.
+	 */
+	private int localizar(long trigrama) {
+		int mascara = trigramas.length - 1;
+		int slot = Long.hashCode(trigrama * 0x9E3779B97F4A7C15L) & mascara;
+		while(trigramas[slot] != 0 && trigramas[slot] != trigrama) {
+			slot = (slot + 1) & mascara;
+		}
+		return slot;
+	}
+
+	private void redimensionarTabela() {
+		long[] trigramasAnteriores = trigramas;
+		long[][] listasAnteriores = listas;
+		int[] tamanhosAnteriores = tamanhosListas;
+		int capacidade = trigramas.length * 2;
+		trigramas = new long[capacidade];
+		listas = new long[capacidade][];
+		tamanhosListas = new int[capacidade];
+		for(int i = 0; i < trigramasAnteriores.length; i++) {
+			if(trigramasAnteriores[i] != 0) {
+				int slot = localizar(trigramasAnteriores[i]);
+				trigramas[slot] = trigramasAnteriores[i];
+				listas[slot] = listasAnteriores[i];
+				tamanhosListas[slot] = tamanhosAnteriores[i];
+			}
+		}
+	}
+
+	private void abrirEspaco(int posicao) {
+		if(tamanho == ids.length) {
+			int capacidade = ids.length * 2;
+			ids = Arrays.copyOf(ids, capacidade);
+			textos = Arrays.copyOf(textos, capacidade);
+		}
+		int seguintes = tamanho - posicao;
+		System.arraycopy(ids, posicao, ids, posicao + 1, seguintes);
+		System.arraycopy(textos, posicao, textos, posicao + 1, seguintes);
+		tamanho++;
+	}
+
+	private static long trigrama(String texto, int inicio) {
+		return MARCA_TRIGRAMA | (long) texto.charAt(inicio) << 32 | (long) texto.charAt(inicio + 1) << 16 | texto.charAt(inicio + 2);
+	}
+}
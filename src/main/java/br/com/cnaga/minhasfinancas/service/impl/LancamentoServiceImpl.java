@@ -1,44 +1,219 @@
 package br.com.cnaga.minhasfinancas.service.impl;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.orm.ObjectRetrievalFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+
+import br.com.cnaga.minhasfinancas.exception.ConflitoConcorrenciaException;
 import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
 import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
 import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
 import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido;
+import br.com.cnaga.minhasfinancas.model.projection.TotalPorPeriodo;
 import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.cnaga.minhasfinancas.service.AnaliseLancamentoService;
+import br.com.cnaga.minhasfinancas.service.IndiceDescricaoService;
+import br.com.cnaga.minhasfinancas.service.LancamentoAlteradoEvento;
 import br.com.cnaga.minhasfinancas.service.LancamentoService;
+import br.com.cnaga.minhasfinancas.service.Pagina;
+import br.com.cnaga.minhasfinancas.service.ResumoMensal;
+import br.com.cnaga.minhasfinancas.service.SaldoUsuarioService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
+@Timed("minhasfinancas.servico")
 public class LancamentoServiceImpl implements LancamentoService{
 
+	/**
+	 * Status de origem a partir dos quais cada status pode ser atribuído em lote:
+	 * apenas lançamentos pendentes podem ser efetivados ou cancelados.
+	 */
+	private static final Map<StatusLancamento, Set<StatusLancamento>> ORIGENS_PERMITIDAS = new EnumMap<>(StatusLancamento.class);
+	static {
+		ORIGENS_PERMITIDAS.put(StatusLancamento.PENDENTE, EnumSet.noneOf(StatusLancamento.class));
+		ORIGENS_PERMITIDAS.put(StatusLancamento.EFETIVADO, EnumSet.of(StatusLancamento.PENDENTE));
+		ORIGENS_PERMITIDAS.put(StatusLancamento.CAMCELADO, EnumSet.of(StatusLancamento.PENDENTE));
+	}
+
+	/**
+	 * 23503 é a violação de chave estrangeira do padrão SQL; o H2 usa 23506
+	 * quando a linha referenciada não existe.
+	 */
+	private static final Set<String> SQLSTATES_CHAVE_ESTRANGEIRA = Set.of("23503", "23506");
+
 	@Autowired
 	private LancamentoRepository repository;
+	@Autowired
+	private SaldoUsuarioService saldoService;
+	@Autowired
+	private AnaliseLancamentoService analiseService;
+	@Autowired
+	private IndiceDescricaoService indiceDescricaoService;
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	@Value("${minhasfinancas.lancamentos.pagina.tamanho-padrao:100}")
+	private int tamanhoPadraoPagina;
+	@Value("${minhasfinancas.lancamentos.pagina.tamanho-maximo:500}")
+	private int tamanhoMaximoPagina;
+	@Value("${minhasfinancas.importacao.tamanho-lote:500}")
+	private int tamanhoLote;
+	@Value("${minhasfinancas.lancamentos.status.ids-por-comando:1000}")
+	private int idsPorComando;
 	
 	@Override
 	@Transactional
 	public Lancamento salvar(Lancamento lancamento) {
 		validar(lancamento);
 		lancamento.setStatus(StatusLancamento.PENDENTE);
-		return repository.save(lancamento);
+		try {
+			Lancamento lancamentoSalvo = repository.save(lancamento);
+			saldoService.registrarInclusao(lancamentoSalvo);
+			analiseService.registrarInclusoes(List.of(lancamentoSalvo));
+			indiceDescricaoService.registrarInclusoes(List.of(lancamentoSalvo));
+			publicarAlteracao(List.of(lancamentoSalvo));
+			return lancamentoSalvo;
+		} catch (DataIntegrityViolationException e) {
+			throw traduzirUsuarioNaoEncontrado(e);
+		}
 	}
 
+	/**
+	 * Persiste lançamentos já validados em lotes JDBC, limpando o contexto de
+	 * persistência a cada lote. O saldo é acumulado uma única vez por usuário.
+	 */
+	@Override
+	@Transactional
+	public List<Lancamento> salvarTodos(List<Lancamento> lancamentos) {
+		for(int inicio = 0; inicio < lancamentos.size(); inicio += tamanhoLote) {
+			List<Lancamento> lote = lancamentos.subList(inicio, Math.min(inicio + tamanhoLote, lancamentos.size()));
+			for(Lancamento lancamento : lote) {
+				if(lancamento.getStatus() == null) {
+					lancamento.setStatus(StatusLancamento.PENDENTE);
+				}
+			}
+			repository.saveAll(lote);
+			repository.flush();
+			entityManager.clear();
+		}
+		saldoService.registrarInclusoes(lancamentos);
+		analiseService.registrarInclusoes(lancamentos);
+		indiceDescricaoService.registrarInclusoes(lancamentos);
+		publicarAlteracao(lancamentos);
+		return lancamentos;
+	}
+
+	/**
+	 * Sem versão informada, o lançamento é gravado sobre a versão atual; com ela,
+	 * a gravação falha com {@link ConflitoConcorrenciaException} se outra escrita
+	 * chegou antes.
+	 */
 	@Override
 	@Transactional
 	public Lancamento atualizar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
 		validar(lancamento);
-		return repository.save(lancamento);
+		Optional<Lancamento> atual = repository.findById(lancamento.getId());
+		if(lancamento.getVersao() == null) {
+			atual.ifPresent(existente -> lancamento.setVersao(existente.getVersao()));
+		}
+		Optional<Lancamento> anterior = atual.map(this::copiarValores);
+		Long idUsuarioAnterior = anterior.map(Lancamento::getUsuario).map(Usuario::getId).orElse(null);
+		try {
+			Lancamento lancamentoAtualizado = repository.save(lancamento);
+			repository.flush();
+			analiseService.registrarAlteracao(idUsuarioAnterior, lancamentoAtualizado);
+			indiceDescricaoService.registrarAlteracao(idUsuarioAnterior, lancamentoAtualizado);
+			if(anterior.isPresent()) {
+				saldoService.registrarAlteracao(anterior.get(), lancamentoAtualizado);
+				publicarAlteracao(List.of(anterior.get(), lancamentoAtualizado));
+			} else {
+				saldoService.registrarInclusao(lancamentoAtualizado);
+				publicarAlteracao(List.of(lancamentoAtualizado));
+			}
+			return lancamentoAtualizado;
+		} catch (OptimisticLockingFailureException e) {
+			throw alteradoPorOutraRequisicao();
+		} catch (DataIntegrityViolationException e) {
+			throw traduzirUsuarioNaoEncontrado(e);
+		} catch (ObjectRetrievalFailureException e) {
+			if(Usuario.class.getName().equals(e.getPersistentClassName())) {
+				throw usuarioNaoEncontrado();
+			}
+			throw e;
+		}
+	}
+	
+	/**
+	 * Avisa quais usuários tiveram lançamentos alterados; se algum lançamento vier
+	 * sem usuário, a alteração é tratada como de todos.
+	 */
+	private void publicarAlteracao(List<Lancamento> lancamentos) {
+		Long[] idsUsuarios = lancamentos.stream()
+				.map(lancamento -> lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId())
+				.toArray(Long[]::new);
+		if(Arrays.asList(idsUsuarios).contains(null)) {
+			eventPublisher.publishEvent(LancamentoAlteradoEvento.deTodosOsUsuarios());
+		} else {
+			eventPublisher.publishEvent(LancamentoAlteradoEvento.dosUsuarios(idsUsuarios));
+		}
+	}
+	
+	/**
+	 * O usuário é associado ao lançamento apenas por referência, sem consulta prévia;
+	 * um id inexistente só é detectado pela chave estrangeira ao gravar.
+	 */
+	private RegraNegocioException usuarioNaoEncontrado() {
+		return new RegraNegocioException("Usuário não encontrado com o id informado.");
+	}
+	
+	/**
+	 * Só a violação da chave estrangeira de {@code id_usuario} vira usuário não
+	 * encontrado; as demais violações de integridade seguem como vieram.
+	 */
+	private RuntimeException traduzirUsuarioNaoEncontrado(DataIntegrityViolationException e) {
+		for(Throwable causa = e; causa != null; causa = causa.getCause()) {
+			if(causa instanceof SQLException sql && SQLSTATES_CHAVE_ESTRANGEIRA.contains(sql.getSQLState())
+					&& sql.getMessage() != null && sql.getMessage().toLowerCase(Locale.ROOT).contains("id_usuario")) {
+				return usuarioNaoEncontrado();
+			}
+		}
+		return e;
+	}
+	
+	private ConflitoConcorrenciaException alteradoPorOutraRequisicao() {
+		return new ConflitoConcorrenciaException("O lançamento foi alterado por outra requisição. Consulte-o novamente.");
 	}
 
 	@Override
@@ -46,22 +221,161 @@ public class LancamentoServiceImpl implements LancamentoService{
 	public void deletar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
 		repository.delete(lancamento);
+		saldoService.registrarExclusao(lancamento);
+		analiseService.registrarExclusao(lancamento);
+		indiceDescricaoService.registrarExclusao(lancamento);
+		publicarAlteracao(List.of(lancamento));
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
-		Example<Lancamento> example = Example.of(lancamentoFiltro, 
+		Optional<long[]> ids = buscarPelaDescricao(lancamentoFiltro);
+		if(ids.isPresent()) {
+			return repository.buscarPaginaEntreIds(criarExemplo(semDescricao(lancamentoFiltro)), ids.get(), null, Integer.MAX_VALUE);
+		}
+		return repository.findAll(criarExemplo(lancamentoFiltro));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Pagina<Lancamento> buscar(Lancamento lancamentoFiltro, Long cursor, Integer tamanho) {
+		int limite = tamanho == null || tamanho < 1 ? tamanhoPadraoPagina : Math.min(tamanho, tamanhoMaximoPagina);
+		
+		Optional<long[]> ids = buscarPelaDescricao(lancamentoFiltro);
+		List<Lancamento> lancamentos = ids.isPresent()
+				? repository.buscarPaginaEntreIds(criarExemplo(semDescricao(lancamentoFiltro)), ids.get(), cursor, limite + 1)
+				: repository.buscarPagina(criarExemplo(lancamentoFiltro), cursor, limite + 1);
+		
+		Long proximoCursor = null;
+		if(lancamentos.size() > limite) {
+			lancamentos = new ArrayList<>(lancamentos.subList(0, limite));
+			proximoCursor = lancamentos.get(limite - 1).getId();
+		}
+		return new Pagina<>(lancamentos, proximoCursor);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public void exportar(Long idUsuario, Consumer<LancamentoResumido> consumidor) {
+		try(Stream<LancamentoResumido> lancamentos = repository.streamPorUsuario(idUsuario)) {
+			lancamentos.forEach(consumidor);
+		}
+	}
+	
+	/**
+	 * Resolve a descrição do filtro pelo índice em memória do usuário, quando há
+	 * descrição e usuário; o restante do filtro continua indo para o banco.
+	 */
+	private Optional<long[]> buscarPelaDescricao(Lancamento lancamentoFiltro) {
+		if(lancamentoFiltro.getDescricao() == null || lancamentoFiltro.getUsuario() == null) {
+			return Optional.empty();
+		}
+		return indiceDescricaoService.buscar(lancamentoFiltro.getUsuario().getId(), lancamentoFiltro.getDescricao());
+	}
+	
+	private Lancamento semDescricao(Lancamento lancamentoFiltro) {
+		return Lancamento.builder()
+				.id(lancamentoFiltro.getId())
+				.mes(lancamentoFiltro.getMes())
+				.ano(lancamentoFiltro.getAno())
+				.usuario(lancamentoFiltro.getUsuario())
+				.valor(lancamentoFiltro.getValor())
+				.dataCadastro(lancamentoFiltro.getDataCadastro())
+				.tipo(lancamentoFiltro.getTipo())
+				.status(lancamentoFiltro.getStatus())
+				.versao(lancamentoFiltro.getVersao())
+				.build();
+	}
+	
+	private Example<Lancamento> criarExemplo(Lancamento lancamentoFiltro) {
+		return Example.of(lancamentoFiltro, 
 				ExampleMatcher.matching()
 				.withIgnoreCase()
 				.withStringMatcher(StringMatcher.CONTAINING));
-		return repository.findAll(example);
 	}
 
+	/**
+	 * Troca o status num único UPDATE condicionado à versão do lançamento e, se
+	 * informados nele, ao usuário e ao status atual, sem consultar nem regravar a
+	 * linha. Se a condição não conferir, seja por outra escrita ou por um id
+	 * inexistente, lança {@link ConflitoConcorrenciaException}. Em caso de sucesso,
+	 * o lançamento recebe o novo status e a nova versão.
+	 */
 	@Override
+	@Transactional
 	public void atualizarStatus(Lancamento lancamento, StatusLancamento status) {
+		Objects.requireNonNull(lancamento.getId());
+		if(status == null) {
+			throw new RegraNegocioException("Informe um status válido.");
+		}
+		if(lancamento.getVersao() == null) {
+			throw new RegraNegocioException("Informe a versão do lançamento.");
+		}
+		Long idUsuario = lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+		int atualizados = repository.atualizarStatusNaVersao(lancamento.getId(), idUsuario,
+				lancamento.getVersao(), lancamento.getStatus(), status);
+		if(atualizados == 0) {
+			throw alteradoPorOutraRequisicao();
+		}
 		lancamento.setStatus(status);
-		atualizar(lancamento);
+		lancamento.setVersao(lancamento.getVersao() + 1);
+		analiseService.registrarAlteracaoDeStatus(idUsuario, lancamento.getId(), status);
+		publicarAlteracao(List.of(lancamento));
+	}
+
+	/**
+	 * Atualiza o status dos lançamentos informados do usuário em um único UPDATE a
+	 * cada {@code minhasfinancas.lancamentos.status.ids-por-comando} ids, o limite
+	 * de parâmetros por comando. Lançamentos de outros usuários ou cujo status
+	 * atual não permite a transição são ignorados.
+	 */
+	@Override
+	@Transactional
+	public int atualizarStatus(Long idUsuario, List<Long> ids, StatusLancamento status) {
+		if(idUsuario == null) {
+			throw new RegraNegocioException("Informe um Usuário.");
+		}
+		Set<StatusLancamento> origens = obterOrigensPermitidas(null, status);
+		int atualizados = 0;
+		for(int inicio = 0; inicio < ids.size(); inicio += idsPorComando) {
+			List<Long> lote = ids.subList(inicio, Math.min(inicio + idsPorComando, ids.size()));
+			atualizados += repository.atualizarStatusPorIds(idUsuario, lote, origens, status);
+		}
+		if(atualizados > 0) {
+			analiseService.descartar(idUsuario);
+			eventPublisher.publishEvent(LancamentoAlteradoEvento.dosUsuarios(idUsuario));
+		}
+		return atualizados;
+	}
+
+	@Override
+	@Transactional
+	public int atualizarStatus(Long idUsuario, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento status) {
+		if(idUsuario == null) {
+			throw new RegraNegocioException("Informe um Usuário.");
+		}
+		Set<StatusLancamento> origens = obterOrigensPermitidas(statusAtual, status);
+		int atualizados = repository.atualizarStatusPorPeriodo(idUsuario, ano, mes, origens, status);
+		if(atualizados > 0) {
+			analiseService.descartar(idUsuario);
+			eventPublisher.publishEvent(LancamentoAlteradoEvento.dosUsuarios(idUsuario));
+		}
+		return atualizados;
+	}
+	
+	private Set<StatusLancamento> obterOrigensPermitidas(StatusLancamento statusAtual, StatusLancamento status) {
+		if(status == null) {
+			throw new RegraNegocioException("Informe um status válido.");
+		}
+		Set<StatusLancamento> origens = ORIGENS_PERMITIDAS.get(status);
+		if(statusAtual != null) {
+			origens = origens.contains(statusAtual) ? EnumSet.of(statusAtual) : EnumSet.noneOf(StatusLancamento.class);
+		}
+		if(origens.isEmpty()) {
+			throw new RegraNegocioException("Transição de status não permitida.");
+		}
+		return origens;
 	}
 
 	@Override
@@ -99,18 +413,44 @@ public class LancamentoServiceImpl implements LancamentoService{
 	@Override
 	@Transactional(readOnly = true)
 	public BigDecimal obterSaldoPorUsuario(Long id) {
-		BigDecimal receitas =  repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.RECEITA);
-		BigDecimal despesas =  repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.DESPESA);
-		
-		if(receitas == null) {
-			receitas = BigDecimal.ZERO;
-		}
-		
-		if(despesas == null) {
-			despesas = BigDecimal.ZERO;
+		return saldoService.obterSaldo(id);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<ResumoMensal> obterResumoMensal(Long idUsuario, Integer ano, boolean porStatus) {
+		Map<ChavePeriodo, ResumoMensal> resumos = new LinkedHashMap<>();
+		for(TotalPorPeriodo total : repository.obterTotaisPorPeriodo(idUsuario, ano)) {
+			StatusLancamento status = porStatus ? total.getStatus() : null;
+			ResumoMensal resumo = resumos.computeIfAbsent(
+					new ChavePeriodo(total.getAno(), total.getMes(), status),
+					chave -> ResumoMensal.builder()
+						.ano(chave.ano())
+						.mes(chave.mes())
+						.status(chave.status())
+						.receitas(BigDecimal.ZERO)
+						.despesas(BigDecimal.ZERO)
+						.build());
+			
+			if(total.getTipo() == TipoLancamento.RECEITA) {
+				resumo.setReceitas(resumo.getReceitas().add(total.getTotal()));
+			} else if(total.getTipo() == TipoLancamento.DESPESA) {
+				resumo.setDespesas(resumo.getDespesas().add(total.getTotal()));
+			}
 		}
-		
-		return receitas.subtract(despesas);
+		return new ArrayList<>(resumos.values());
+	}
+	
+	private record ChavePeriodo(Integer ano, Integer mes, StatusLancamento status) {
+	}
+	
+	private Lancamento copiarValores(Lancamento lancamento) {
+		return Lancamento.builder()
+				.id(lancamento.getId())
+				.usuario(lancamento.getUsuario())
+				.tipo(lancamento.getTipo())
+				.valor(lancamento.getValor())
+				.build();
 	}
 
 }
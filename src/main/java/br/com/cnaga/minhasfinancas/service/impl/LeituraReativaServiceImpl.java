@@ -0,0 +1,50 @@
+package br.com.cnaga.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.repository.LeituraReativaRepository;
+import br.com.cnaga.minhasfinancas.service.LeituraReativaService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class LeituraReativaServiceImpl implements LeituraReativaService {
+
+	@Autowired
+	private LeituraReativaRepository repository;
+	
+	@Value("${minhasfinancas.lancamentos.pagina.tamanho-padrao:100}")
+	private int tamanhoPadraoPagina;
+	@Value("${minhasfinancas.lancamentos.pagina.tamanho-maximo:500}")
+	private int tamanhoMaximoPagina;
+	
+	/**
+	 * Uma página, como na busca bloqueante: sem tamanho informado, a padrão. Serve
+	 * às respostas em JSON, que juntam todos os lançamentos antes de escrever.
+	 */
+	@Override
+	public Flux<Lancamento> buscar(Lancamento lancamentoFiltro, Long cursor, Integer tamanho) {
+		int limite = tamanho == null || tamanho < 1 ? tamanhoPadraoPagina : Math.min(tamanho, tamanhoMaximoPagina);
+		return repository.buscar(lancamentoFiltro, cursor, limite);
+	}
+	
+	/**
+	 * Sem tamanho informado, emite todos os lançamentos do filtro: o consumo é
+	 * regulado pela demanda do cliente, não por páginas.
+	 */
+	@Override
+	public Flux<Lancamento> transmitir(Lancamento lancamentoFiltro, Long cursor, Integer tamanho) {
+		Integer limite = tamanho == null || tamanho < 1 ? null : Math.min(tamanho, tamanhoMaximoPagina);
+		return repository.buscar(lancamentoFiltro, cursor, limite);
+	}
+
+	@Override
+	public Mono<BigDecimal> obterSaldo(Long idUsuario) {
+		return repository.obterSaldo(idUsuario);
+	}
+}
@@ -0,0 +1,299 @@
+package br.com.cnaga.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.annotation.Timed;
+
+import br.com.cnaga.minhasfinancas.exception.LimiteExcedidoException;
+import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.StatusRelatorio;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido;
+import br.com.cnaga.minhasfinancas.model.projection.TotalPorTipo;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.cnaga.minhasfinancas.service.RelatorioAnual;
+import br.com.cnaga.minhasfinancas.service.RelatorioAnual.SaldoMensal;
+import br.com.cnaga.minhasfinancas.service.RelatorioService;
+import br.com.cnaga.minhasfinancas.service.ResumoMensal;
+import br.com.cnaga.minhasfinancas.service.SituacaoRelatorio;
+
+/**
+ * Gera os relatórios anuais em segundo plano, num pool de threads próprio e com
+ * fila limitada, lendo os lançamentos em lotes por cursor para não manter uma
+ * conexão aberta durante toda a geração. Os relatórios ficam em memória pelo
+ * período de validade; uma nova solicitação para o mesmo usuário e ano nesse
+ * período reaproveita a tarefa existente, em andamento ou concluída.
+ * <p>
+ * A memória estimada das tarefas guardadas é limitada: acima do limite, as menos
+ * usadas são descartadas antes de vencer. Um relatório que sozinho passa do
+ * limite não é guardado: a geração é interrompida no lote em que a estimativa o
+ * ultrapassa, e a tarefa termina como falha.
+ */
+@Service
+@Timed("minhasfinancas.servico")
+public class RelatorioServiceImpl implements RelatorioService, DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(RelatorioServiceImpl.class);
+
+	private static final int BYTES_TAREFA = 512;
+	private static final int BYTES_POR_LANCAMENTO = 200;
+
+	private final LancamentoRepository repository;
+	private final ThreadPoolExecutor executor;
+	private final Cache<String, Tarefa> tarefas;
+	private final Cache<Chave, Tarefa> tarefasPorChave;
+	private final int maximoPorUsuario;
+	private final int tamanhoLote;
+	private final long memoriaMaxima;
+
+	public RelatorioServiceImpl(LancamentoRepository repository,
+			@Value("${minhasfinancas.relatorio.threads:2}") int threads,
+			@Value("${minhasfinancas.relatorio.fila:100}") int fila,
+			@Value("${minhasfinancas.relatorio.maximo-por-usuario:2}") int maximoPorUsuario,
+			@Value("${minhasfinancas.relatorio.tamanho-lote:1000}") int tamanhoLote,
+			@Value("${minhasfinancas.relatorio.validade:30m}") Duration validade,
+			@Value("${minhasfinancas.relatorio.memoria-maxima:64MB}") DataSize memoriaMaxima) {
+		this.repository = repository;
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(fila), new CustomizableThreadFactory("relatorio-"));
+		this.tarefasPorChave = Caffeine.newBuilder().expireAfterWrite(validade).build();
+		// Só as tarefas por id são pesadas; as descartadas saem também do índice por chave.
+		this.tarefas = Caffeine.newBuilder()
+				.expireAfterWrite(validade)
+				.maximumWeight(memoriaMaxima.toBytes())
+				.<String, Tarefa>weigher((id, tarefa) -> (int) Math.min(Integer.MAX_VALUE, bytes(tarefa)))
+				.evictionListener((id, tarefa, causa) -> tarefasPorChave.asMap().remove(tarefa.chave, tarefa))
+				.build();
+		this.maximoPorUsuario = maximoPorUsuario;
+		this.tamanhoLote = tamanhoLote;
+		this.memoriaMaxima = memoriaMaxima.toBytes();
+	}
+
+	@Override
+	public synchronized SituacaoRelatorio solicitar(Long idUsuario, Integer ano) {
+		if(idUsuario == null || ano == null) {
+			throw new RegraNegocioException("Informe o usuário e o ano do relatório.");
+		}
+
+		Chave chave = new Chave(idUsuario, ano);
+		Tarefa existente = tarefasPorChave.getIfPresent(chave);
+		if(existente != null && existente.status != StatusRelatorio.FALHOU) {
+			return existente.situacao();
+		}
+
+		long emAndamento = tarefasPorChave.asMap().values().stream()
+				.filter(tarefa -> tarefa.chave.idUsuario().equals(idUsuario))
+				.filter(tarefa -> tarefa.status == StatusRelatorio.EM_ANDAMENTO)
+				.count();
+		if(emAndamento >= maximoPorUsuario) {
+			throw new LimiteExcedidoException("Limite de relatórios em andamento para o usuário atingido.");
+		}
+
+		Tarefa tarefa = new Tarefa(UUID.randomUUID().toString(), chave, Instant.now());
+		try {
+			executor.execute(() -> executar(tarefa));
+		} catch (RejectedExecutionException e) {
+			throw new LimiteExcedidoException("Fila de relatórios cheia. Tente novamente mais tarde.");
+		}
+		registrar(tarefa);
+		return tarefa.situacao();
+	}
+
+	@Override
+	public Optional<SituacaoRelatorio> obterSituacao(String id) {
+		return Optional.ofNullable(tarefas.getIfPresent(id)).map(Tarefa::situacao);
+	}
+
+	@Override
+	public Optional<RelatorioAnual> obterRelatorio(String id) {
+		return Optional.ofNullable(tarefas.getIfPresent(id)).map(tarefa -> tarefa.relatorio);
+	}
+
+	@Override
+	public RelatorioAnual gerar(Long idUsuario, Integer ano) {
+		return gerar(idUsuario, ano, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Gera o relatório lançando {@link LimiteExcedidoException} assim que a memória
+	 * estimada dos lançamentos lidos passa de {@code bytesMaximos}.
+	 */
+	private RelatorioAnual gerar(Long idUsuario, Integer ano, long bytesMaximos) {
+		BigDecimal saldoInicial = BigDecimal.ZERO;
+		for(TotalPorTipo total : repository.obterTotaisPorTipoAntesDoAno(idUsuario, ano)) {
+			saldoInicial = saldoInicial.add(valorComSinal(total.getTipo(), total.getTotal()));
+		}
+
+		List<LancamentoResumido> lancamentos = new ArrayList<>();
+		Map<ChaveTotal, ResumoMensal> totais = new LinkedHashMap<>();
+		BigDecimal[] movimentoPorMes = new BigDecimal[13];
+		Arrays.fill(movimentoPorMes, BigDecimal.ZERO);
+
+		long bytes = 0;
+		Long cursor = 0L;
+		List<LancamentoResumido> lote;
+		do {
+			lote = repository.buscarResumidosPorAno(idUsuario, ano, cursor, Limit.of(tamanhoLote));
+			for(LancamentoResumido lancamento : lote) {
+				bytes += bytes(lancamento);
+				if(bytes > bytesMaximos) {
+					throw new LimiteExcedidoException("O relatório excede a memória reservada aos relatórios.");
+				}
+				lancamentos.add(lancamento);
+				acumularTotal(totais, lancamento);
+				movimentoPorMes[lancamento.getMes()] = movimentoPorMes[lancamento.getMes()]
+						.add(valorComSinal(lancamento.getTipo(), lancamento.getValor()));
+			}
+			if(!lote.isEmpty()) {
+				cursor = lote.get(lote.size() - 1).getId();
+			}
+		} while(lote.size() == tamanhoLote);
+
+		List<SaldoMensal> saldos = new ArrayList<>(12);
+		BigDecimal saldo = saldoInicial;
+		for(int mes = 1; mes <= 12; mes++) {
+			saldo = saldo.add(movimentoPorMes[mes]);
+			saldos.add(new SaldoMensal(mes, saldo));
+		}
+
+		List<ResumoMensal> totaisOrdenados = new ArrayList<>(totais.values());
+		totaisOrdenados.sort(Comparator.comparing(ResumoMensal::getMes).thenComparing(ResumoMensal::getStatus));
+
+		return RelatorioAnual.builder()
+				.idUsuario(idUsuario)
+				.ano(ano)
+				.saldoInicial(saldoInicial)
+				.lancamentos(lancamentos)
+				.totais(totaisOrdenados)
+				.saldos(saldos)
+				.build();
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private void executar(Tarefa tarefa) {
+		try {
+			RelatorioAnual relatorio = gerar(tarefa.chave.idUsuario(), tarefa.chave.ano(), memoriaMaxima - BYTES_TAREFA);
+			tarefa.relatorio = relatorio;
+			tarefa.concluidoEm = Instant.now();
+			tarefa.status = StatusRelatorio.CONCLUIDO;
+		} catch (RuntimeException e) {
+			log.warn("Falha ao gerar o relatório {} do usuário {}.", tarefa.chave.ano(), tarefa.chave.idUsuario(), e);
+			tarefa.erro = e.getMessage();
+			tarefa.concluidoEm = Instant.now();
+			tarefa.status = StatusRelatorio.FALHOU;
+		} finally {
+			registrar(tarefa);
+		}
+	}
+
+	/**
+	 * Regravar a tarefa ao concluir faz a validade contar a partir da conclusão.
+	 */
+	private void registrar(Tarefa tarefa) {
+		tarefas.put(tarefa.id, tarefa);
+		tarefasPorChave.put(tarefa.chave, tarefa);
+	}
+
+	private static long bytes(Tarefa tarefa) {
+		return BYTES_TAREFA + (tarefa.relatorio == null ? 0 : bytes(tarefa.relatorio));
+	}
+
+	private static long bytes(RelatorioAnual relatorio) {
+		long bytes = 0;
+		for(LancamentoResumido lancamento : relatorio.getLancamentos()) {
+			bytes += bytes(lancamento);
+		}
+		return bytes;
+	}
+
+	private static long bytes(LancamentoResumido lancamento) {
+		return BYTES_POR_LANCAMENTO + (lancamento.getDescricao() == null ? 0 : 2L * lancamento.getDescricao().length());
+	}
+
+	private void acumularTotal(Map<ChaveTotal, ResumoMensal> totais, LancamentoResumido lancamento) {
+		ResumoMensal total = totais.computeIfAbsent(
+				new ChaveTotal(lancamento.getMes(), lancamento.getStatus()),
+				chave -> ResumoMensal.builder()
+					.ano(lancamento.getAno())
+					.mes(chave.mes())
+					.status(chave.status())
+					.receitas(BigDecimal.ZERO)
+					.despesas(BigDecimal.ZERO)
+					.build());
+		if(lancamento.getTipo() == TipoLancamento.RECEITA) {
+			total.setReceitas(total.getReceitas().add(lancamento.getValor()));
+		} else if(lancamento.getTipo() == TipoLancamento.DESPESA) {
+			total.setDespesas(total.getDespesas().add(lancamento.getValor()));
+		}
+	}
+
+	private BigDecimal valorComSinal(TipoLancamento tipo, BigDecimal valor) {
+		return tipo == TipoLancamento.DESPESA ? valor.negate() : valor;
+	}
+
+	private record Chave(Long idUsuario, Integer ano) {
+	}
+
+	private record ChaveTotal(Integer mes, StatusLancamento status) {
+	}
+
+	private static final class Tarefa {
+
+		private final String id;
+		private final Chave chave;
+		private final Instant solicitadoEm;
+		private volatile StatusRelatorio status = StatusRelatorio.EM_ANDAMENTO;
+		private volatile Instant concluidoEm;
+		private volatile String erro;
+		private volatile RelatorioAnual relatorio;
+
+		private Tarefa(String id, Chave chave, Instant solicitadoEm) {
+			this.id = id;
+			this.chave = chave;
+			this.solicitadoEm = solicitadoEm;
+		}
+
+		private SituacaoRelatorio situacao() {
+			return SituacaoRelatorio.builder()
+					.id(id)
+					.idUsuario(chave.idUsuario())
+					.ano(chave.ano())
+					.status(status)
+					.solicitadoEm(solicitadoEm)
+					.concluidoEm(concluidoEm)
+					.erro(erro)
+					.build();
+		}
+	}
+}
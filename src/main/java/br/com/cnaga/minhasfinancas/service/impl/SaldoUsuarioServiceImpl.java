@@ -0,0 +1,228 @@
+package br.com.cnaga.minhasfinancas.service.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.annotation.Timed;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.SaldoUsuario;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.model.projection.TotalPorTipo;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.cnaga.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import br.com.cnaga.minhasfinancas.service.DivergenciaSaldo;
+import br.com.cnaga.minhasfinancas.service.LancamentoAlteradoEvento;
+import br.com.cnaga.minhasfinancas.service.SaldoUsuarioService;
+
+@Service
+@Timed("minhasfinancas.servico")
+public class SaldoUsuarioServiceImpl implements SaldoUsuarioService {
+
+	@Autowired
+	private SaldoUsuarioRepository repository;
+	@Autowired
+	private LancamentoRepository lancamentoRepository;
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	
+	/**
+	 * Cria o registro zerado junto com o usuário, para que a primeira escrita de
+	 * lançamentos já encontre a linha a atualizar.
+	 */
+	@Override
+	@Transactional
+	public void registrarUsuario(Long idUsuario) {
+		repository.inserir(idUsuario, BigDecimal.ZERO, BigDecimal.ZERO);
+	}
+
+	@Override
+	@Transactional
+	public void registrarInclusao(Lancamento lancamento) {
+		acumular(lancamento, BigDecimal.ONE);
+	}
+
+	@Override
+	@Transactional
+	public void registrarInclusoes(List<Lancamento> lancamentos) {
+		Map<Long, SaldoUsuario> deltas = new HashMap<>();
+		for(Lancamento lancamento : lancamentos) {
+			SaldoUsuario delta = deltas.computeIfAbsent(lancamento.getUsuario().getId(), this::saldoZerado);
+			delta.setReceitas(delta.getReceitas().add(valorPorTipo(lancamento, TipoLancamento.RECEITA)));
+			delta.setDespesas(delta.getDespesas().add(valorPorTipo(lancamento, TipoLancamento.DESPESA)));
+		}
+		for(SaldoUsuario delta : deltas.values()) {
+			acumular(delta.getIdUsuario(), delta.getReceitas(), delta.getDespesas());
+		}
+	}
+
+	@Override
+	@Transactional
+	public void registrarExclusao(Lancamento lancamento) {
+		acumular(lancamento, BigDecimal.ONE.negate());
+	}
+
+	@Override
+	@Transactional
+	public void registrarAlteracao(Lancamento anterior, Lancamento atual) {
+		Long idUsuarioAnterior = anterior.getUsuario().getId();
+		Long idUsuarioAtual = atual.getUsuario().getId();
+		
+		if(!idUsuarioAnterior.equals(idUsuarioAtual)) {
+			registrarExclusao(anterior);
+			registrarInclusao(atual);
+			return;
+		}
+		
+		BigDecimal receitas = valorPorTipo(atual, TipoLancamento.RECEITA).subtract(valorPorTipo(anterior, TipoLancamento.RECEITA));
+		BigDecimal despesas = valorPorTipo(atual, TipoLancamento.DESPESA).subtract(valorPorTipo(anterior, TipoLancamento.DESPESA));
+		
+		if(receitas.signum() != 0 || despesas.signum() != 0) {
+			acumular(idUsuarioAtual, receitas, despesas);
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public BigDecimal obterSaldo(Long idUsuario) {
+		return repository.findById(idUsuario)
+				.orElseGet(() -> calcular(idUsuario))
+				.getSaldo();
+	}
+
+	/**
+	 * Não é {@code readOnly}, para ler do primário e não de uma réplica atrasada,
+	 * e usa REPEATABLE_READ para que os totais e os saldos registrados venham do
+	 * mesmo instante.
+	 */
+	@Override
+	@Transactional(isolation = Isolation.REPEATABLE_READ)
+	public List<DivergenciaSaldo> verificar() {
+		Map<Long, SaldoUsuario> calculados = new HashMap<>();
+		for(TotalPorTipo total : lancamentoRepository.obterTotaisPorUsuarioETipo()) {
+			SaldoUsuario saldo = calculados.computeIfAbsent(total.getIdUsuario(), this::saldoZerado);
+			somar(saldo, total);
+		}
+		
+		List<DivergenciaSaldo> divergencias = new ArrayList<>();
+		for(SaldoUsuario registrado : repository.findAll()) {
+			SaldoUsuario calculado = calculados.remove(registrado.getIdUsuario());
+			if(calculado == null) {
+				calculado = saldoZerado(registrado.getIdUsuario());
+			}
+			if(diverge(registrado, calculado)) {
+				divergencias.add(divergencia(registrado, calculado));
+			}
+		}
+		
+		for(SaldoUsuario naoRegistrado : calculados.values()) {
+			divergencias.add(divergencia(saldoZerado(naoRegistrado.getIdUsuario()), naoRegistrado));
+		}
+		
+		return divergencias;
+	}
+
+	@Override
+	@Transactional
+	public void reconstruir(Long idUsuario) {
+		Objects.requireNonNull(idUsuario);
+		Optional<SaldoUsuario> registrado = repository.bloquearPorUsuario(idUsuario);
+		if(registrado.isEmpty()) {
+			criarRegistro(idUsuario, BigDecimal.ZERO, BigDecimal.ZERO);
+			registrado = repository.bloquearPorUsuario(idUsuario);
+		}
+		SaldoUsuario saldo = registrado.orElseGet(() -> saldoZerado(idUsuario));
+		SaldoUsuario calculado = calcular(idUsuario);
+		saldo.setReceitas(calculado.getReceitas());
+		saldo.setDespesas(calculado.getDespesas());
+		repository.save(saldo);
+		eventPublisher.publishEvent(LancamentoAlteradoEvento.dosUsuarios(idUsuario));
+	}
+	
+	private void acumular(Lancamento lancamento, BigDecimal sinal) {
+		acumular(lancamento.getUsuario().getId(), 
+				valorPorTipo(lancamento, TipoLancamento.RECEITA).multiply(sinal),
+				valorPorTipo(lancamento, TipoLancamento.DESPESA).multiply(sinal));
+	}
+	
+	private void acumular(Long idUsuario, BigDecimal receitas, BigDecimal despesas) {
+		if(repository.acumular(idUsuario, receitas, despesas) > 0) {
+			return;
+		}
+		// Usuário cadastrado antes de o registro ser criado com ele.
+		criarRegistro(idUsuario, receitas, despesas);
+		repository.acumular(idUsuario, receitas, despesas);
+	}
+	
+	/**
+	 * Cria o registro na própria transação da escrita, sem ocupar outra conexão do
+	 * pool. Os totais lidos aqui já incluem o lançamento da escrita, pois o update
+	 * acima força o flush da sessão; o delta é descontado e somado em seguida pelo
+	 * update. Se uma escrita concorrente criar o registro antes, o insert espera o
+	 * commit dela e não insere nada, e o delta é somado ao registro criado por ela.
+	 */
+	private void criarRegistro(Long idUsuario, BigDecimal receitas, BigDecimal despesas) {
+		SaldoUsuario saldo = calcular(idUsuario);
+		repository.inserirSeAusente(idUsuario,
+				saldo.getReceitas().subtract(receitas),
+				saldo.getDespesas().subtract(despesas));
+	}
+	
+	private SaldoUsuario calcular(Long idUsuario) {
+		SaldoUsuario saldo = saldoZerado(idUsuario);
+		for(TotalPorTipo total : lancamentoRepository.obterTotaisPorTipo(idUsuario)) {
+			somar(saldo, total);
+		}
+		return saldo;
+	}
+	
+	private void somar(SaldoUsuario saldo, TotalPorTipo total) {
+		if(total.getTotal() == null) {
+			return;
+		}
+		if(total.getTipo() == TipoLancamento.RECEITA) {
+			saldo.setReceitas(saldo.getReceitas().add(total.getTotal()));
+		} else if(total.getTipo() == TipoLancamento.DESPESA) {
+			saldo.setDespesas(saldo.getDespesas().add(total.getTotal()));
+		}
+	}
+	
+	private SaldoUsuario saldoZerado(Long idUsuario) {
+		return SaldoUsuario.builder()
+				.idUsuario(idUsuario)
+				.receitas(BigDecimal.ZERO)
+				.despesas(BigDecimal.ZERO)
+				.build();
+	}
+	
+	private boolean diverge(SaldoUsuario registrado, SaldoUsuario calculado) {
+		return registrado.getReceitas().compareTo(calculado.getReceitas()) != 0
+				|| registrado.getDespesas().compareTo(calculado.getDespesas()) != 0;
+	}
+	
+	private DivergenciaSaldo divergencia(SaldoUsuario registrado, SaldoUsuario calculado) {
+		return DivergenciaSaldo.builder()
+				.idUsuario(registrado.getIdUsuario())
+				.saldoRegistrado(registrado.getSaldo())
+				.saldoCalculado(calculado.getSaldo())
+				.build();
+	}
+	
+	private static BigDecimal valorPorTipo(Lancamento lancamento, TipoLancamento tipo) {
+		if(lancamento.getTipo() != tipo || lancamento.getValor() == null) {
+			return BigDecimal.ZERO;
+		}
+		return lancamento.getValor();
+	}
+}
@@ -0,0 +1,95 @@
+package br.com.cnaga.minhasfinancas.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.service.TokenService;
+
+/**
+ * Tokens de sessão no formato {@code base64url(idUsuario:expiracao).base64url(HMAC-SHA256)},
+ * validados sem estado no servidor. Sem {@code minhasfinancas.token.segredo} configurado,
+ * a chave é gerada na inicialização e os tokens só valem para esta instância.
+ */
+@Service
+public class TokenServiceImpl implements TokenService {
+
+	private static final Logger log = LoggerFactory.getLogger(TokenServiceImpl.class);
+	private static final String ALGORITMO = "HmacSHA256";
+	
+	private final SecretKeySpec chave;
+	private final Duration duracao;
+	
+	public TokenServiceImpl(
+			@Value("${minhasfinancas.token.segredo:}") String segredo,
+			@Value("${minhasfinancas.token.duracao:30m}") Duration duracao) {
+		byte[] bytesChave;
+		if(segredo == null || segredo.isBlank()) {
+			log.warn("minhasfinancas.token.segredo não configurado; usando uma chave aleatória desta instância.");
+			bytesChave = new byte[32];
+			new SecureRandom().nextBytes(bytesChave);
+		} else {
+			bytesChave = segredo.getBytes(StandardCharsets.UTF_8);
+		}
+		this.chave = new SecretKeySpec(bytesChave, ALGORITMO);
+		this.duracao = duracao;
+	}
+
+	@Override
+	public TokenSessao gerar(Usuario usuario) {
+		Instant expiraEm = Instant.now().plus(duracao);
+		String conteudo = usuario.getId() + ":" + expiraEm.getEpochSecond();
+		Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+		String token = encoder.encodeToString(conteudo.getBytes(StandardCharsets.UTF_8)) 
+				+ "." + encoder.encodeToString(assinar(conteudo));
+		return new TokenSessao(token, expiraEm);
+	}
+
+	@Override
+	public Optional<Long> validar(String token) {
+		int separador = token.indexOf('.');
+		if(separador < 0) {
+			return Optional.empty();
+		}
+		try {
+			Base64.Decoder decoder = Base64.getUrlDecoder();
+			String conteudo = new String(decoder.decode(token.substring(0, separador)), StandardCharsets.UTF_8);
+			byte[] assinatura = decoder.decode(token.substring(separador + 1));
+			if(!MessageDigest.isEqual(assinar(conteudo), assinatura)) {
+				return Optional.empty();
+			}
+			
+			String[] partes = conteudo.split(":");
+			if(partes.length != 2 || Instant.now().getEpochSecond() >= Long.parseLong(partes[1])) {
+				return Optional.empty();
+			}
+			return Optional.of(Long.valueOf(partes[0]));
+		} catch (IllegalArgumentException e) {
+			return Optional.empty();
+		}
+	}
+	
+	private byte[] assinar(String conteudo) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITMO);
+			mac.init(chave);
+			return mac.doFinal(conteudo.getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -1,37 +1,78 @@
 package br.com.cnaga.minhasfinancas.service.impl;
 
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.annotation.Timed;
+
 import br.com.cnaga.minhasfinancas.exception.ErroAutenticacao;
 import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
 import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.projection.UsuarioResumido;
 import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.service.SaldoUsuarioService;
 import br.com.cnaga.minhasfinancas.service.UsuarioService;
 
 @Service
+@Timed("minhasfinancas.servico")
 public class UsuarioServiceImpl implements UsuarioService {
 
+	private static final Pattern HASH_BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./0-9A-Za-z]{53}$");
+	
 	@Autowired
 	private UsuarioRepository repository;
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+	@Autowired
+	private CredenciaisVerificadas credenciaisVerificadas;
+	@Autowired
+	private SaldoUsuarioService saldoUsuarioService;
 	
 	public UsuarioServiceImpl(UsuarioRepository repository) {
 		super();
 		this.repository = repository;
 	}
 
+	/**
+	 * Confere a senha pelo hash BCrypt armazenado. Senhas ainda gravadas em texto puro,
+	 * ou com custo menor que o configurado, são regravadas com o hash atual no login.
+	 */
 	@Override
 	public Usuario autenticar(String email, String senha) {
 		Optional<Usuario> usuario = repository.findByEmail(email);
 		if(!usuario.isPresent()) {
 			throw new ErroAutenticacao("Usuário não encontrado.");
 		}
-		if(!usuario.get().getSenha().equals(senha)) {
+		
+		String armazenada = usuario.get().getSenha();
+		if(senha == null || armazenada == null) {
 			throw new ErroAutenticacao("Senha inválida.");
 		}
+		if(credenciaisVerificadas.contem(email, armazenada, senha)) {
+			return usuario.get();
+		}
+		
+		boolean hash = HASH_BCRYPT.matcher(armazenada).matches();
+		boolean valida = hash ? passwordEncoder.matches(senha, armazenada) : armazenada.equals(senha);
+		if(!valida) {
+			throw new ErroAutenticacao("Senha inválida.");
+		}
+		
+		if(!hash || passwordEncoder.upgradeEncoding(armazenada)) {
+			armazenada = passwordEncoder.encode(senha);
+			repository.save(Usuario.builder()
+					.id(usuario.get().getId())
+					.nome(usuario.get().getNome())
+					.email(usuario.get().getEmail())
+					.senha(armazenada)
+					.build());
+		}
+		credenciaisVerificadas.registrar(email, armazenada, senha);
 		return usuario.get();
 	}
 
@@ -39,7 +80,12 @@ public class UsuarioServiceImpl implements UsuarioService {
 	@Transactional
 	public Usuario salvarUsuario(Usuario usuario) {
 		validarEmail(usuario.getEmail());
-		return repository.save(usuario);
+		if(usuario.getSenha() != null) {
+			usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
+		}
+		Usuario salvo = repository.save(usuario);
+		saldoUsuarioService.registrarUsuario(salvo.getId());
+		return salvo;
 	}
 
 	@Override
@@ -50,9 +96,22 @@ public class UsuarioServiceImpl implements UsuarioService {
 		}
 	}
 
+	/**
+	 * Vem do cache de usuários: cada chamada recebe uma cópia nova e desanexada,
+	 * sem a senha, e alterá-la não afeta as outras leituras.
+	 */
 	@Override
 	public Optional<Usuario> obterPorId(Long id) {
-		return repository.findById(id);
+		return repository.buscarResumidoPorId(id).map(UsuarioResumido::paraUsuario);
+	}
+
+	/**
+	 * Retorna uma referência ao usuário sem consultá-lo, para associá-lo a
+	 * outras entidades apenas pela chave estrangeira.
+	 */
+	@Override
+	public Usuario obterReferencia(Long id) {
+		return repository.getReferenceById(id);
 	}
 
 }
@@ -0,0 +1,60 @@
+package br.com.cnaga.minhasfinancas.service.impl;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.com.cnaga.minhasfinancas.service.LancamentoAlteradoEvento;
+import br.com.cnaga.minhasfinancas.service.VersaoDadosService;
+
+/**
+ * Versão em memória dos lançamentos e do saldo de cada usuário, incrementada
+ * depois do commit de cada escrita. Como a versão é lida antes da consulta e só
+ * muda depois do commit, um ETag nunca é mais novo que os dados que acompanha.
+ * <p>
+ * O ETag inclui o instante de início desta instância e uma geração global,
+ * incrementada pelas escritas sem usuário definido: reiniciar a aplicação ou uma
+ * escrita em lote invalida os ETags já emitidos.
+ * <p>
+ * Cada instância mantém suas versões, e uma escrita feita em outra instância não
+ * é percebida: um ETag antigo receberia 304 com dados já alterados. Por isso os
+ * ETags só são emitidos com {@code minhasfinancas.etag.habilitado=true}, que
+ * exige uma única instância ou sessões fixas por usuário no balanceador.
+ */
+@Service
+public class VersaoDadosServiceImpl implements VersaoDadosService {
+
+	@Value("${minhasfinancas.etag.habilitado:false}")
+	private boolean habilitado;
+	
+	private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong geracao = new AtomicLong();
+	private final ConcurrentMap<Long, Long> versoes = new ConcurrentHashMap<>();
+	
+	@Override
+	public Optional<String> obterEtag(Long idUsuario) {
+		if(!habilitado) {
+			return Optional.empty();
+		}
+		return Optional.of("\"" + instancia + "." + geracao.get() + "." + versoes.getOrDefault(idUsuario, 0L) + "\"");
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void registrar(LancamentoAlteradoEvento evento) {
+		if(!habilitado) {
+			return;
+		}
+		if(evento.idsUsuarios().isEmpty()) {
+			geracao.incrementAndGet();
+			return;
+		}
+		for(Long idUsuario : evento.idsUsuarios()) {
+			versoes.merge(idUsuario, 1L, Long::sum);
+		}
+	}
+}
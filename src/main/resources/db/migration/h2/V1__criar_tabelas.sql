@@ -0,0 +1,23 @@
+CREATE SCHEMA IF NOT EXISTS financas;
+
+CREATE TABLE financas.usuario
+(
+  id bigint generated by default as identity PRIMARY KEY,
+  nome varchar(150),
+  email varchar(100),
+  senha varchar(20),
+  data_cadastro date default current_date
+);
+
+CREATE TABLE financas.lancamento
+(
+  id bigint generated by default as identity PRIMARY KEY,
+  descricao varchar(100) NOT NULL,
+  mes integer NOT NULL,
+  ano integer NOT NULL,
+  valor numeric(16,2) NOT NULL,
+  tipo varchar(20) NOT NULL,
+  status varchar(20) NOT NULL,
+  id_usuario bigint NOT NULL REFERENCES financas.usuario (id),
+  data_cadastro date default current_date
+);
@@ -0,0 +1,6 @@
+CREATE TABLE financas.saldo_usuario
+(
+  id_usuario bigint NOT NULL PRIMARY KEY REFERENCES financas.usuario (id),
+  receitas numeric(16,2) NOT NULL default 0,
+  despesas numeric(16,2) NOT NULL default 0
+);
@@ -0,0 +1 @@
+CREATE SEQUENCE financas.lancamento_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,6 @@
+-- O H2 não suporta INCLUDE: valor entra como última coluna da chave
+CREATE INDEX idx_lancamento_usuario_tipo ON financas.lancamento (id_usuario, tipo, valor);
+
+CREATE INDEX idx_lancamento_usuario_ano_mes ON financas.lancamento (id_usuario, ano, mes);
+
+CREATE UNIQUE INDEX idx_usuario_email ON financas.usuario (email);
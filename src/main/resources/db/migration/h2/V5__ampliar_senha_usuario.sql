@@ -0,0 +1 @@
+ALTER TABLE financas.usuario ALTER COLUMN senha SET DATA TYPE varchar(100);
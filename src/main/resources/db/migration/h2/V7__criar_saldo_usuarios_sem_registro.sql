@@ -0,0 +1,8 @@
+INSERT INTO financas.saldo_usuario (id_usuario, receitas, despesas)
+SELECT u.id,
+       coalesce(sum(CASE WHEN l.tipo = 'RECEITA' THEN l.valor END), 0),
+       coalesce(sum(CASE WHEN l.tipo = 'DESPESA' THEN l.valor END), 0)
+  FROM financas.usuario u
+  LEFT JOIN financas.lancamento l ON l.id_usuario = u.id
+ WHERE NOT EXISTS (SELECT 1 FROM financas.saldo_usuario s WHERE s.id_usuario = u.id)
+ GROUP BY u.id;
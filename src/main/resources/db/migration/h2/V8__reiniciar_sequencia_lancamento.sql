@@ -0,0 +1,4 @@
+-- Com início em 1, o otimizador pooled do Hibernate gastava um nextval a mais em cada nova
+-- fábrica de sessões. Reinicia em 50, ou acima dos ids já gravados.
+ALTER SEQUENCE financas.lancamento_seq
+    RESTART WITH (SELECT greatest(50, coalesce(max(id), 0) + 50) FROM financas.lancamento);
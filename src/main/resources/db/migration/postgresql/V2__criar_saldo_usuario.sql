@@ -0,0 +1,13 @@
+CREATE TABLE financas.saldo_usuario
+(
+  id_usuario bigint NOT NULL PRIMARY KEY REFERENCES financas.usuario (id),
+  receitas numeric(16,2) NOT NULL default 0,
+  despesas numeric(16,2) NOT NULL default 0
+);
+
+INSERT INTO financas.saldo_usuario (id_usuario, receitas, despesas)
+SELECT id_usuario,
+       coalesce(sum(valor) FILTER (WHERE tipo = 'RECEITA'), 0),
+       coalesce(sum(valor) FILTER (WHERE tipo = 'DESPESA'), 0)
+  FROM financas.lancamento
+ GROUP BY id_usuario;
@@ -0,0 +1,4 @@
+-- Sequência com incremento igual ao allocationSize de Lancamento (otimizador pooled do Hibernate)
+CREATE SEQUENCE financas.lancamento_seq INCREMENT BY 50;
+
+SELECT setval('financas.lancamento_seq', coalesce((SELECT max(id) FROM financas.lancamento), 0) + 50);
@@ -0,0 +1,8 @@
+-- Saldo por usuário e tipo (obterTotaisPorTipo) resolvido apenas pelo índice
+CREATE INDEX idx_lancamento_usuario_tipo ON financas.lancamento (id_usuario, tipo) INCLUDE (valor);
+
+-- Listagem, resumo mensal e atualização de status por usuário, ano e mês
+CREATE INDEX idx_lancamento_usuario_ano_mes ON financas.lancamento (id_usuario, ano, mes);
+
+-- existsByEmail / findByEmail
+CREATE UNIQUE INDEX idx_usuario_email ON financas.usuario (email);
@@ -0,0 +1 @@
+ALTER TABLE financas.usuario ALTER COLUMN senha TYPE character varying(100);
@@ -0,0 +1 @@
+ALTER TABLE financas.lancamento ADD COLUMN versao bigint NOT NULL DEFAULT 0;
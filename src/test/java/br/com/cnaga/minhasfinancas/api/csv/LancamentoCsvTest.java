@@ -0,0 +1,54 @@
+package br.com.cnaga.minhasfinancas.api.csv;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cnaga.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido;
+
+public class LancamentoCsvTest {
+
+	@Test
+	public void deveLerUmRegistroExportadoComAspasEQuebraDeLinha() throws Exception {
+		LancamentoResumido lancamento = new LancamentoResumido(1L, "Aluguel, \"casa\"\nmarço", 3, 2023,
+				BigDecimal.valueOf(1500.5), TipoLancamento.DESPESA, StatusLancamento.PENDENTE, LocalDate.of(2023, 3, 1));
+		
+		String csv = LancamentoCsv.CABECALHO + "\n" + LancamentoCsv.formatar(lancamento) + "\n";
+		BufferedReader reader = new BufferedReader(new StringReader(csv));
+		
+		Map<String, Integer> colunas = LancamentoCsv.indexarCabecalho(LancamentoCsv.lerRegistro(reader));
+		List<String> campos = LancamentoCsv.lerRegistro(reader);
+		LancamentoDTO dto = LancamentoCsv.converter(colunas, campos);
+		
+		assertThat(dto.getDescricao()).isEqualTo("Aluguel, \"casa\"\nmarço");
+		assertThat(dto.getMes()).isEqualTo(3);
+		assertThat(dto.getAno()).isEqualTo(2023);
+		assertThat(dto.getValor()).isEqualByComparingTo("1500.5");
+		assertThat(dto.getTipo()).isEqualTo("DESPESA");
+		assertThat(dto.getStatus()).isEqualTo("PENDENTE");
+		assertThat(LancamentoCsv.lerRegistro(reader)).isNull();
+	}
+	
+	@Test
+	public void deveLancarErroAoConverterUmValorNumericoInvalido() throws Exception {
+		BufferedReader reader = new BufferedReader(new StringReader("descricao,mes,ano,valor,tipo\nLuz,dez,2023,10,DESPESA\n"));
+		Map<String, Integer> colunas = LancamentoCsv.indexarCabecalho(LancamentoCsv.lerRegistro(reader));
+		List<String> campos = LancamentoCsv.lerRegistro(reader);
+		
+		Throwable erro = catchThrowable(() -> LancamentoCsv.converter(colunas, campos));
+		
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Valor numérico inválido: dez");
+	}
+}
@@ -0,0 +1,264 @@
+package br.com.cnaga.minhasfinancas.api.resource;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.cnaga.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepositoryTest;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Conta os comandos SQL emitidos por requisição nos endpoints de lançamento,
+ * usando o banco H2 real e as estatísticas do Hibernate.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = { "spring.jpa.properties.hibernate.generate_statistics=true",
+		"minhasfinancas.descricao.indice.habilitado=true", "minhasfinancas.etag.habilitado=true" })
+@AutoConfigureMockMvc
+public class LancamentoResourceComandosSqlTest {
+
+	static final String API = "/api/lancamentos";
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+	@Autowired
+	MockMvc mvc;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	LancamentoService lancamentoService;
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	Usuario usuario;
+	Lancamento lancamento;
+	Statistics estatisticas;
+
+	@BeforeEach
+	public void criarCenario() {
+		usuario = UsuarioRepositoryTest.salvarUsuario(usuarioRepository);
+
+		Lancamento novoLancamento = LancamentoRepositoryTest.criarLancamento(usuario);
+		lancamento = lancamentoService.salvar(novoLancamento);
+
+		estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estatisticas.clear();
+	}
+
+	@Test
+	public void deveSalvarUmLancamentoComDoisComandos() throws Exception {
+		executar(MockMvcRequestBuilders.post(API).param("plano", "true").content(json(criarDTO())));
+
+		Assertions.assertEquals(2, estatisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	public void deveResponderAInclusaoComOUsuarioCompleto() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.post(API).content(json(criarDTO())).contentType(JSON).accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.usuario.id").value(usuario.getId()))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.usuario.email").value(usuario.getEmail()))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.tipo").value(TipoLancamento.RECEITA.name()));
+	}
+
+	@Test
+	public void deveResponderAInclusaoPlanaComOIdDoUsuario() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.post(API).param("plano", "true").content(json(criarDTO()))
+				.contentType(JSON).accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.usuario").value(usuario.getId()));
+	}
+
+	@Test
+	public void deveRepetirAInclusaoComAMesmaChaveSemComandos() throws Exception {
+		String chave = UUID.randomUUID().toString();
+		String location = mvc.perform(MockMvcRequestBuilders.post(API).content(json(criarDTO()))
+				.contentType(JSON).header("Idempotency-Key", chave))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andReturn().getResponse().getHeader("Location");
+		estatisticas.clear();
+
+		mvc.perform(MockMvcRequestBuilders.post(API).content(json(criarDTO()))
+				.contentType(JSON).header("Idempotency-Key", chave))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.header().string("Location", location));
+
+		Assertions.assertEquals(0, estatisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	public void naoDeveGuardarAInclusaoRecusadaComAChave() throws Exception {
+		String chave = UUID.randomUUID().toString();
+		LancamentoDTO invalido = criarDTO();
+		invalido.setDescricao(null);
+		mvc.perform(MockMvcRequestBuilders.post(API).content(json(invalido))
+				.contentType(JSON).header("Idempotency-Key", chave))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+		mvc.perform(MockMvcRequestBuilders.post(API).content(json(criarDTO()))
+				.contentType(JSON).header("Idempotency-Key", chave))
+			.andExpect(MockMvcResultMatchers.status().isCreated());
+	}
+
+	@Test
+	public void deveAtualizarUmLancamentoComTresComandos() throws Exception {
+		LancamentoDTO dto = criarDTO();
+		dto.setValor(BigDecimal.valueOf(20));
+
+		executar(MockMvcRequestBuilders.put(API + "/" + lancamento.getId()).param("plano", "true").content(json(dto)));
+
+		Assertions.assertEquals(3, estatisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	public void deveResponderAAtualizacaoComOUsuarioCompleto() throws Exception {
+		LancamentoDTO dto = criarDTO();
+		dto.setValor(BigDecimal.valueOf(20));
+
+		mvc.perform(MockMvcRequestBuilders.put(API + "/" + lancamento.getId()).content(json(dto))
+				.contentType(JSON).accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.usuario.id").value(usuario.getId()))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.usuario.email").value(usuario.getEmail()))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.valor").value(20));
+	}
+
+	@Test
+	public void deveAtualizarOStatusDeUmLancamentoComDoisComandos() throws Exception {
+		executar(MockMvcRequestBuilders.put(API + "/" + lancamento.getId() + "/atualiza-status")
+				.content("{\"status\":\"EFETIVADO\"}"));
+
+		Assertions.assertEquals(2, estatisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	public void deveAtualizarOStatusInformandoAVersaoComUmComando() throws Exception {
+		executar(MockMvcRequestBuilders.put(API + "/" + lancamento.getId() + "/atualiza-status")
+				.content("{\"status\":\"EFETIVADO\",\"versao\":" + lancamento.getVersao()
+						+ ",\"usuario\":" + usuario.getId() + "}"));
+
+		Assertions.assertEquals(1, estatisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	public void deveResponderATrocaDeStatusComOMesmoFormatoComOuSemAVersao() throws Exception {
+		long versao = lancamento.getVersao();
+
+		mvc.perform(MockMvcRequestBuilders.put(API + "/" + lancamento.getId() + "/atualiza-status")
+				.content("{\"status\":\"EFETIVADO\"}").contentType(JSON).accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.id").value(lancamento.getId()))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.usuario").value(usuario.getId()))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.status").value("EFETIVADO"))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.versao").value(versao + 1))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.descricao").doesNotExist());
+
+		mvc.perform(MockMvcRequestBuilders.put(API + "/" + lancamento.getId() + "/atualiza-status")
+				.content("{\"status\":\"PENDENTE\",\"versao\":" + (versao + 1) + ",\"usuario\":" + usuario.getId() + "}")
+				.contentType(JSON).accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.id").value(lancamento.getId()))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.usuario").value(usuario.getId()))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.status").value("PENDENTE"))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.versao").value(versao + 2))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.descricao").doesNotExist());
+	}
+
+	@Test
+	public void deveRecusarComConflitoOStatusDeUmaVersaoAntiga() throws Exception {
+		String corpo = "{\"status\":\"EFETIVADO\",\"versao\":" + lancamento.getVersao()
+				+ ",\"usuario\":" + usuario.getId() + "}";
+		executar(MockMvcRequestBuilders.put(API + "/" + lancamento.getId() + "/atualiza-status").content(corpo));
+
+		mvc.perform(MockMvcRequestBuilders.put(API + "/" + lancamento.getId() + "/atualiza-status")
+				.content(corpo).contentType(JSON))
+			.andExpect(MockMvcResultMatchers.status().isConflict());
+	}
+
+	@Test
+	public void deveDeletarUmLancamentoComTresComandos() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.delete(API + "/" + lancamento.getId()))
+			.andExpect(MockMvcResultMatchers.status().isNoContent());
+
+		Assertions.assertEquals(3, estatisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	public void deveBuscarLancamentosComUmComando() throws Exception {
+		executar(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()));
+
+		Assertions.assertEquals(1, estatisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	public void deveResponderNotModifiedSemComandos() throws Exception {
+		String etag = mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()))
+			.andReturn().getResponse().getHeader("ETag");
+		estatisticas.clear();
+		
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString())
+				.header("If-None-Match", etag))
+			.andExpect(MockMvcResultMatchers.status().isNotModified());
+		
+		Assertions.assertEquals(0, estatisticas.getPrepareStatementCount());
+	}
+
+	@Test
+	public void deveBuscarPelaDescricaoComUmComandoDepoisDeMontarOIndice() throws Exception {
+		executar(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).param("descricao", "LANC"));
+		Assertions.assertEquals(2, estatisticas.getPrepareStatementCount());
+		estatisticas.clear();
+
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).param("descricao", "LANC")
+				.accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(lancamento.getId()));
+
+		Assertions.assertEquals(1, estatisticas.getPrepareStatementCount());
+	}
+
+	private void executar(MockHttpServletRequestBuilder request) throws Exception {
+		mvc.perform(request.contentType(JSON).accept(JSON))
+			.andExpect(MockMvcResultMatchers.status().is2xxSuccessful());
+	}
+
+	private LancamentoDTO criarDTO() {
+		return LancamentoDTO.builder()
+				.descricao("Lancamento")
+				.mes(2)
+				.ano(2023)
+				.valor(BigDecimal.TEN)
+				.usuario(usuario.getId())
+				.tipo(TipoLancamento.RECEITA.name())
+				.build();
+	}
+
+	private String json(LancamentoDTO dto) throws Exception {
+		return new ObjectMapper().writeValueAsString(dto);
+	}
+}
@@ -0,0 +1,160 @@
+package br.com.cnaga.minhasfinancas.api.resource;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.cnaga.minhasfinancas.api.csv.LancamentoCsv;
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepositoryTest;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+
+/**
+ * Exportação dos lançamentos de um usuário, escrita de forma assíncrona em
+ * NDJSON ou CSV, e as respostas para filtros inválidos.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class LancamentoResourceExportacaoTest {
+
+	static final String API = "/api/lancamentos/exportar";
+
+	@Autowired
+	MockMvc mvc;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	LancamentoService lancamentoService;
+
+	Usuario usuario;
+	Lancamento primeiro;
+	Lancamento segundo;
+
+	@BeforeEach
+	public void criarCenario() {
+		usuario = UsuarioRepositoryTest.salvarUsuario(usuarioRepository);
+
+		primeiro = salvarLancamento("Salario");
+		segundo = salvarLancamento("Aluguel, \"centro\"");
+	}
+
+	@Test
+	public void deveExportarOsLancamentosDoUsuarioEmNdjson() throws Exception {
+		//execucao
+		ResultActions resultado = exportar(usuario.getId(), "ndjson");
+
+		//verificacao
+		resultado
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_DISPOSITION,
+					"attachment; filename=\"lancamentos-" + usuario.getId() + ".ndjson\""));
+
+		String[] linhas = corpo(resultado).split("\n");
+		Assertions.assertEquals(2, linhas.length);
+		JsonNode linha = new ObjectMapper().readTree(linhas[1]);
+		Assertions.assertEquals(segundo.getId().longValue(), linha.get("id").asLong());
+		Assertions.assertEquals(segundo.getDescricao(), linha.get("descricao").asText());
+		Assertions.assertEquals("RECEITA", linha.get("tipo").asText());
+		Assertions.assertFalse(linha.has("usuario"));
+		Assertions.assertEquals(primeiro.getId().longValue(), new ObjectMapper().readTree(linhas[0]).get("id").asLong());
+	}
+
+	@Test
+	public void deveExportarOsLancamentosDoUsuarioEmCsv() throws Exception {
+		//execucao
+		ResultActions resultado = exportar(usuario.getId(), "CSV");
+
+		//verificacao
+		resultado
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentType("text/csv;charset=UTF-8"))
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_DISPOSITION,
+					"attachment; filename=\"lancamentos-" + usuario.getId() + ".csv\""));
+
+		String[] linhas = corpo(resultado).split("\n");
+		Assertions.assertEquals(3, linhas.length);
+		Assertions.assertEquals(LancamentoCsv.CABECALHO, linhas[0]);
+		Assertions.assertEquals(primeiro.getId() + ",Salario,2,2023,10.50,RECEITA,PENDENTE," + primeiro.getDataCadastro(), linhas[1]);
+		Assertions.assertEquals(segundo.getId() + ",\"Aluguel, \"\"centro\"\"\",2,2023,10.50,RECEITA,PENDENTE," + segundo.getDataCadastro(), linhas[2]);
+	}
+
+	@Test
+	public void deveExportarSomenteOCabecalhoParaUsuarioSemLancamentos() throws Exception {
+		ResultActions resultado = exportar(UsuarioRepositoryTest.salvarUsuario(usuarioRepository).getId(), "csv")
+			.andExpect(MockMvcResultMatchers.status().isOk());
+
+		Assertions.assertEquals(LancamentoCsv.CABECALHO + "\n", corpo(resultado));
+	}
+
+	@Test
+	public void deveRecusarFormatoDeExportacaoInvalido() throws Exception {
+		//execucao
+		ResultActions resultado = exportar(usuario.getId(), "xml");
+
+		//verificacao
+		resultado
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().contentType("text/plain;charset=UTF-8"))
+			.andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION));
+		Assertions.assertEquals("Formato de exportação inválido.", corpo(resultado));
+	}
+
+	@Test
+	public void deveRecusarAExportacaoParaUsuarioInexistente() throws Exception {
+		//execucao
+		ResultActions resultado = exportar(-1L, "ndjson");
+
+		//verificacao
+		resultado
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().contentType("text/plain;charset=UTF-8"));
+		Assertions.assertEquals("Usuário não encontrado para o id informado.", corpo(resultado));
+	}
+
+	/**
+	 * O corpo é escrito fora da thread da requisição: confere que o
+	 * processamento assíncrono começou e despacha o resultado.
+	 */
+	private ResultActions exportar(Long idUsuario, String formato) throws Exception {
+		MvcResult iniciado = mvc.perform(MockMvcRequestBuilders.get(API)
+				.param("usuario", idUsuario.toString())
+				.param("formato", formato))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		return mvc.perform(MockMvcRequestBuilders.asyncDispatch(iniciado));
+	}
+
+	private String corpo(ResultActions resultado) throws Exception {
+		return resultado.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+	}
+
+	private Lancamento salvarLancamento(String descricao) {
+		Lancamento novoLancamento = LancamentoRepositoryTest.criarLancamento(usuario);
+		novoLancamento.setDescricao(descricao);
+		return lancamentoService.salvar(novoLancamento);
+	}
+}
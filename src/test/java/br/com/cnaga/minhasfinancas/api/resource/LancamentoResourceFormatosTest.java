@@ -0,0 +1,111 @@
+package br.com.cnaga.minhasfinancas.api.resource;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepositoryTest;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+
+/**
+ * Formatos negociados e forma plana da busca de lançamentos.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class LancamentoResourceFormatosTest {
+
+	static final String API = "/api/lancamentos";
+	static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+
+	@Autowired
+	MockMvc mvc;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	LancamentoService lancamentoService;
+
+	Usuario usuario;
+	Lancamento lancamento;
+
+	@BeforeEach
+	public void criarCenario() {
+		usuario = UsuarioRepositoryTest.salvarUsuario(usuarioRepository);
+
+		Lancamento novoLancamento = LancamentoRepositoryTest.criarLancamento(usuario);
+		lancamento = lancamentoService.salvar(novoLancamento);
+	}
+
+	@Test
+	public void deveResponderEmCborQuandoSolicitado() throws Exception {
+		byte[] corpo = mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).accept(CBOR))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentType(CBOR))
+			.andExpect(MockMvcResultMatchers.header().string("Vary", "Accept"))
+			.andReturn().getResponse().getContentAsByteArray();
+
+		JsonNode lancamento = new CBORMapper().readTree(corpo).get(0);
+		Assertions.assertEquals(usuario.getEmail(), lancamento.get("usuario").get("email").asText());
+		Assertions.assertEquals("RECEITA", lancamento.get("tipo").asText());
+	}
+
+	@Test
+	public void deveResponderComOUsuarioPeloIdNaFormaPlana() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).param("plano", "true")
+				.accept(MediaType.APPLICATION_JSON))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].usuario").value(usuario.getId()))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].tipo").value("RECEITA"))
+			.andExpect(MockMvcResultMatchers.header().doesNotExist("ETag"));
+	}
+
+	@Test
+	public void deveInformarAProximaPaginaNoCabecalhoLink() throws Exception {
+		Lancamento segundo = LancamentoRepositoryTest.criarLancamento(usuario);
+		segundo = lancamentoService.salvar(segundo);
+
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).param("tamanho", "1")
+				.accept(MediaType.APPLICATION_JSON))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(lancamento.getId()))
+			.andExpect(MockMvcResultMatchers.header().string("Link", containsString("cursor=" + lancamento.getId())))
+			.andExpect(MockMvcResultMatchers.header().string("Link", endsWith("; rel=\"next\"")));
+
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).param("tamanho", "1")
+				.param("cursor", lancamento.getId().toString()).accept(MediaType.APPLICATION_JSON))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(segundo.getId()))
+			.andExpect(MockMvcResultMatchers.header().doesNotExist("Link"));
+	}
+
+	@Test
+	public void deveResponderComAPaginaQuandoPaginado() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).param("paginado", "true")
+				.accept(MediaType.APPLICATION_JSON))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.conteudo[0].id").value(lancamento.getId()))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.proximoCursor").doesNotExist())
+			.andExpect(MockMvcResultMatchers.header().doesNotExist("Link"));
+	}
+}
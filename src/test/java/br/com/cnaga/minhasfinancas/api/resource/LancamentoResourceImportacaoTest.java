@@ -0,0 +1,179 @@
+package br.com.cnaga.minhasfinancas.api.resource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepositoryTest;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+
+/**
+ * Importação em JSON e em CSV: erros por registro, numeração dos registros e
+ * o limite de registros por importação.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "minhasfinancas.importacao.maximo-registros=3")
+@AutoConfigureMockMvc
+public class LancamentoResourceImportacaoTest {
+
+	static final String API = "/api/lancamentos/importar";
+	static final MediaType CSV = MediaType.parseMediaType("text/csv");
+	static final String CABECALHO = "tipo,descricao,mes,ano,valor\n";
+
+	@Autowired
+	MockMvc mvc;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	LancamentoService lancamentoService;
+
+	Usuario usuario;
+
+	@BeforeEach
+	public void criarCenario() {
+		usuario = UsuarioRepositoryTest.salvarUsuario(usuarioRepository);
+	}
+
+	@Test
+	public void deveImportarOsRegistrosValidosEInformarOsErrosPorRegistroEmJson() throws Exception {
+		//cenario
+		String corpo = "["
+				+ "{\"descricao\":\"Salario\",\"mes\":1,\"ano\":2023,\"valor\":10,\"tipo\":\"RECEITA\"},"
+				+ "{\"mes\":1,\"ano\":2023,\"valor\":10,\"tipo\":\"RECEITA\"},"
+				+ "{\"descricao\":\"Aluguel\",\"mes\":1,\"ano\":2023,\"valor\":10,\"tipo\":\"OUTRO\"}"
+				+ "]";
+
+		//execucao
+		ResultActions resultado = importar(corpo, MediaType.APPLICATION_JSON);
+
+		//verificacao
+		resultado
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.importados").value(1))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.erros.length()").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.erros[0].registro").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.erros[0].mensagem").value("Informe uma descrição válida."))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.erros[1].registro").value(3))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.erros[1].mensagem").value("Tipo ou status de lançamento inválido."));
+		Assertions.assertEquals(List.of("Salario"), descricoesImportadas());
+	}
+
+	@Test
+	public void deveRecusarAImportacaoJsonAcimaDoLimiteDeRegistros() throws Exception {
+		//cenario
+		String registro = "{\"descricao\":\"Salario\",\"mes\":1,\"ano\":2023,\"valor\":10,\"tipo\":\"RECEITA\"}";
+		String corpo = "[" + String.join(",", registro, registro, registro, registro) + "]";
+
+		//execucao
+		ResultActions resultado = importar(corpo, MediaType.APPLICATION_JSON);
+
+		//verificacao
+		resultado.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		Assertions.assertEquals("A importação excede o limite de 3 registros.", mensagem(resultado));
+		Assertions.assertTrue(descricoesImportadas().isEmpty());
+	}
+
+	@Test
+	public void deveRecusarAImportacaoJsonInvalida() throws Exception {
+		//cenario
+		String registro = "{\"descricao\":\"Salario\",\"mes\":1,\"ano\":2023,\"valor\":10,\"tipo\":\"RECEITA\"}";
+
+		//execucao
+		ResultActions incompleta = importar("[" + registro + ",", MediaType.APPLICATION_JSON);
+		ResultActions semLista = importar(registro, MediaType.APPLICATION_JSON);
+
+		//verificacao
+		incompleta.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		Assertions.assertTrue(mensagem(incompleta).startsWith("Arquivo de importação inválido"));
+		semLista.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		Assertions.assertEquals("Informe os lançamentos da importação numa lista.", mensagem(semLista));
+		Assertions.assertTrue(descricoesImportadas().isEmpty());
+	}
+
+	@Test
+	public void deveImportarOCsvPeloCabecalhoENumerarOsErrosPorRegistro() throws Exception {
+		//cenario
+		String corpo = "TIPO, descricao ,mes,ano,valor\n"
+				+ "RECEITA,\"Salario, janeiro\",1,2023,10\n"
+				+ "\n"
+				+ "DESPESA,Aluguel,abc,2023,10\n"
+				+ "DESPESA,Luz,1,2023,\n";
+
+		//execucao
+		ResultActions resultado = importar(corpo, CSV);
+
+		//verificacao
+		resultado
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.importados").value(1))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.erros.length()").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.erros[0].registro").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.erros[0].mensagem").value("Valor numérico inválido: abc"))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.erros[1].registro").value(3))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.erros[1].mensagem").value("Informe um valor válido."));
+		Assertions.assertEquals(List.of("Salario, janeiro"), descricoesImportadas());
+	}
+
+	@Test
+	public void deveRecusarOCsvVazio() throws Exception {
+		ResultActions resultado = importar("", CSV)
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		Assertions.assertEquals("Arquivo de importação vazio.", mensagem(resultado));
+	}
+
+	@Test
+	public void deveRecusarAImportacaoCsvAcimaDoLimiteDeRegistros() throws Exception {
+		//cenario
+		String registro = "RECEITA,Salario,1,2023,10\n";
+		String corpo = CABECALHO + registro + registro + registro + registro;
+
+		//execucao
+		ResultActions resultado = importar(corpo, CSV);
+
+		//verificacao
+		resultado.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		Assertions.assertEquals("A importação excede o limite de 3 registros.", mensagem(resultado));
+		Assertions.assertTrue(descricoesImportadas().isEmpty());
+	}
+
+	@Test
+	public void deveRecusarAImportacaoParaUsuarioInexistente() throws Exception {
+		ResultActions resultado = mvc.perform(MockMvcRequestBuilders.post(API).param("usuario", "-1")
+				.contentType(CSV).content(CABECALHO + "RECEITA,Salario,1,2023,10\n"))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+		Assertions.assertEquals("Usuário não encontrado para o id informado.", mensagem(resultado));
+	}
+
+	private ResultActions importar(String corpo, MediaType tipo) throws Exception {
+		return mvc.perform(MockMvcRequestBuilders.post(API).param("usuario", usuario.getId().toString())
+				.contentType(tipo).content(corpo).accept(MediaType.APPLICATION_JSON));
+	}
+
+	private String mensagem(ResultActions resultado) throws Exception {
+		return resultado.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+	}
+
+	private List<String> descricoesImportadas() {
+		return lancamentoService.buscar(Lancamento.builder().usuario(usuario).build()).stream()
+				.map(Lancamento::getDescricao)
+				.toList();
+	}
+}
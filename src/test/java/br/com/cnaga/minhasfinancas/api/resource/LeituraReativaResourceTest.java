@@ -0,0 +1,107 @@
+package br.com.cnaga.minhasfinancas.api.resource;
+
+import static org.hamcrest.Matchers.containsString;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.cnaga.minhasfinancas.service.LeituraReativaService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest( controllers = LeituraReativaResource.class )
+@AutoConfigureMockMvc
+public class LeituraReativaResourceTest {
+
+	static final String API = "/api/reativo";
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@MockBean
+	LeituraReativaService service;
+	
+	@Test
+	public void deveEscreverUmLancamentoPorLinhaEmNdjson() throws Exception {
+		Lancamento primeiro = LancamentoRepositoryTest.criarLancamento();
+		primeiro.setId(1l);
+		Lancamento segundo = LancamentoRepositoryTest.criarLancamento();
+		segundo.setId(2l);
+		Mockito.when( service.transmitir(Mockito.any(Lancamento.class), Mockito.isNull(), Mockito.isNull()) )
+			.thenReturn(Flux.just(primeiro, segundo));
+		
+		MvcResult resultado = mvc.perform( MockMvcRequestBuilders.get(API + "/lancamentos")
+					.param("usuario", "1")
+					.accept(MediaType.APPLICATION_NDJSON) )
+			.andExpect( MockMvcResultMatchers.request().asyncStarted() )
+			.andReturn();
+		
+		mvc.perform( MockMvcRequestBuilders.asyncDispatch(resultado) )
+			.andExpect( MockMvcResultMatchers.status().isOk() )
+			.andExpect( MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON) )
+			.andExpect( MockMvcResultMatchers.content().string(containsString("{\"id\":1,")) )
+			.andExpect( MockMvcResultMatchers.content().string(containsString("}\n{\"id\":2,")) );
+	}
+	
+	@Test
+	public void deveBuscarUmaPaginaEmJson() throws Exception {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		Mockito.when( service.buscar(Mockito.any(Lancamento.class), Mockito.isNull(), Mockito.isNull()) )
+			.thenReturn(Flux.just(lancamento));
+		
+		MvcResult resultado = mvc.perform( MockMvcRequestBuilders.get(API + "/lancamentos")
+					.param("usuario", "1")
+					.accept(MediaType.APPLICATION_JSON) )
+			.andExpect( MockMvcResultMatchers.request().asyncStarted() )
+			.andReturn();
+		
+		mvc.perform( MockMvcRequestBuilders.asyncDispatch(resultado) )
+			.andExpect( MockMvcResultMatchers.status().isOk() )
+			.andExpect( MockMvcResultMatchers.jsonPath("$[0].id").value(1) );
+		Mockito.verify(service, Mockito.never()).transmitir(Mockito.any(), Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void deveObterOSaldoDoUsuario() throws Exception {
+		Mockito.when( service.obterSaldo(1l) ).thenReturn(Mono.just(BigDecimal.TEN));
+		
+		MvcResult resultado = mvc.perform( MockMvcRequestBuilders.get(API + "/usuarios/1/saldo") )
+			.andExpect( MockMvcResultMatchers.request().asyncStarted() )
+			.andReturn();
+		
+		mvc.perform( MockMvcRequestBuilders.asyncDispatch(resultado) )
+			.andExpect( MockMvcResultMatchers.status().isOk() )
+			.andExpect( MockMvcResultMatchers.content().string("10") );
+	}
+	
+	@Test
+	public void deveRetornarNotFoundParaSaldoDeUsuarioInexistente() throws Exception {
+		Mockito.when( service.obterSaldo(1l) ).thenReturn(Mono.empty());
+		
+		MvcResult resultado = mvc.perform( MockMvcRequestBuilders.get(API + "/usuarios/1/saldo") )
+			.andExpect( MockMvcResultMatchers.request().asyncStarted() )
+			.andReturn();
+		
+		mvc.perform( MockMvcRequestBuilders.asyncDispatch(resultado) )
+			.andExpect( MockMvcResultMatchers.status().isNotFound() );
+	}
+}
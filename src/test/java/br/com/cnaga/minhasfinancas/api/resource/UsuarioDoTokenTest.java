@@ -0,0 +1,138 @@
+package br.com.cnaga.minhasfinancas.api.resource;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.cnaga.minhasfinancas.api.dto.LancamentoDTO;
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepositoryTest;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+import br.com.cnaga.minhasfinancas.service.TokenService;
+
+/**
+ * O token de um usuário não pode agir sobre os lançamentos e relatórios de
+ * outro, seja pelo usuário informado no corpo, seja pelo id do lançamento.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UsuarioDoTokenTest {
+
+	static final String API = "/api/lancamentos";
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+	@Autowired
+	MockMvc mvc;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	@Autowired
+	LancamentoService lancamentoService;
+	@Autowired
+	TokenService tokenService;
+
+	Usuario dono;
+	Lancamento lancamento;
+	String tokenDoDono;
+	String tokenDeOutro;
+
+	@BeforeEach
+	public void criarCenario() {
+		dono = UsuarioRepositoryTest.salvarUsuario(usuarioRepository);
+		Lancamento novoLancamento = LancamentoRepositoryTest.criarLancamento(dono);
+		lancamento = lancamentoService.salvar(novoLancamento);
+
+		tokenDoDono = tokenService.gerar(dono).token();
+		tokenDeOutro = tokenService.gerar(UsuarioRepositoryTest.salvarUsuario(usuarioRepository)).token();
+	}
+
+	@Test
+	public void deveNegarAInclusaoParaOUsuarioDeOutroToken() throws Exception {
+		executar(MockMvcRequestBuilders.post(API).content(json(criarDTO())), tokenDeOutro)
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		executar(MockMvcRequestBuilders.post(API).content(json(criarDTO())), tokenDoDono)
+			.andExpect(MockMvcResultMatchers.status().isCreated());
+	}
+
+	@Test
+	public void deveNegarAAlteracaoEAExclusaoDoLancamentoDeOutroUsuario() throws Exception {
+		LancamentoDTO dto = criarDTO();
+		dto.setValor(BigDecimal.valueOf(99));
+
+		executar(MockMvcRequestBuilders.put(API + "/" + lancamento.getId()).content(json(dto)), tokenDeOutro)
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		executar(MockMvcRequestBuilders.delete(API + "/" + lancamento.getId()), tokenDeOutro)
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		Lancamento gravado = lancamentoRepository.findById(lancamento.getId()).get();
+		Assertions.assertEquals(0, lancamento.getValor().compareTo(gravado.getValor()));
+	}
+
+	@Test
+	public void deveNegarATrocaDeStatusDoLancamentoDeOutroUsuario() throws Exception {
+		executar(MockMvcRequestBuilders.put(API + "/" + lancamento.getId() + "/atualiza-status")
+				.content("{\"status\":\"EFETIVADO\"}"), tokenDeOutro)
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		executar(MockMvcRequestBuilders.put(API + "/" + lancamento.getId() + "/atualiza-status")
+				.content("{\"status\":\"EFETIVADO\",\"versao\":" + lancamento.getVersao() + ",\"usuario\":" + dono.getId() + "}"),
+				tokenDeOutro)
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		executar(MockMvcRequestBuilders.put(API + "/atualiza-status")
+				.content("{\"status\":\"EFETIVADO\",\"usuario\":" + dono.getId() + "}"), tokenDeOutro)
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		Assertions.assertEquals(StatusLancamento.PENDENTE, lancamentoRepository.findById(lancamento.getId()).get().getStatus());
+	}
+
+	@Test
+	public void deveNegarORelatorioDeOutroUsuario() throws Exception {
+		executar(MockMvcRequestBuilders.post("/api/relatorios")
+				.content("{\"usuario\":" + dono.getId() + ",\"ano\":2023}"), tokenDeOutro)
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+	}
+
+	private ResultActions executar(MockHttpServletRequestBuilder request, String token) throws Exception {
+		return mvc.perform(request.contentType(JSON).accept(JSON).header("Authorization", "Bearer " + token));
+	}
+
+	private LancamentoDTO criarDTO() {
+		return LancamentoDTO.builder()
+				.descricao("Lancamento")
+				.mes(2)
+				.ano(2023)
+				.valor(BigDecimal.TEN)
+				.usuario(dono.getId())
+				.tipo(TipoLancamento.RECEITA.name())
+				.build();
+	}
+
+	private String json(LancamentoDTO dto) throws Exception {
+		return new ObjectMapper().writeValueAsString(dto);
+	}
+}
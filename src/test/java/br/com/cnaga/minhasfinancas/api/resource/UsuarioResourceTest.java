@@ -1,7 +1,10 @@
 package br.com.cnaga.minhasfinancas.api.resource;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,8 +27,16 @@ import br.com.cnaga.minhasfinancas.api.dto.UsuarioDTO;
 import br.com.cnaga.minhasfinancas.exception.ErroAutenticacao;
 import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
 import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.DimensaoAnalise;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.service.AnaliseLancamentoService;
 import br.com.cnaga.minhasfinancas.service.LancamentoService;
+import br.com.cnaga.minhasfinancas.service.ResumoMensal;
+import br.com.cnaga.minhasfinancas.service.TokenService;
+import br.com.cnaga.minhasfinancas.service.TokenService.TokenSessao;
+import br.com.cnaga.minhasfinancas.service.TotalAgrupado;
 import br.com.cnaga.minhasfinancas.service.UsuarioService;
+import br.com.cnaga.minhasfinancas.service.VersaoDadosService;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
@@ -45,6 +56,15 @@ public class UsuarioResourceTest {
 	@MockBean
 	LancamentoService lancamentoService;
 	
+	@MockBean
+	TokenService tokenService;
+	
+	@MockBean
+	VersaoDadosService versaoDadosService;
+	
+	@MockBean
+	AnaliseLancamentoService analiseService;
+	
 	@Test
 	public void deveAutenticarUmUsuario() throws Exception {
 		//cenario
@@ -54,6 +74,7 @@ public class UsuarioResourceTest {
 		UsuarioDTO dto = UsuarioDTO.builder().email(email).senha(senha).build();
 		Usuario usuario = Usuario.builder().id(1l).email(email).senha(senha).build();
 		Mockito.when( service.autenticar(email, senha) ).thenReturn(usuario);
+		Mockito.when( tokenService.gerar(usuario) ).thenReturn(new TokenSessao("token", Instant.now()));
 		String json = new ObjectMapper().writeValueAsString(dto);
 		
 		//execucao e verificacao
@@ -70,6 +91,7 @@ public class UsuarioResourceTest {
 			.andExpect( MockMvcResultMatchers.jsonPath("id").value(usuario.getId())  )
 			.andExpect( MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome())  )
 			.andExpect( MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail())  )
+			.andExpect( MockMvcResultMatchers.jsonPath("token").value("token")  )
 			
 		;
 		
@@ -179,10 +201,44 @@ public class UsuarioResourceTest {
 		mvc
 			.perform(request)
 			.andExpect( MockMvcResultMatchers.status().isOk() )
-			.andExpect( MockMvcResultMatchers.content().string("10") );
+			.andExpect( MockMvcResultMatchers.content().string("10") )
+			.andExpect( MockMvcResultMatchers.header().doesNotExist("ETag") );
 		
 	}
 	
+	@Test
+	public void deveInformarOETagDoSaldo() throws Exception {
+		
+		//cenário
+		Usuario usuario = Usuario.builder().id(1l).email("usuario@email.com").senha( "123").build();
+		Mockito.when(versaoDadosService.obterEtag(1l)).thenReturn(Optional.of("\"a.0.1\""));
+		Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(usuario));
+		Mockito.when(lancamentoService.obterSaldoPorUsuario(1l)).thenReturn(BigDecimal.TEN);
+		
+		//execucao e verificacao
+		mvc
+			.perform( MockMvcRequestBuilders.get( API.concat("/1/saldo") ).accept( JSON ) )
+			.andExpect( MockMvcResultMatchers.status().isOk() )
+			.andExpect( MockMvcResultMatchers.header().string("ETag", "\"a.0.1\"") );
+	}
+	
+	@Test
+	public void deveResponderNotModifiedSemConsultarOSaldoQuandoOETagNaoMudou() throws Exception {
+		
+		//cenário
+		Mockito.when(versaoDadosService.obterEtag(1l)).thenReturn(Optional.of("\"a.0.1\""));
+		
+		//execucao e verificacao
+		mvc
+			.perform( MockMvcRequestBuilders.get( API.concat("/1/saldo") )
+					.accept( JSON )
+					.header("If-None-Match", "\"a.0.1\"") )
+			.andExpect( MockMvcResultMatchers.status().isNotModified() )
+			.andExpect( MockMvcResultMatchers.content().string("") );
+		
+		Mockito.verifyNoInteractions(service, lancamentoService);
+	}
+	
 	@Test
 	public void deveRetornarResourceNotFoundQuandoUsuarioNaoExisteParaObterOSaldo() throws Exception {
 		
@@ -200,4 +256,68 @@ public class UsuarioResourceTest {
 			.andExpect( MockMvcResultMatchers.status().isNotFound() );
 		
 	}	
+
+	@Test
+	public void deveObterOResumoMensalDoUsuario() throws Exception {
+		
+		//cenário
+		Usuario usuario = Usuario.builder().id(1l).email("usuario@email.com").senha( "123").build();
+		ResumoMensal resumo = ResumoMensal.builder().ano(2023).mes(2)
+				.receitas(BigDecimal.valueOf(30)).despesas(BigDecimal.valueOf(10)).build();
+		Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(usuario));
+		Mockito.when(lancamentoService.obterResumoMensal(1l, 2023, false)).thenReturn(List.of(resumo));
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+													.get( API.concat("/1/resumo-mensal?ano=2023")  )
+													.accept( JSON )
+													.contentType( JSON );
+		mvc
+			.perform(request)
+			.andExpect( MockMvcResultMatchers.status().isOk() )
+			.andExpect( MockMvcResultMatchers.jsonPath("[0].mes").value(2) )
+			.andExpect( MockMvcResultMatchers.jsonPath("[0].saldo").value(20) );
+		
+	}
+	
+	@Test
+	public void deveRetornarResourceNotFoundQuandoUsuarioNaoExisteParaObterOResumoMensal() throws Exception {
+		
+		//cenário
+		Mockito.when(service.obterPorId(1l)).thenReturn(Optional.empty());
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+													.get( API.concat("/1/resumo-mensal")  )
+													.accept( JSON )
+													.contentType( JSON );
+		mvc
+			.perform(request)
+			.andExpect( MockMvcResultMatchers.status().isNotFound() );
+		
+	}
+	
+	@Test
+	public void deveObterOsTotaisAgrupadosDoUsuario() throws Exception {
+		
+		//cenário
+		Usuario usuario = Usuario.builder().id(1l).email("usuario@email.com").senha( "123").build();
+		TotalAgrupado total = TotalAgrupado.builder().ano(2023).tipo(TipoLancamento.RECEITA)
+				.receitas(BigDecimal.valueOf(30)).despesas(BigDecimal.ZERO).quantidade(2).build();
+		Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(usuario));
+		Mockito.when(analiseService.totalizar(1l, Set.of(DimensaoAnalise.ANO, DimensaoAnalise.TIPO), 2020, null))
+			.thenReturn(List.of(total));
+		
+		//execucao e verificacao
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+													.get( API.concat("/1/totais?agrupar=ANO,TIPO&anoInicial=2020")  )
+													.accept( JSON )
+													.contentType( JSON );
+		mvc
+			.perform(request)
+			.andExpect( MockMvcResultMatchers.status().isOk() )
+			.andExpect( MockMvcResultMatchers.jsonPath("[0].tipo").value("RECEITA") )
+			.andExpect( MockMvcResultMatchers.jsonPath("[0].saldo").value(30) );
+		
+	}
 }
@@ -0,0 +1,164 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LimiteRequisicoesTest {
+
+	static final List<String> CAMINHOS_LOTE = List.of("/api/lancamentos/importar", "/api/lancamentos/exportar");
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	public void deveRecusarAsConsultasDoUsuarioAcimaDaRajada() throws Exception {
+		LimiteRequisicoes limite = criarLimite(List.of());
+
+		Assertions.assertTrue(limite.preHandle(consulta(1L), new MockHttpServletResponse(), null));
+		Assertions.assertTrue(limite.preHandle(consulta(1L), new MockHttpServletResponse(), null));
+		MockHttpServletResponse recusada = new MockHttpServletResponse();
+		boolean liberada = limite.preHandle(consulta(1L), recusada, null);
+
+		Assertions.assertFalse(liberada);
+		Assertions.assertEquals(429, recusada.getStatus());
+		Assertions.assertTrue(Long.parseLong(recusada.getHeader("Retry-After")) >= 1);
+		Assertions.assertTrue(limite.preHandle(consulta(2L), new MockHttpServletResponse(), null));
+		Assertions.assertTrue(limite.preHandle(escrita(1L), new MockHttpServletResponse(), null));
+		Assertions.assertEquals(1, registry.get("minhasfinancas.limite.recusadas")
+				.tag("categoria", "consulta").tag("motivo", "usuario").counter().count());
+	}
+
+	@Test
+	public void naoDeveUsarOUsuarioInformadoSemTokenParaEscolherOBalde() throws Exception {
+		LimiteRequisicoes limite = criarLimite(List.of());
+
+		Assertions.assertTrue(limite.preHandle(semToken("10.0.0.1", 2L), new MockHttpServletResponse(), null));
+		Assertions.assertTrue(limite.preHandle(semToken("10.0.0.1", 3L), new MockHttpServletResponse(), null));
+		Assertions.assertFalse(limite.preHandle(semToken("10.0.0.1", 4L), new MockHttpServletResponse(), null));
+
+		Assertions.assertTrue(limite.preHandle(consulta(2L), new MockHttpServletResponse(), null));
+		Assertions.assertTrue(limite.preHandle(semToken("10.0.0.2", 2L), new MockHttpServletResponse(), null));
+	}
+
+	@Test
+	public void deveRecusarAcimaDoLimiteGlobal() throws Exception {
+		LimiteRequisicoes limite = criarLimite(List.of());
+
+		for(long idUsuario = 1; idUsuario <= 3; idUsuario++) {
+			Assertions.assertTrue(limite.preHandle(escrita(idUsuario), new MockHttpServletResponse(), null));
+		}
+		MockHttpServletResponse recusada = new MockHttpServletResponse();
+
+		Assertions.assertFalse(limite.preHandle(escrita(4L), recusada, null));
+		Assertions.assertEquals(429, recusada.getStatus());
+	}
+
+	@Test
+	public void deveDevolverAFichaDoUsuarioQuandoOLimiteGlobalRecusa() throws Exception {
+		LimiteRequisicoes.Categoria escrita = new LimiteRequisicoes.Categoria("escrita", 0.1, 1, 0.1, 1);
+		LimiteRequisicoes limite = new LimiteRequisicoes(
+				new LimiteRequisicoes.Categoria("consulta", 1000, 1000, 1000, 1000), escrita,
+				new LimiteRequisicoes.Categoria("lote", 1000, 1000, 1000, 1000), CAMINHOS_LOTE, List.of(), 5, registry);
+
+		Assertions.assertTrue(limite.preHandle(escrita(1L), new MockHttpServletResponse(), null));
+		Assertions.assertFalse(limite.preHandle(escrita(2L), new MockHttpServletResponse(), null));
+
+		Assertions.assertEquals(0, escrita.reservarDoUsuario(2L, System.nanoTime()));
+		Assertions.assertEquals(1, registry.get("minhasfinancas.limite.recusadas")
+				.tag("categoria", "escrita").tag("motivo", "global").counter().count());
+	}
+
+	@Test
+	public void deveLimitarImportacaoEExportacaoNoBaldeDeLoteSemGastarOsDemais() throws Exception {
+		LimiteRequisicoes limite = criarLimite(List.of());
+
+		Assertions.assertTrue(limite.preHandle(lote("POST", "/api/lancamentos/importar", 1L), new MockHttpServletResponse(), null));
+		MockHttpServletResponse recusada = new MockHttpServletResponse();
+
+		Assertions.assertFalse(limite.preHandle(lote("GET", "/api/lancamentos/exportar", 1L), recusada, null));
+		Assertions.assertEquals(429, recusada.getStatus());
+		Assertions.assertTrue(limite.preHandle(lote("POST", "/api/lancamentos/importar", 2L), new MockHttpServletResponse(), null));
+		Assertions.assertTrue(limite.preHandle(consulta(1L), new MockHttpServletResponse(), null));
+		Assertions.assertTrue(limite.preHandle(consulta(1L), new MockHttpServletResponse(), null));
+		Assertions.assertTrue(limite.preHandle(escrita(1L), new MockHttpServletResponse(), null));
+		Assertions.assertEquals(1, registry.get("minhasfinancas.limite.recusadas")
+				.tag("categoria", "lote").tag("motivo", "usuario").counter().count());
+	}
+
+	@Test
+	public void deveDescartarQuandoHaThreadsAguardandoConexao() throws Exception {
+		HikariDataSource pool = Mockito.mock(HikariDataSource.class);
+		HikariPoolMXBean situacao = Mockito.mock(HikariPoolMXBean.class);
+		Mockito.when(pool.getHikariPoolMXBean()).thenReturn(situacao);
+		Mockito.when(situacao.getThreadsAwaitingConnection()).thenReturn(5);
+		LimiteRequisicoes limite = criarLimite(List.of(pool));
+
+		MockHttpServletResponse recusada = new MockHttpServletResponse();
+
+		Assertions.assertFalse(limite.preHandle(consulta(1L), recusada, null));
+		Assertions.assertEquals(503, recusada.getStatus());
+		Assertions.assertEquals("1", recusada.getHeader("Retry-After"));
+	}
+
+	@Test
+	public void deveDescartarSoAsConsultasQuandoOPoolDaReplicaEstaSaturado() throws Exception {
+		HikariDataSource replica = Mockito.mock(HikariDataSource.class);
+		HikariPoolMXBean situacao = Mockito.mock(HikariPoolMXBean.class);
+		Mockito.when(replica.getHikariPoolMXBean()).thenReturn(situacao);
+		Mockito.when(situacao.getThreadsAwaitingConnection()).thenReturn(5);
+		LimiteRequisicoes limite = new LimiteRequisicoes(
+				new LimiteRequisicoes.Categoria("consulta", 1000, 1000, 1000, 1000),
+				new LimiteRequisicoes.Categoria("escrita", 1000, 1000, 1000, 1000),
+				new LimiteRequisicoes.Categoria("lote", 1000, 1000, 1000, 1000), CAMINHOS_LOTE,
+				List.of(), List.of(replica), 5, registry);
+
+		MockHttpServletResponse recusada = new MockHttpServletResponse();
+
+		Assertions.assertFalse(limite.preHandle(consulta(1L), recusada, null));
+		Assertions.assertEquals(503, recusada.getStatus());
+		Assertions.assertTrue(limite.preHandle(escrita(1L), new MockHttpServletResponse(), null));
+	}
+
+	private LimiteRequisicoes criarLimite(List<HikariDataSource> pools) {
+		return new LimiteRequisicoes(
+				new LimiteRequisicoes.Categoria("consulta", 0.1, 2, 1000, 1000),
+				new LimiteRequisicoes.Categoria("escrita", 1000, 1000, 0.1, 3),
+				new LimiteRequisicoes.Categoria("lote", 0.1, 1, 1000, 1000), CAMINHOS_LOTE,
+				pools, 5, registry);
+	}
+
+	private MockHttpServletRequest consulta(Long idUsuario) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+		request.setParameter("usuario", idUsuario.toString());
+		request.setAttribute(TokenFilter.ATRIBUTO_USUARIO, idUsuario);
+		return request;
+	}
+
+	private MockHttpServletRequest semToken(String endereco, Long idUsuario) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+		request.setParameter("usuario", idUsuario.toString());
+		request.setRemoteAddr(endereco);
+		return request;
+	}
+
+	private MockHttpServletRequest escrita(Long idUsuario) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/lancamentos");
+		request.setAttribute(TokenFilter.ATRIBUTO_USUARIO, idUsuario);
+		return request;
+	}
+
+	private MockHttpServletRequest lote(String metodo, String caminho, Long idUsuario) {
+		MockHttpServletRequest request = new MockHttpServletRequest(metodo, caminho);
+		request.setAttribute(TokenFilter.ATRIBUTO_USUARIO, idUsuario);
+		return request;
+	}
+}
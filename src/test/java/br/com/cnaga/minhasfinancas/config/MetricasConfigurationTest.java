@@ -0,0 +1,39 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import static org.hamcrest.Matchers.containsString;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "minhasfinancas.metricas.hibernate.habilitado=true")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricasConfigurationTest {
+
+	@Autowired
+	MockMvc mvc;
+
+	@Test
+	public void deveExporAsMetricasNoEndpointPrometheus() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/1/saldo"));
+
+		mvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().string(containsString("http_server_requests_seconds_bucket{")))
+			.andExpect(MockMvcResultMatchers.content().string(containsString("minhasfinancas_servico_seconds_bucket{")))
+			.andExpect(MockMvcResultMatchers.content().string(containsString("spring_data_repository_invocations_seconds_bucket{")))
+			.andExpect(MockMvcResultMatchers.content().string(containsString("hikaricp_connections_active")))
+			.andExpect(MockMvcResultMatchers.content().string(containsString("hibernate_statements_total")));
+	}
+}
@@ -0,0 +1,50 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.threads.virtual.enabled=true",
+		"minhasfinancas.threads-virtuais.monitor-fixacao.limite=10ms" })
+public class MonitorFixacaoThreadsVirtuaisTest {
+
+	@Autowired
+	MeterRegistry registry;
+
+	@Test
+	public void deveRegistrarAThreadVirtualFixadaNaCarregadora() throws Exception {
+		Object monitor = new Object();
+		Thread.ofVirtual().start(() -> {
+			synchronized (monitor) {
+				dormir(50);
+			}
+		}).join();
+
+		long limite = System.currentTimeMillis() + 10_000;
+		while(fixacoes() == 0 && System.currentTimeMillis() < limite) {
+			dormir(100);
+		}
+		Assertions.assertTrue(fixacoes() > 0);
+	}
+
+	private long fixacoes() {
+		return registry.get("minhasfinancas.threads.virtuais.fixacao").timer().count();
+	}
+
+	private static void dormir(long milissegundos) {
+		try {
+			Thread.sleep(milissegundos);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepositoryTest;
+import br.com.cnaga.minhasfinancas.service.DivergenciaSaldo;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+import br.com.cnaga.minhasfinancas.service.SaldoUsuarioService;
+
+/**
+ * Usa dois bancos H2 em memória: o do perfil de teste como primário e um segundo
+ * como réplica, que não recebe as escritas do primário. Uma segunda réplica aponta
+ * para um servidor inexistente.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"spring.jpa.open-in-view=false",
+		"minhasfinancas.replicas.urls=" + ReplicasConfigurationTest.REPLICA + "," + ReplicasConfigurationTest.INDISPONIVEL,
+		"minhasfinancas.replicas.tempo-conexao=250ms",
+		"minhasfinancas.replicas.verificacao.intervalo-segundos=3600",
+		"minhasfinancas.replicas.janela-leitura-propria-escrita=1m" })
+@AutoConfigureMockMvc
+public class ReplicasConfigurationTest {
+
+	static final String REPLICA = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas";
+	static final String INDISPONIVEL = "jdbc:h2:tcp://localhost:1/indisponivel";
+
+	static final AtomicLong ids = new AtomicLong(900_000);
+
+	@Autowired
+	MockMvc mvc;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	LancamentoService lancamentoService;
+	@Autowired
+	SaldoUsuarioService saldoUsuarioService;
+	@Autowired
+	ReplicasDataSource replicas;
+	@Autowired
+	@Qualifier("primarioDataSource")
+	DataSource primario;
+
+	JdbcTemplate bancoPrimario;
+	JdbcTemplate bancoReplica;
+	Usuario usuario;
+
+	@BeforeEach
+	public void criarCenario() {
+		DriverManagerDataSource replica = new DriverManagerDataSource(REPLICA, "sa", "sa");
+		Flyway.configure().dataSource(replica).locations("classpath:db/migration/h2").schemas("financas").load().migrate();
+		bancoPrimario = new JdbcTemplate(primario);
+		bancoReplica = new JdbcTemplate(replica);
+
+		usuario = UsuarioRepositoryTest.salvarUsuario(usuarioRepository);
+		bancoReplica.update("insert into financas.usuario (id, nome, email) values (?, ?, ?)",
+				usuario.getId(), usuario.getNome(), usuario.getEmail());
+
+		replicas.verificar();
+	}
+
+	@Test
+	public void deveEnviarAsLeiturasParaAsReplicasDisponiveis() {
+		inserir(bancoPrimario, "No primario");
+		inserir(bancoReplica, "Na replica");
+
+		for(int i = 0; i < 4; i++) {
+			List<Lancamento> encontrados = lancamentoService.buscar(filtroDoUsuario());
+			Assertions.assertEquals(List.of("Na replica"), encontrados.stream().map(Lancamento::getDescricao).toList());
+		}
+		Assertions.assertEquals(Map.of("replica-0", true, "replica-1", false), replicas.obterSituacao());
+	}
+
+	@Test
+	public void deveLerDoPrimarioNaJanelaDeLeituraPropriaEscrita() throws Exception {
+		inserir(bancoReplica, "Na replica");
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento(usuario);
+		lancamento.setDescricao("No primario");
+		lancamentoService.salvar(lancamento);
+
+		mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").param("usuario", usuario.getId().toString()))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].descricao").value("No primario"));
+		Assertions.assertEquals(List.of("Na replica"),
+				lancamentoService.buscar(filtroDoUsuario()).stream().map(Lancamento::getDescricao).toList());
+	}
+
+	@Test
+	public void deveExportarDoPrimarioNaJanelaDeLeituraPropriaEscrita() throws Exception {
+		inserir(bancoReplica, "Na replica");
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento(usuario);
+		lancamento.setDescricao("No primario");
+		lancamentoService.salvar(lancamento);
+
+		MvcResult iniciado = mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos/exportar")
+				.param("usuario", usuario.getId().toString())
+				.param("formato", "csv"))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		String corpo = mvc.perform(MockMvcRequestBuilders.asyncDispatch(iniciado))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+		Assertions.assertTrue(corpo.contains("No primario"));
+		Assertions.assertFalse(corpo.contains("Na replica"));
+	}
+
+	@Test
+	public void deveLerEAlterarNoPrimarioNasRequisicoesDeEscrita() throws Exception {
+		Long id = inserir(bancoPrimario, "No primario");
+
+		mvc.perform(MockMvcRequestBuilders.put("/api/lancamentos/{id}/atualiza-status", id)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"status\": \"EFETIVADO\"}"))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+
+		Assertions.assertEquals("EFETIVADO",
+				bancoPrimario.queryForObject("select status from financas.lancamento where id = ?", String.class, id));
+	}
+
+	@Test
+	public void deveVerificarOsSaldosNoPrimario() {
+		inserir(bancoReplica, "Na replica");
+
+		List<DivergenciaSaldo> divergencias = saldoUsuarioService.verificar();
+
+		Assertions.assertTrue(divergencias.stream().noneMatch(divergencia -> divergencia.getIdUsuario().equals(usuario.getId())));
+	}
+
+	@Test
+	public void deveUsarOPrimarioSemReplicaDisponivel() throws Exception {
+		ReplicasDataSource semReplicas = new ReplicasDataSource(primario,
+				Map.of("indisponivel", new DriverManagerDataSource(INDISPONIVEL)), () -> false);
+
+		try (Connection conexao = semReplicas.getConnection()) {
+			Assertions.assertTrue(conexao.getMetaData().getURL().startsWith("jdbc:h2:mem:db"));
+		}
+		Assertions.assertEquals(Map.of("indisponivel", false), semReplicas.obterSituacao());
+	}
+
+	private Long inserir(JdbcTemplate banco, String descricao) {
+		Long id = ids.incrementAndGet();
+		banco.update("insert into financas.lancamento (id, descricao, mes, ano, valor, tipo, status, id_usuario) "
+				+ "values (?, ?, 1, 2023, 10, 'RECEITA', 'PENDENTE', ?)", id, descricao, usuario.getId());
+		return id;
+	}
+
+	private Lancamento filtroDoUsuario() {
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(Usuario.builder().id(usuario.getId()).build());
+		return filtro;
+	}
+}
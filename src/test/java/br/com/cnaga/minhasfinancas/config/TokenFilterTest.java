@@ -0,0 +1,74 @@
+package br.com.cnaga.minhasfinancas.config;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import br.com.cnaga.minhasfinancas.service.TokenService;
+
+public class TokenFilterTest {
+
+	TokenService tokenService = Mockito.mock(TokenService.class);
+	TokenFilter filter = new TokenFilter(tokenService, false);
+
+	@Test
+	public void deveExporOUsuarioDoTokenQuandoAsRequisicoesSaoDele() throws Exception {
+		//cenario
+		Mockito.when(tokenService.validar("token")).thenReturn(Optional.of(1L));
+		MockHttpServletRequest consulta = comToken("GET", "/api/lancamentos");
+		consulta.setParameter("usuario", "1");
+
+		//execucao
+		MockHttpServletResponse resposta = executar(consulta);
+		MockHttpServletResponse saldo = executar(comToken("GET", "/api/usuarios/1/saldo"));
+
+		//verificacao
+		Assertions.assertEquals(200, resposta.getStatus());
+		Assertions.assertEquals(1L, consulta.getAttribute(TokenFilter.ATRIBUTO_USUARIO));
+		Assertions.assertEquals(200, saldo.getStatus());
+	}
+
+	@Test
+	public void deveNegarOParametroOuOCaminhoDeOutroUsuario() throws Exception {
+		//cenario
+		Mockito.when(tokenService.validar("token")).thenReturn(Optional.of(1L));
+		MockHttpServletRequest consulta = comToken("GET", "/api/lancamentos");
+		consulta.setParameter("usuario", "2");
+
+		//execucao e verificacao
+		Assertions.assertEquals(403, executar(consulta).getStatus());
+		Assertions.assertNull(consulta.getAttribute(TokenFilter.ATRIBUTO_USUARIO));
+		Assertions.assertEquals(403, executar(comToken("GET", "/api/usuarios/2/saldo")).getStatus());
+		Assertions.assertEquals(403, executar(comToken("GET", "/api/reativo/usuarios/2/saldo")).getStatus());
+		Assertions.assertEquals(403, executar(comToken("GET", "/api/usuarios/2/totais")).getStatus());
+	}
+
+	@Test
+	public void naoDeveConferirOUsuarioSemToken() throws Exception {
+		//cenario
+		MockHttpServletRequest consulta = new MockHttpServletRequest("GET", "/api/lancamentos");
+		consulta.setParameter("usuario", "2");
+
+		//execucao e verificacao
+		Assertions.assertEquals(200, executar(consulta).getStatus());
+		Assertions.assertEquals(200, executar(new MockHttpServletRequest("GET", "/api/usuarios/2/saldo")).getStatus());
+		Mockito.verifyNoInteractions(tokenService);
+	}
+
+	private MockHttpServletRequest comToken(String metodo, String caminho) {
+		MockHttpServletRequest request = new MockHttpServletRequest(metodo, caminho);
+		request.addHeader("Authorization", "Bearer token");
+		return request;
+	}
+
+	private MockHttpServletResponse executar(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+}
@@ -2,9 +2,11 @@ package br.com.cnaga.minhasfinancas.model.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,12 +14,17 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.ExampleMatcher.StringMatcher;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
 import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
 import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.model.projection.TotalEQuantidadePorPeriodo;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = Replace.NONE)
@@ -30,9 +37,16 @@ public class LancamentoRepositoryTest {
 	@Autowired 
 	TestEntityManager entityManager;
 	
+	Usuario usuario;
+	
+	@BeforeEach
+	public void persistirUsuario() {
+		usuario = entityManager.persist(UsuarioRepositoryTest.criarUsuario());
+	}
+	
 	@Test
 	public void deveSalvarUmLancamento() {
-		Lancamento lancamento = criarLancamento();
+		Lancamento lancamento = criarLancamentoDoUsuario();
 		lancamento = repository.save(lancamento);
 		
 		Assertions.assertNotNull(lancamento.getId());
@@ -76,12 +90,124 @@ public class LancamentoRepositoryTest {
 		Assertions.assertTrue(lancamentoEncontrado.isPresent());
 	}
 	
+	@Test
+	public void deveBuscarUmaPaginaDeLancamentosAPartirDoCursor() {
+		Lancamento primeiro = criarEPersistirUmLancamento();
+		Lancamento segundo = criarEPersistirUmLancamento();
+		Lancamento terceiro = criarEPersistirUmLancamento();
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setDescricao("lanc");
+		Example<Lancamento> example = Example.of(filtro, 
+				ExampleMatcher.matching().withIgnoreCase().withStringMatcher(StringMatcher.CONTAINING));
+		
+		List<Lancamento> primeiraPagina = repository.buscarPagina(example, null, 2);
+		List<Lancamento> segundaPagina = repository.buscarPagina(example, segundo.getId(), 2);
+		
+		Assertions.assertEquals(List.of(primeiro.getId(), segundo.getId()), primeiraPagina.stream().map(Lancamento::getId).toList());
+		Assertions.assertEquals(List.of(terceiro.getId()), segundaPagina.stream().map(Lancamento::getId).toList());
+	}
+	
+	@Test
+	public void deveBuscarUmaPaginaEntreOsIdsInformados() {
+		Lancamento primeiro = criarEPersistirUmLancamento();
+		criarEPersistirUmLancamento();
+		Lancamento terceiro = criarEPersistirUmLancamento();
+		Lancamento efetivado = criarLancamentoDoUsuario();
+		efetivado.setStatus(StatusLancamento.EFETIVADO);
+		efetivado = entityManager.persist(efetivado);
+		Lancamento quinto = criarEPersistirUmLancamento();
+		
+		Lancamento filtro = new Lancamento();
+		filtro.setStatus(StatusLancamento.PENDENTE);
+		Example<Lancamento> example = Example.of(filtro);
+		long[] ids = { primeiro.getId(), terceiro.getId(), efetivado.getId(), quinto.getId() };
+		
+		List<Lancamento> primeiraPagina = repository.buscarPaginaEntreIds(example, ids, null, 2);
+		List<Lancamento> segundaPagina = repository.buscarPaginaEntreIds(example, ids, terceiro.getId(), 2);
+		
+		Assertions.assertEquals(List.of(primeiro.getId(), terceiro.getId()), primeiraPagina.stream().map(Lancamento::getId).toList());
+		Assertions.assertEquals(List.of(quinto.getId()), segundaPagina.stream().map(Lancamento::getId).toList());
+	}
+	
+	@Test
+	public void deveAtualizarOStatusEmLoteApenasDosLancamentosComStatusPermitido() {
+		Lancamento pendente = criarEPersistirUmLancamento();
+		Lancamento cancelado = criarLancamentoDoUsuario();
+		cancelado.setStatus(StatusLancamento.CAMCELADO);
+		cancelado = entityManager.persist(cancelado);
+		
+		int atualizados = repository.atualizarStatusPorIds(usuario.getId(), List.of(pendente.getId(), cancelado.getId()), 
+				List.of(StatusLancamento.PENDENTE), StatusLancamento.EFETIVADO);
+		
+		Assertions.assertEquals(1, atualizados);
+		Assertions.assertEquals(StatusLancamento.EFETIVADO, entityManager.find(Lancamento.class, pendente.getId()).getStatus());
+		Assertions.assertEquals(StatusLancamento.CAMCELADO, entityManager.find(Lancamento.class, cancelado.getId()).getStatus());
+	}
+	
+	@Test
+	public void naoDeveAtualizarOStatusEmLoteDosLancamentosDeOutroUsuario() {
+		Lancamento pendente = criarEPersistirUmLancamento();
+		Usuario outroUsuario = UsuarioRepositoryTest.criarUsuario();
+		outroUsuario.setEmail("outro@email.com");
+		outroUsuario = entityManager.persist(outroUsuario);
+		
+		int atualizados = repository.atualizarStatusPorIds(outroUsuario.getId(), List.of(pendente.getId()), 
+				List.of(StatusLancamento.PENDENTE), StatusLancamento.EFETIVADO);
+		
+		Assertions.assertEquals(0, atualizados);
+		Assertions.assertEquals(StatusLancamento.PENDENTE, entityManager.find(Lancamento.class, pendente.getId()).getStatus());
+	}
+	
+	@Test
+	public void deveTotalizarEContarOsLancamentosPorPeriodoEntreOsAnos() {
+		criarEPersistirUmLancamento();
+		criarEPersistirUmLancamento();
+		Lancamento outroAno = criarLancamentoDoUsuario();
+		outroAno.setAno(2021);
+		entityManager.persist(outroAno);
+		
+		List<TotalEQuantidadePorPeriodo> totais = repository.obterTotaisEQuantidadesPorPeriodo(usuario.getId(), 2022, 2023);
+		
+		Assertions.assertEquals(1, totais.size());
+		Assertions.assertEquals(2L, totais.get(0).getQuantidade());
+		Assertions.assertEquals(0, BigDecimal.valueOf(21).compareTo(totais.get(0).getTotal()));
+	}
+	
+	@Test
+	public void deveUsarOIndiceDeUsuarioETipoNoCalculoDoSaldo() {
+		String plano = explicar(" select tipo, sum(valor) from financas.lancamento "
+				+ " where id_usuario = 1 group by tipo ");
+		
+		Assertions.assertTrue(plano.contains("IDX_LANCAMENTO_USUARIO_TIPO"), plano);
+	}
+	
+	@Test
+	public void deveUsarOIndiceDeUsuarioAnoEMesNaListagem() {
+		String plano = explicar(" select id, descricao, valor from financas.lancamento "
+				+ " where id_usuario = 1 and ano = 2023 and mes = 2 and status = 'PENDENTE' order by id ");
+		
+		Assertions.assertTrue(plano.contains("IDX_LANCAMENTO_USUARIO_ANO_MES"), plano);
+	}
+	
+	private String explicar(String sql) {
+		return entityManager.getEntityManager()
+				.createNativeQuery("explain " + sql)
+				.getSingleResult()
+				.toString()
+				.toUpperCase();
+	}
+	
 	private Lancamento criarEPersistirUmLancamento() {
-		Lancamento lancamento = criarLancamento();
+		Lancamento lancamento = criarLancamentoDoUsuario();
 		lancamento = entityManager.persist(lancamento);
 		return lancamento;
 	}
 	
+	private Lancamento criarLancamentoDoUsuario() {
+		return criarLancamento(usuario);
+	}
+	
 	public static Lancamento criarLancamento() {
 		return Lancamento.builder()
 				.ano(2023)
@@ -93,4 +219,10 @@ public class LancamentoRepositoryTest {
 				.dataCadastro(LocalDate.now())
 				.build();
 	}
+	
+	public static Lancamento criarLancamento(Usuario usuario) {
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		return lancamento;
+	}
 }
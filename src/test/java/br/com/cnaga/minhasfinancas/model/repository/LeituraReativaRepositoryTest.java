@@ -0,0 +1,112 @@
+package br.com.cnaga.minhasfinancas.model.repository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.service.LancamentoService;
+import reactor.test.StepVerifier;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class LeituraReativaRepositoryTest {
+
+	@Autowired
+	LeituraReativaRepository repository;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	Usuario usuario;
+	
+	@BeforeEach
+	public void criarCenario() {
+		usuario = UsuarioRepositoryTest.salvarUsuario(usuarioRepository);
+		
+		lancamentoService.salvarTodos(List.of(
+				criarLancamento("Aluguel", TipoLancamento.DESPESA, 1000),
+				criarLancamento("Salario", TipoLancamento.RECEITA, 5000),
+				criarLancamento("Conta de luz", TipoLancamento.DESPESA, 200),
+				criarLancamento("100% de desconto", TipoLancamento.DESPESA, 0)));
+	}
+	
+	@Test
+	public void deveAplicarOMesmoFiltroDaBuscaPorExemplo() {
+		Lancamento filtro = filtroDoUsuario();
+		filtro.setDescricao("LU");
+		filtro.setTipo(TipoLancamento.DESPESA);
+		
+		List<Long> esperados = lancamentoService.buscar(filtro).stream().map(Lancamento::getId).sorted().toList();
+		List<Long> encontrados = repository.buscar(filtro, null, null).map(Lancamento::getId).collectList().block();
+		
+		Assertions.assertEquals(2, esperados.size());
+		Assertions.assertEquals(esperados, encontrados);
+	}
+	
+	@Test
+	public void deveTratarCuringasDoLikeComoTexto() {
+		Lancamento filtro = filtroDoUsuario();
+		filtro.setDescricao("0%");
+		
+		StepVerifier.create(repository.buscar(filtro, null, null))
+			.expectNextMatches(lancamento -> lancamento.getDescricao().equals("100% de desconto"))
+			.verifyComplete();
+	}
+	
+	@Test
+	public void deveEmitirAPartirDoCursorConformeADemanda() {
+		List<Lancamento> todos = repository.buscar(filtroDoUsuario(), null, null).collectList().block();
+		Long cursor = todos.get(0).getId();
+		
+		StepVerifier.create(repository.buscar(filtroDoUsuario(), cursor, null), 0)
+			.expectSubscription()
+			.expectNoEvent(Duration.ofMillis(100))
+			.thenRequest(1)
+			.expectNextMatches(lancamento -> lancamento.getId().equals(todos.get(1).getId())
+					&& lancamento.getUsuario().getEmail().equals(usuario.getEmail()))
+			.thenRequest(2)
+			.expectNextCount(2)
+			.verifyComplete();
+	}
+	
+	@Test
+	public void deveObterOSaldoDoUsuario() {
+		StepVerifier.create(repository.obterSaldo(usuario.getId()))
+			.expectNextMatches(saldo -> saldo.compareTo(BigDecimal.valueOf(3800)) == 0)
+			.verifyComplete();
+	}
+	
+	@Test
+	public void naoDeveObterSaldoDeUsuarioInexistente() {
+		StepVerifier.create(repository.obterSaldo(-1L))
+			.verifyComplete();
+	}
+	
+	private Lancamento filtroDoUsuario() {
+		Lancamento filtro = new Lancamento();
+		filtro.setUsuario(Usuario.builder().id(usuario.getId()).build());
+		return filtro;
+	}
+	
+	private Lancamento criarLancamento(String descricao, TipoLancamento tipo, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento(usuario);
+		lancamento.setDescricao(descricao);
+		lancamento.setTipo(tipo);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		return lancamento;
+	}
+}
@@ -0,0 +1,88 @@
+package br.com.cnaga.minhasfinancas.model.repository;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.projection.UsuarioResumido;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class UsuarioRepositoryCacheTest {
+
+	@Autowired
+	UsuarioRepository repository;
+	@Autowired
+	CacheManager cacheManager;
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	Usuario usuario;
+
+	@BeforeEach
+	public void salvarUsuario() {
+		usuario = UsuarioRepositoryTest.salvarUsuario(repository);
+	}
+
+	@Test
+	public void deveGuardarNoCacheOResumoDoUsuarioBuscadoPorId() {
+		repository.buscarResumidoPorId(usuario.getId());
+
+		Cache.ValueWrapper guardado = cacheManager.getCache("usuarios").get(usuario.getId());
+		Assertions.assertNotNull(guardado);
+		Assertions.assertEquals(new UsuarioResumido(usuario.getId(), usuario.getNome(), usuario.getEmail()), guardado.get());
+	}
+
+	@Test
+	public void naoDeveGuardarNoCacheUmIdNaoCadastrado() {
+		Long id = Long.MAX_VALUE;
+
+		Assertions.assertFalse(repository.buscarResumidoPorId(id).isPresent());
+
+		Assertions.assertNull(cacheManager.getCache("usuarios").get(id));
+	}
+
+	@Test
+	public void naoDeveGuardarNoCacheOUsuarioBuscadoPorEmail() {
+		repository.findByEmail(usuario.getEmail());
+
+		Assertions.assertNull(cacheManager.getCache("usuarios").get(usuario.getId()));
+	}
+
+	@Test
+	public void deveRemoverDoCacheOUsuarioGravado() {
+		repository.buscarResumidoPorId(usuario.getId());
+
+		usuario.setNome("alterado");
+		repository.save(usuario);
+
+		Assertions.assertNull(cacheManager.getCache("usuarios").get(usuario.getId()));
+		Assertions.assertEquals("alterado", repository.buscarResumidoPorId(usuario.getId()).get().getNome());
+	}
+
+	@Test
+	public void deveRemoverDoCacheOUsuarioGravadoSoDepoisDoCommit() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			usuario.setNome("alterado");
+			repository.save(usuario);
+			// Leitura concorrente, fora da transação, ainda vê os dados confirmados.
+			CompletableFuture.runAsync(() -> repository.buscarResumidoPorId(usuario.getId())).join();
+		});
+
+		Assertions.assertNull(cacheManager.getCache("usuarios").get(usuario.getId()));
+		Assertions.assertEquals("alterado", repository.buscarResumidoPorId(usuario.getId()).get().getNome());
+	}
+}
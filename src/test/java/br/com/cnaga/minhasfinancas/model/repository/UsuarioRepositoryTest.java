@@ -1,6 +1,7 @@
 package br.com.cnaga.minhasfinancas.model.repository;
 
 import java.util.Optional;
+import java.util.UUID;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -92,6 +93,17 @@ public class UsuarioRepositoryTest {
 		
 	}	
 	
+	@Test
+	public void deveUsarOIndiceUnicoDeEmailNaBuscaPorEmail() {
+		String plano = entityManager.getEntityManager()
+				.createNativeQuery("explain select id from financas.usuario where email = 'email@email.com'")
+				.getSingleResult()
+				.toString()
+				.toUpperCase();
+		
+		Assertions.assertTrue(plano.contains("IDX_USUARIO_EMAIL"), plano);
+	}
+	
 	public static Usuario criarUsuario() {
 		return  Usuario
 				.builder()
@@ -100,4 +112,14 @@ public class UsuarioRepositoryTest {
 				.senha("123")
 				.build();
 	}
+	
+	/**
+	 * Salva um usuário com email único, para os testes que não desfazem as
+	 * gravações no fim.
+	 */
+	public static Usuario salvarUsuario(UsuarioRepository repository) {
+		Usuario usuario = criarUsuario();
+		usuario.setEmail(UUID.randomUUID() + "@email.com");
+		return repository.save(usuario);
+	}
 }
@@ -0,0 +1,245 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.DimensaoAnalise;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido;
+import br.com.cnaga.minhasfinancas.model.projection.TotalEQuantidadePorPeriodo;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.cnaga.minhasfinancas.service.impl.AnaliseLancamentoServiceImpl;
+
+@SpringBootTest(properties = { "minhasfinancas.analise.habilitada=true", "minhasfinancas.analise.memoria-maxima=1100B" })
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class AnaliseLancamentoServiceTest {
+
+	@Autowired
+	AnaliseLancamentoService service;
+	@Autowired
+	LancamentoService lancamentoService;
+	@MockBean
+	LancamentoRepository repository;
+	@MockBean
+	SaldoUsuarioService saldoService;
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Test
+	public void deveTotalizarPelasDimensoesInformadas() {
+		//cenario
+		carregarLancamentos(1L,
+				lancamento(1L, 2022, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, "100.10"),
+				lancamento(2L, 2023, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, "50.00"),
+				lancamento(3L, 2023, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "20.25"),
+				lancamento(4L, 2023, 3, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, "9.75"));
+
+		//execucao
+		List<TotalAgrupado> porAnoEMes = service.totalizar(1L, EnumSet.of(DimensaoAnalise.ANO, DimensaoAnalise.MES), null, null);
+		List<TotalAgrupado> porStatus = service.totalizar(1L, EnumSet.of(DimensaoAnalise.STATUS), 2023, 2023);
+		List<TotalAgrupado> geral = service.totalizar(1L, Set.of(), null, null);
+
+		//verificacao
+		assertThat(porAnoEMes).extracting(TotalAgrupado::getAno, TotalAgrupado::getMes, TotalAgrupado::getQuantidade)
+			.containsExactly(
+					tuple(2022, 12, 1),
+					tuple(2023, 1, 2),
+					tuple(2023, 3, 1));
+		assertThat(porAnoEMes.get(1).getSaldo()).isEqualByComparingTo("29.75");
+		assertThat(porAnoEMes.get(0).getTipo()).isNull();
+
+		assertThat(porStatus).extracting(TotalAgrupado::getStatus)
+			.containsExactly(StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO);
+		assertThat(porStatus.get(1).getReceitas()).isEqualByComparingTo("50");
+		assertThat(porStatus.get(1).getDespesas()).isEqualByComparingTo("9.75");
+
+		assertThat(geral).hasSize(1);
+		assertThat(geral.get(0).getSaldo()).isEqualByComparingTo("120.10");
+		Mockito.verify(repository, Mockito.times(1)).streamPorUsuario(1L);
+	}
+
+	@Test
+	public void deveManterAsColunasAtualizadasPelasEscritasSemRecarregar() {
+		//cenario
+		carregarLancamentos(2L,
+				lancamento(10L, 2023, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, "100"),
+				lancamento(11L, 2023, 2, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "40"));
+		service.totalizar(2L, Set.of(), null, null);
+
+		Lancamento novo = lancamentoDoUsuario(2L, 12L, TipoLancamento.DESPESA, "15");
+		Mockito.when(repository.save(ArgumentMatchers.any(Lancamento.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+		Lancamento alterado = lancamentoDoUsuario(2L, 10L, TipoLancamento.RECEITA, "250");
+		Mockito.when(repository.findById(10L)).thenReturn(Optional.of(lancamentoDoUsuario(2L, 10L, TipoLancamento.RECEITA, "100")));
+
+		//execucao
+		lancamentoService.salvar(novo);
+		lancamentoService.atualizar(alterado);
+		lancamentoService.deletar(lancamentoDoUsuario(2L, 11L, TipoLancamento.DESPESA, "40"));
+		List<TotalAgrupado> totais = service.totalizar(2L, Set.of(), null, null);
+
+		//verificacao
+		assertThat(totais.get(0).getReceitas()).isEqualByComparingTo("250");
+		assertThat(totais.get(0).getDespesas()).isEqualByComparingTo("15");
+		assertThat(totais.get(0).getQuantidade()).isEqualTo(2);
+		Mockito.verify(repository, Mockito.times(1)).streamPorUsuario(2L);
+	}
+
+	@Test
+	public void deveMoverOLancamentoEntreAsCopiasDosUsuariosSemRecarregar() {
+		//cenario
+		carregarLancamentos(8L, lancamento(80L, 2023, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, "30"));
+		carregarLancamentos(9L, lancamento(90L, 2023, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, "5"));
+		service.totalizar(8L, Set.of(), null, null);
+		service.totalizar(9L, Set.of(), null, null);
+
+		Mockito.when(repository.save(ArgumentMatchers.any(Lancamento.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+		Mockito.when(repository.findById(80L)).thenReturn(Optional.of(lancamentoDoUsuario(8L, 80L, TipoLancamento.RECEITA, "30")));
+		Mockito.when(repository.atualizarStatusNaVersao(90L, 9L, 0L, null, StatusLancamento.EFETIVADO)).thenReturn(1);
+		Lancamento doOutroUsuario = lancamentoDoUsuario(9L, 90L, TipoLancamento.RECEITA, "5");
+		doOutroUsuario.setStatus(null);
+		doOutroUsuario.setVersao(0L);
+
+		//execucao
+		lancamentoService.atualizar(lancamentoDoUsuario(9L, 80L, TipoLancamento.RECEITA, "30"));
+		lancamentoService.atualizarStatus(doOutroUsuario, StatusLancamento.EFETIVADO);
+		List<TotalAgrupado> doPrimeiro = service.totalizar(8L, Set.of(), null, null);
+		List<TotalAgrupado> doSegundo = service.totalizar(9L, EnumSet.of(DimensaoAnalise.STATUS), null, null);
+
+		//verificacao
+		assertThat(doPrimeiro).isEmpty();
+		assertThat(doSegundo).extracting(TotalAgrupado::getStatus, TotalAgrupado::getQuantidade)
+			.containsExactly(tuple(StatusLancamento.PENDENTE, 1), tuple(StatusLancamento.EFETIVADO, 1));
+		Mockito.verify(repository, Mockito.times(1)).streamPorUsuario(8L);
+		Mockito.verify(repository, Mockito.times(1)).streamPorUsuario(9L);
+	}
+
+	@Test
+	public void deveDescartarOsUsuariosMenosUsadosAoExcederAMemoria() {
+		//cenario
+		for(long idUsuario = 3L; idUsuario <= 5L; idUsuario++) {
+			carregarLancamentos(idUsuario,
+					lancamento(idUsuario * 100, 2023, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, "10"));
+		}
+
+		//execucao
+		service.totalizar(3L, Set.of(), null, null);
+		service.totalizar(4L, Set.of(), null, null);
+		service.totalizar(3L, Set.of(), null, null);
+		service.totalizar(5L, Set.of(), null, null);
+		service.totalizar(3L, Set.of(), null, null);
+		service.totalizar(4L, Set.of(), null, null);
+
+		//verificacao
+		Mockito.verify(repository, Mockito.times(1)).streamPorUsuario(3L);
+		Mockito.verify(repository, Mockito.times(2)).streamPorUsuario(4L);
+	}
+
+	@Test
+	public void deveTotalizarNoBancoQuandoAsColunasNaoCabemNaMemoria() {
+		//cenario
+		LancamentoResumido[] lancamentos = new LancamentoResumido[40];
+		for(int i = 0; i < lancamentos.length; i++) {
+			lancamentos[i] = lancamento(600L + i, 2023, 1 + i % 2, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, "10");
+		}
+		carregarLancamentos(6L, lancamentos);
+		Mockito.when(repository.obterTotaisEQuantidadesPorPeriodo(6L, 2023, 2023)).thenReturn(List.of(
+				grupo(2023, 2, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, "200", 20),
+				grupo(2023, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, "200", 20)));
+
+		//execucao
+		List<TotalAgrupado> carregados = service.totalizar(6L, EnumSet.of(DimensaoAnalise.MES), 2023, 2023);
+		List<TotalAgrupado> doBanco = service.totalizar(6L, EnumSet.of(DimensaoAnalise.MES), 2023, 2023);
+
+		//verificacao
+		assertThat(doBanco).isEqualTo(carregados);
+		assertThat(doBanco).extracting(TotalAgrupado::getMes, TotalAgrupado::getQuantidade)
+			.containsExactly(tuple(1, 20), tuple(2, 20));
+		Mockito.verify(repository, Mockito.times(1)).streamPorUsuario(6L);
+		Mockito.verify(repository, Mockito.times(1)).obterTotaisEQuantidadesPorPeriodo(6L, 2023, 2023);
+	}
+
+	@Test
+	public void deveTotalizarNoBancoComAsCopiasDesligadas() {
+		//cenario
+		AnaliseLancamentoService desligada = new AnaliseLancamentoServiceImpl(repository, transactionManager, false,
+				DataSize.ofMegabytes(1), List.of());
+		Mockito.when(repository.obterTotaisEQuantidadesPorPeriodo(7L, Integer.MIN_VALUE, Integer.MAX_VALUE)).thenReturn(List.of(
+				grupo(2023, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, "30", 3),
+				grupo(2023, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, "10", 1)));
+
+		//execucao
+		List<TotalAgrupado> totais = desligada.totalizar(7L, Set.of(), null, null);
+
+		//verificacao
+		assertThat(totais).hasSize(1);
+		assertThat(totais.get(0).getSaldo()).isEqualByComparingTo("20");
+		assertThat(totais.get(0).getQuantidade()).isEqualTo(4);
+		Mockito.verify(repository, Mockito.never()).streamPorUsuario(7L);
+	}
+
+	@Test
+	public void naoDeveSubirComAsCopiasLigadasEReplicasDeLeitura() {
+		//execucao e verificacao
+		assertThatThrownBy(() -> new AnaliseLancamentoServiceImpl(repository, transactionManager, true,
+				DataSize.ofMegabytes(1), List.of("jdbc:postgresql://replica:5432/minhasfinancas")))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	private TotalEQuantidadePorPeriodo grupo(Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status,
+			String total, long quantidade) {
+		return new TotalEQuantidadePorPeriodo() {
+			public Integer getAno() { return ano; }
+			public Integer getMes() { return mes; }
+			public TipoLancamento getTipo() { return tipo; }
+			public StatusLancamento getStatus() { return status; }
+			public BigDecimal getTotal() { return new BigDecimal(total + ".00"); }
+			public Long getQuantidade() { return quantidade; }
+		};
+	}
+
+	private void carregarLancamentos(Long idUsuario, LancamentoResumido... lancamentos) {
+		Mockito.when(repository.streamPorUsuario(idUsuario)).thenAnswer(invocacao -> Stream.of(lancamentos));
+	}
+
+	private LancamentoResumido lancamento(Long id, int ano, int mes, TipoLancamento tipo, StatusLancamento status, String valor) {
+		return new LancamentoResumido(id, "Lancamento", mes, ano, new BigDecimal(valor), tipo, status, LocalDate.now());
+	}
+
+	private Lancamento lancamentoDoUsuario(Long idUsuario, Long id, TipoLancamento tipo, String valor) {
+		return Lancamento.builder()
+				.id(id)
+				.descricao("Lancamento")
+				.ano(2023)
+				.mes(1)
+				.valor(new BigDecimal(valor))
+				.tipo(tipo)
+				.status(StatusLancamento.PENDENTE)
+				.usuario(Usuario.builder().id(idUsuario).build())
+				.build();
+	}
+}
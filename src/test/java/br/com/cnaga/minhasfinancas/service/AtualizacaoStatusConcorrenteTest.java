@@ -0,0 +1,173 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.cnaga.minhasfinancas.exception.ConflitoConcorrenciaException;
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepositoryTest;
+
+/**
+ * Várias threads disputando a troca de status do mesmo lançamento no banco H2
+ * real: cada versão só pode ser vencida por uma delas.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class AtualizacaoStatusConcorrenteTest {
+
+	static final int THREADS = 16;
+	static final int TENTATIVAS = 25;
+
+	@Autowired
+	LancamentoService service;
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	Lancamento lancamento;
+
+	@BeforeEach
+	public void criarCenario() {
+		Usuario usuario = UsuarioRepositoryTest.salvarUsuario(usuarioRepository);
+
+		Lancamento novoLancamento = LancamentoRepositoryTest.criarLancamento(usuario);
+		lancamento = service.salvar(novoLancamento);
+	}
+
+	@Test
+	public void deveAceitarApenasUmaTrocaDeStatusPorVersao() throws Exception {
+		//execucao
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<Boolean>> resultados = new ArrayList<>();
+		try(ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+			for(int i = 0; i < THREADS; i++) {
+				resultados.add(executor.submit(() -> {
+					largada.await();
+					return trocarStatus(copiar(lancamento), StatusLancamento.EFETIVADO);
+				}));
+			}
+			largada.countDown();
+		}
+
+		//verificacao
+		int vencedoras = 0;
+		for(Future<Boolean> resultado : resultados) {
+			vencedoras += resultado.get() ? 1 : 0;
+		}
+		assertThat(vencedoras).isEqualTo(1);
+		Lancamento gravado = lancamentoRepository.findById(lancamento.getId()).get();
+		assertThat(gravado.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		assertThat(gravado.getVersao()).isEqualTo(lancamento.getVersao() + 1);
+	}
+
+	@Test
+	public void deveContarUmaVersaoPorTrocaDeStatusVencida() throws Exception {
+		//execucao
+		Set<Long> versoesVencidas = ConcurrentHashMap.newKeySet();
+		AtomicInteger conflitos = new AtomicInteger();
+		List<Future<?>> threads = new ArrayList<>();
+		try(ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+			for(int i = 0; i < THREADS; i++) {
+				threads.add(executor.submit(() -> {
+					for(int tentativa = 0; tentativa < TENTATIVAS; tentativa++) {
+						Lancamento lido = lancamentoRepository.findById(lancamento.getId()).get();
+						StatusLancamento novo = lido.getStatus() == StatusLancamento.PENDENTE
+								? StatusLancamento.EFETIVADO : StatusLancamento.PENDENTE;
+						Long versaoLida = lido.getVersao();
+						if(trocarStatus(lido, novo)) {
+							assertThat(versoesVencidas.add(versaoLida)).isTrue();
+						} else {
+							conflitos.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+		}
+
+		//verificacao
+		for(Future<?> thread : threads) {
+			thread.get();
+		}
+		Lancamento gravado = lancamentoRepository.findById(lancamento.getId()).get();
+		assertThat(versoesVencidas.size() + conflitos.get()).isEqualTo(THREADS * TENTATIVAS);
+		assertThat(gravado.getVersao()).isEqualTo(lancamento.getVersao() + versoesVencidas.size());
+		assertThat(gravado.getStatus()).isEqualTo(versoesVencidas.size() % 2 == 0
+				? StatusLancamento.PENDENTE : StatusLancamento.EFETIVADO);
+	}
+
+	@Test
+	public void deveRecusarGravacaoNaVersaoLidaAntesDeUmaTrocaDeStatusEmLote() {
+		//cenario
+		Lancamento lido = lancamentoRepository.findById(lancamento.getId()).get();
+		service.atualizarStatus(lancamento.getUsuario().getId(), List.of(lancamento.getId()), StatusLancamento.EFETIVADO);
+
+		//execucao
+		lido.setDescricao("alterada depois do lote");
+		Throwable erro = catchThrowable(() -> service.atualizar(lido));
+
+		//verificacao
+		assertThat(erro).isInstanceOf(ConflitoConcorrenciaException.class);
+		Lancamento gravado = lancamentoRepository.findById(lancamento.getId()).get();
+		assertThat(gravado.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		assertThat(gravado.getVersao()).isEqualTo(lido.getVersao() + 1);
+		assertThat(gravado.getDescricao()).isNotEqualTo("alterada depois do lote");
+	}
+
+	@Test
+	public void deveRecusarTrocaDeStatusNaVersaoLidaAntesDeUmaTrocaPorPeriodo() {
+		//cenario
+		Lancamento lido = lancamentoRepository.findById(lancamento.getId()).get();
+		service.atualizarStatus(lido.getUsuario().getId(), lido.getAno(), lido.getMes(), null, StatusLancamento.CAMCELADO);
+
+		//execucao
+		boolean trocou = trocarStatus(copiar(lido), StatusLancamento.EFETIVADO);
+
+		//verificacao
+		assertThat(trocou).isFalse();
+		assertThat(lancamentoRepository.findById(lancamento.getId()).get().getStatus()).isEqualTo(StatusLancamento.CAMCELADO);
+	}
+
+	private boolean trocarStatus(Lancamento lido, StatusLancamento status) {
+		try {
+			service.atualizarStatus(lido, status);
+			return true;
+		} catch (ConflitoConcorrenciaException e) {
+			return false;
+		}
+	}
+
+	private Lancamento copiar(Lancamento original) {
+		return Lancamento.builder()
+				.id(original.getId())
+				.usuario(original.getUsuario())
+				.status(original.getStatus())
+				.versao(original.getVersao())
+				.build();
+	}
+}
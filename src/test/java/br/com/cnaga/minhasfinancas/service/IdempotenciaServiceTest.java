@@ -0,0 +1,137 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import br.com.cnaga.minhasfinancas.exception.ConflitoIdempotenciaException;
+import br.com.cnaga.minhasfinancas.exception.ExecucaoPendenteException;
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.cnaga.minhasfinancas.service.impl.IdempotenciaServiceImpl;
+import br.com.cnaga.minhasfinancas.service.impl.InclusaoLancamentoServiceImpl;
+
+public class IdempotenciaServiceTest {
+
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	IdempotenciaService service = new IdempotenciaServiceImpl(registry, Duration.ofMinutes(5), 100);
+
+	@Test
+	public void deveExecutarUmaVezAsRequisicoesConcorrentesComAMesmaChave() throws Exception {
+		AtomicInteger execucoes = new AtomicInteger();
+		CompletableFuture<Void> liberar = new CompletableFuture<>();
+
+		List<Future<Integer>> resultados = new ArrayList<>();
+		try(ExecutorService executor = Executors.newFixedThreadPool(4)) {
+			for(int i = 0; i < 4; i++) {
+				resultados.add(executor.submit(() -> service.executar("chave", "requisicao", () -> {
+					liberar.join();
+					return execucoes.incrementAndGet();
+				})));
+			}
+			Thread.sleep(100);
+			liberar.complete(null);
+		}
+
+		for(Future<Integer> resultado : resultados) {
+			assertThat(resultado.get()).isEqualTo(1);
+		}
+		assertThat(service.executar("chave", "requisicao", execucoes::incrementAndGet)).isEqualTo(1);
+		assertThat(registry.get("minhasfinancas.idempotencia.requisicoes").tag("resultado", "repetida").counter().count()).isEqualTo(4);
+		assertThat(registry.get("minhasfinancas.idempotencia.chaves").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	public void deveRecusarAMesmaChaveComOutraRequisicao() {
+		service.executar("chave", "requisicao", () -> 1);
+
+		Throwable erro = catchThrowable(() -> service.executar("chave", "outra requisicao", () -> 2));
+
+		assertThat(erro).isInstanceOf(ConflitoIdempotenciaException.class);
+	}
+
+	@Test
+	public void naoDeveGuardarUmaExecucaoQueFalhou() {
+		Throwable erro = catchThrowable(() -> service.executar("chave", "requisicao", () -> {
+			throw new IllegalStateException("falha");
+		}));
+
+		assertThat(erro).isInstanceOf(IllegalStateException.class);
+		assertThat(service.executar("chave", "requisicao", () -> 1)).isEqualTo(1);
+	}
+
+	@Test
+	public void deveResponderAsRepeticoesComOResultadoDaExecucaoPendente() {
+		CompletableFuture<Integer> pendente = new CompletableFuture<>();
+		Throwable erro = catchThrowable(() -> service.executar("chave", "requisicao", () -> {
+			throw new ExecucaoPendenteException("pendente", pendente);
+		}));
+
+		pendente.complete(1);
+
+		assertThat(erro).isInstanceOf(ExecucaoPendenteException.class);
+		assertThat(service.executar("chave", "requisicao", () -> 2)).isEqualTo(1);
+	}
+
+	@Test
+	public void deveRepetirAInclusaoAgrupadaNaoConfirmadaSemGravarDeNovo() throws Exception {
+		//cenario
+		LancamentoService lancamentoService = Mockito.mock(LancamentoService.class);
+		CountDownLatch liberar = new CountDownLatch(1);
+		Mockito.doAnswer(invocacao -> {
+			liberar.await();
+			List<Lancamento> lote = invocacao.getArgument(0);
+			lote.forEach(lancamento -> lancamento.setId(10L));
+			return null;
+		}).when(lancamentoService).salvarTodos(Mockito.any());
+		InclusaoLancamentoServiceImpl inclusao = new InclusaoLancamentoServiceImpl(lancamentoService,
+				new SimpleMeterRegistry(), true, Duration.ofMillis(5), 100, 1, 10, Duration.ofMillis(200));
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento(Usuario.builder().id(1L).build());
+
+		//execucao
+		Throwable erro = catchThrowable(() -> service.executar("chave", "requisicao", () -> inclusao.salvar(lancamento)));
+		Future<Lancamento> repeticao;
+		try(ExecutorService executor = Executors.newSingleThreadExecutor()) {
+			repeticao = executor.submit(() -> service.executar("chave", "requisicao",
+					() -> inclusao.salvar(LancamentoRepositoryTest.criarLancamento(Usuario.builder().id(1L).build()))));
+			Thread.sleep(100);
+			liberar.countDown();
+		}
+
+		//verificacao
+		assertThat(erro).isInstanceOf(ExecucaoPendenteException.class);
+		assertThat(repeticao.get()).isSameAs(lancamento);
+		assertThat(repeticao.get().getId()).isEqualTo(10L);
+		assertThat(service.executar("chave", "requisicao", () -> (Lancamento) null)).isSameAs(lancamento);
+		Mockito.verify(lancamentoService, Mockito.times(1)).salvarTodos(Mockito.any());
+		Mockito.verify(lancamentoService, Mockito.never()).salvar(Mockito.any());
+		inclusao.destroy();
+	}
+
+	@Test
+	public void deveLiberarAChaveQuandoAExecucaoPendenteFalha() {
+		CompletableFuture<Integer> pendente = new CompletableFuture<>();
+		catchThrowable(() -> service.executar("chave", "requisicao", () -> {
+			throw new ExecucaoPendenteException("pendente", pendente);
+		}));
+
+		pendente.completeExceptionally(new IllegalStateException("falha"));
+
+		assertThat(service.executar("chave", "requisicao", () -> 2)).isEqualTo(2);
+	}
+}
@@ -0,0 +1,157 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import br.com.cnaga.minhasfinancas.exception.ExecucaoPendenteException;
+import br.com.cnaga.minhasfinancas.exception.LimiteExcedidoException;
+import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepositoryTest;
+import br.com.cnaga.minhasfinancas.service.impl.InclusaoLancamentoServiceImpl;
+
+@SpringBootTest(properties = {
+		"minhasfinancas.inclusao-agrupada.habilitada=true",
+		"minhasfinancas.inclusao-agrupada.espera=500ms",
+		"minhasfinancas.inclusao-agrupada.threads=1" })
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class InclusaoLancamentoServiceTest {
+
+	static final int CLIENTES = 8;
+
+	@Autowired
+	InclusaoLancamentoService service;
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	MeterRegistry registry;
+
+	@Test
+	public void deveGravarAsInclusoesConcorrentesNoMesmoLote() throws Exception {
+		//cenario
+		Usuario usuario = UsuarioRepositoryTest.salvarUsuario(usuarioRepository);
+		Usuario inexistente = Usuario.builder().id(-1L).build();
+
+		//execucao
+		List<Future<Lancamento>> resultados = new ArrayList<>();
+		Future<Lancamento> resultadoInexistente;
+		try(ExecutorService executor = Executors.newFixedThreadPool(CLIENTES + 1)) {
+			for(int i = 0; i < CLIENTES; i++) {
+				resultados.add(executor.submit(() -> service.salvar(LancamentoRepositoryTest.criarLancamento(usuario))));
+			}
+			resultadoInexistente = executor.submit(() -> service.salvar(LancamentoRepositoryTest.criarLancamento(inexistente)));
+		}
+
+		//verificacao
+		for(Future<Lancamento> resultado : resultados) {
+			assertThat(lancamentoRepository.findById(resultado.get().getId())).isPresent();
+		}
+		Throwable erro = catchThrowable(resultadoInexistente::get);
+		assertThat(erro).hasCauseInstanceOf(RegraNegocioException.class);
+		assertThat(registry.get("minhasfinancas.inclusao.lote").summary().max()).isGreaterThan(1);
+	}
+
+	@Test
+	public void deveRecusarNaChamadaUmLancamentoInvalido() {
+		//cenario
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento(UsuarioRepositoryTest.salvarUsuario(usuarioRepository));
+		lancamento.setDescricao(null);
+
+		//execucao
+		Throwable erro = catchThrowable(() -> service.salvar(lancamento));
+
+		//verificacao
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe uma descrição válida.");
+		assertThat(lancamento.getId()).isNull();
+	}
+
+	@Test
+	public void deveGravarSozinhaAInclusaoQueNaoCabeNaFila() throws Exception {
+		//cenario
+		LancamentoService lancamentoService = Mockito.mock(LancamentoService.class);
+		InclusaoLancamentoServiceImpl semGravadores = semGravadores(lancamentoService, Duration.ofSeconds(1));
+		Lancamento primeiro = LancamentoRepositoryTest.criarLancamento(Usuario.builder().id(1L).build());
+		Lancamento segundo = LancamentoRepositoryTest.criarLancamento(Usuario.builder().id(1L).build());
+		Mockito.when(lancamentoService.salvar(Mockito.same(segundo))).thenReturn(segundo);
+
+		//execucao
+		AtomicReference<Thread> naFila = new AtomicReference<>();
+		Throwable erroPrimeiro;
+		Lancamento salvo;
+		try(ExecutorService executor = Executors.newSingleThreadExecutor()) {
+			Future<Lancamento> resultadoPrimeiro = executor.submit(() -> {
+				naFila.set(Thread.currentThread());
+				return semGravadores.salvar(primeiro);
+			});
+			while(naFila.get() == null || naFila.get().getState() != Thread.State.WAITING) {
+				Thread.onSpinWait();
+			}
+			salvo = semGravadores.salvar(segundo);
+			erroPrimeiro = catchThrowable(resultadoPrimeiro::get);
+		}
+
+		//verificacao
+		assertThat(salvo).isSameAs(segundo);
+		assertThat(erroPrimeiro).hasCauseInstanceOf(LimiteExcedidoException.class)
+			.hasMessageContaining("não foi gravada a tempo");
+		semGravadores.destroy();
+		Mockito.verify(lancamentoService, Mockito.never()).salvar(Mockito.same(primeiro));
+		Mockito.verify(lancamentoService, Mockito.never()).salvarTodos(Mockito.any());
+	}
+
+	@Test
+	public void deveEntregarOResultadoDoLoteQuandoOTempoEsgotaDuranteAGravacao() throws Exception {
+		//cenario
+		LancamentoService lancamentoService = Mockito.mock(LancamentoService.class);
+		CountDownLatch liberar = new CountDownLatch(1);
+		Mockito.doAnswer(invocacao -> {
+			liberar.await();
+			return null;
+		}).when(lancamentoService).salvarTodos(Mockito.any());
+		InclusaoLancamentoServiceImpl lento = new InclusaoLancamentoServiceImpl(lancamentoService,
+				new SimpleMeterRegistry(), true, Duration.ofMillis(5), 100, 1, 10, Duration.ofMillis(200));
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento(Usuario.builder().id(1L).build());
+
+		//execucao
+		Throwable erro = catchThrowable(() -> lento.salvar(lancamento));
+		liberar.countDown();
+
+		//verificacao
+		assertThat(erro).isInstanceOf(ExecucaoPendenteException.class).hasMessageContaining("pode ter sido gravada");
+		assertThat(((ExecucaoPendenteException) erro).getResultado().get(5, TimeUnit.SECONDS)).isSameAs(lancamento);
+		lento.destroy();
+	}
+
+	private InclusaoLancamentoServiceImpl semGravadores(LancamentoService lancamentoService, Duration tempoMaximo) {
+		return new InclusaoLancamentoServiceImpl(lancamentoService, new SimpleMeterRegistry(), true,
+				Duration.ofMillis(5), 100, 0, 1, tempoMaximo);
+	}
+}
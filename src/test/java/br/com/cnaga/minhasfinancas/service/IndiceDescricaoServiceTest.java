@@ -0,0 +1,154 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.cnaga.minhasfinancas.service.impl.IndiceDescricaoServiceImpl;
+
+@SpringBootTest(properties = "minhasfinancas.descricao.indice.habilitado=true")
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class IndiceDescricaoServiceTest {
+
+	@Autowired
+	IndiceDescricaoService service;
+	@Autowired
+	LancamentoService lancamentoService;
+	@MockBean
+	LancamentoRepository repository;
+	@MockBean
+	SaldoUsuarioService saldoService;
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Test
+	public void deveBuscarIgnorandoACaixaComoOLikeDoBanco() {
+		//cenario
+		carregarLancamentos(1L,
+				lancamento(1L, "Conta de Água"),
+				lancamento(2L, "Salário"),
+				lancamento(3L, "Pagamento  PENDENTE de reembolso"),
+				lancamento(4L, "Água mineral"));
+
+		//execucao e verificacao
+		assertThat(service.buscar(1L, "água")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L, 4L));
+		assertThat(service.buscar(1L, "ÁGUA")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L, 4L));
+		assertThat(service.buscar(1L, "agua")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+		assertThat(service.buscar(1L, "de Ág")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L));
+		assertThat(service.buscar(1L, "pagamento  pendente")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(3L));
+		assertThat(service.buscar(1L, "pagamento pendente")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+		assertThat(service.buscar(1L, "ag")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(3L));
+		assertThat(service.buscar(1L, "águas")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+		assertThat(service.buscar(1L, "")).isEmpty();
+		assertThat(service.buscar(null, "agua")).isEmpty();
+		Mockito.verify(repository, Mockito.times(1)).streamPorUsuario(1L);
+	}
+
+	@Test
+	public void deveManterOIndiceAtualizadoPelasEscritasSemRecarregar() {
+		//cenario
+		carregarLancamentos(2L,
+				lancamento(10L, "Aluguel"),
+				lancamento(11L, "Conta de luz"));
+		service.buscar(2L, "conta");
+
+		Mockito.when(repository.save(ArgumentMatchers.any(Lancamento.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+		Mockito.when(repository.findById(10L)).thenReturn(Optional.of(lancamentoDoUsuario(2L, 10L, "Aluguel")));
+
+		//execucao
+		lancamentoService.salvar(lancamentoDoUsuario(2L, 12L, "Conta de água"));
+		lancamentoService.atualizar(lancamentoDoUsuario(2L, 10L, "Conta do aluguel"));
+		lancamentoService.deletar(lancamentoDoUsuario(2L, 11L, "Conta de luz"));
+
+		//verificacao
+		assertThat(service.buscar(2L, "conta")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(10L, 12L));
+		assertThat(service.buscar(2L, "aluguel")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(10L));
+		assertThat(service.buscar(2L, "luz")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+		Mockito.verify(repository, Mockito.times(1)).streamPorUsuario(2L);
+	}
+
+	@Test
+	public void deveReconstruirOIndiceAPartirDoRepositorio() {
+		//cenario
+		carregarLancamentos(3L, lancamento(20L, "Mercado"));
+		service.buscar(3L, "mercado");
+		carregarLancamentos(3L, lancamento(20L, "Mercado"), lancamento(21L, "Mercado da esquina"));
+
+		//execucao
+		service.reconstruir(3L);
+
+		//verificacao
+		assertThat(service.buscar(3L, "mercado")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(20L, 21L));
+		Mockito.verify(repository, Mockito.times(2)).streamPorUsuario(3L);
+	}
+
+	@Test
+	public void deveDevolverABuscaAoBancoQuandoOIndiceNaoCabeNaMemoria() {
+		//cenario
+		IndiceDescricaoService pequeno = new IndiceDescricaoServiceImpl(repository, transactionManager, true,
+				DataSize.ofBytes(100), List.of());
+		carregarLancamentos(4L, lancamento(30L, "Mercado"), lancamento(31L, "Farmacia"));
+
+		//execucao
+		Optional<long[]> primeira = pequeno.buscar(4L, "mercado");
+		Optional<long[]> segunda = pequeno.buscar(4L, "mercado");
+
+		//verificacao
+		assertThat(primeira).hasValueSatisfying(ids -> assertThat(ids).containsExactly(30L));
+		assertThat(segunda).isEmpty();
+		Mockito.verify(repository, Mockito.times(1)).streamPorUsuario(4L);
+	}
+
+	@Test
+	public void naoDevePermitirOIndiceComReplicasDeLeitura() {
+		assertThatThrownBy(() -> new IndiceDescricaoServiceImpl(repository, transactionManager, true,
+				DataSize.ofMegabytes(1), List.of("jdbc:postgresql://replica:5432/minhasfinancas")))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	private void carregarLancamentos(Long idUsuario, LancamentoResumido... lancamentos) {
+		Mockito.when(repository.streamPorUsuario(idUsuario)).thenAnswer(invocacao -> Stream.of(lancamentos));
+	}
+
+	private LancamentoResumido lancamento(Long id, String descricao) {
+		return new LancamentoResumido(id, descricao, 1, 2023, BigDecimal.TEN, TipoLancamento.DESPESA,
+				StatusLancamento.PENDENTE, LocalDate.now());
+	}
+
+	private Lancamento lancamentoDoUsuario(Long idUsuario, Long id, String descricao) {
+		return Lancamento.builder()
+				.id(id)
+				.descricao(descricao)
+				.ano(2023)
+				.mes(1)
+				.valor(BigDecimal.TEN)
+				.tipo(TipoLancamento.DESPESA)
+				.status(StatusLancamento.PENDENTE)
+				.usuario(Usuario.builder().id(idUsuario).build())
+				.build();
+	}
+}
@@ -6,8 +6,12 @@ import static org.assertj.core.api.Assertions.catchThrowableOfType;
 import static org.mockito.Mockito.mock;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -16,20 +20,24 @@ import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import br.com.cnaga.minhasfinancas.exception.ConflitoConcorrenciaException;
 import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
 import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
 import br.com.cnaga.minhasfinancas.model.entity.Usuario;
 import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
 import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido;
+import br.com.cnaga.minhasfinancas.model.projection.TotalPorPeriodo;
 import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepository;
 import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepositoryTest;
 import br.com.cnaga.minhasfinancas.service.impl.LancamentoServiceImpl;
 
-@SpringBootTest
+@SpringBootTest(properties = "minhasfinancas.lancamentos.status.ids-por-comando=3")
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 public class LancamentoServiceTest {
@@ -38,6 +46,8 @@ public class LancamentoServiceTest {
 	LancamentoServiceImpl service;
 	@MockBean
 	LancamentoRepository repository;
+	@MockBean
+	SaldoUsuarioService saldoService;
 	
 	@Test
 	public void deveSalvarUmLancamento() {
@@ -56,6 +66,7 @@ public class LancamentoServiceTest {
 		//verificacao
 		Assertions.assertEquals(lancamento.getId(), lancamentoSalvo.getId());
 		Assertions.assertEquals(lancamento.getStatus(), StatusLancamento.PENDENTE);
+		Mockito.verify(saldoService).registrarInclusao(lancamentoSalvo);
 	}
 	
 	@Test
@@ -71,6 +82,37 @@ public class LancamentoServiceTest {
 
 	}
 	
+	@Test
+	public void deveInformarUsuarioNaoEncontradoQuandoAChaveDoUsuarioForViolada() {
+		//cenario
+		Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
+		Mockito.doNothing().when(service).validar(lancamentoASalvar);
+		Mockito.when(repository.save(lancamentoASalvar)).thenThrow(new DataIntegrityViolationException("violação",
+				new SQLException("Referential integrity constraint violation: FINANCAS.LANCAMENTO FOREIGN KEY(ID_USUARIO)", "23506")));
+		
+		//execucao
+		Throwable erro = catchThrowable(() -> service.salvar(lancamentoASalvar));
+		
+		//verificacao
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Usuário não encontrado com o id informado.");
+	}
+	
+	@Test
+	public void deveManterAsDemaisViolacoesDeIntegridadeAoSalvar() {
+		//cenario
+		Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
+		Mockito.doNothing().when(service).validar(lancamentoASalvar);
+		DataIntegrityViolationException violacao = new DataIntegrityViolationException("violação",
+				new SQLException("Value too long for column DESCRICAO", "22001"));
+		Mockito.when(repository.save(lancamentoASalvar)).thenThrow(violacao);
+		
+		//execucao
+		Throwable erro = catchThrowable(() -> service.salvar(lancamentoASalvar));
+		
+		//verificacao
+		assertThat(erro).isSameAs(violacao);
+	}
+	
 	@Test
 	public void deveLancarErroAoTentarAtualizarUmLancamentoQueAindaNaoFoiSalvo() {
 		//cenario
@@ -101,6 +143,48 @@ public class LancamentoServiceTest {
 		Mockito.verify(repository, Mockito.times(1)).save(lancamentoSalvo);
 	}	
 	
+	@Test
+	public void deveSalvarVariosLancamentosEAcumularOSaldoUmaUnicaVez() {
+		//cenario
+		Lancamento pendente = LancamentoRepositoryTest.criarLancamento();
+		pendente.setStatus(null);
+		Lancamento efetivado = LancamentoRepositoryTest.criarLancamento();
+		efetivado.setStatus(StatusLancamento.EFETIVADO);
+		List<Lancamento> lancamentos = List.of(pendente, efetivado);
+		
+		//execucao
+		service.salvarTodos(lancamentos);
+		
+		//verificacao
+		Mockito.verify(repository).saveAll(lancamentos);
+		Mockito.verify(saldoService).registrarInclusoes(lancamentos);
+		assertThat(pendente.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		assertThat(efetivado.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+	}
+	
+	@Test
+	public void deveRegistrarNoSaldoAsAlteracoesDeUmLancamento() {
+		//cenario
+		Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
+		lancamentoSalvo.setId(1L);
+		
+		Lancamento lancamentoAlterado = LancamentoRepositoryTest.criarLancamento();
+		lancamentoAlterado.setId(1L);
+		lancamentoAlterado.setValor(BigDecimal.valueOf(20));
+		
+		Mockito.doNothing().when(service).validar(lancamentoAlterado);
+		Mockito.when(repository.findById(1L)).thenReturn(Optional.of(lancamentoSalvo));
+		Mockito.when(repository.save(lancamentoAlterado)).thenReturn(lancamentoAlterado);
+		
+		//execucao
+		service.atualizar(lancamentoAlterado);
+		
+		//verificacao
+		Mockito.verify(saldoService).registrarAlteracao(
+				Mockito.argThat(anterior -> anterior.getValor().equals(lancamentoSalvo.getValor())),
+				Mockito.eq(lancamentoAlterado));
+	}
+	
 	@Test
 	public void deveDeletarUmLancamento() {
 		//cenario
@@ -112,6 +196,7 @@ public class LancamentoServiceTest {
 		
 		//verificacao
 		Mockito.verify(repository).delete(lancamento);
+		Mockito.verify(saldoService).registrarExclusao(lancamento);
 	}
 	
 	@Test
@@ -142,20 +227,141 @@ public class LancamentoServiceTest {
 		assertThat(resultado).isNotEmpty().hasSize(1).contains(lancamento);
 	}
 	
+	@Test
+	public void deveRetornarAProximaPaginaQuandoHouverMaisLancamentos() {
+		//cenario
+		Lancamento filtro = LancamentoRepositoryTest.criarLancamento();
+		List<Lancamento> lista = List.of(lancamentoComId(1L), lancamentoComId(2L), lancamentoComId(3L));
+		Mockito.when(repository.buscarPagina(Mockito.any(Example.class), Mockito.isNull(), Mockito.eq(3))).thenReturn(lista);
+		
+		//execucao
+		Pagina<Lancamento> pagina = service.buscar(filtro, null, 2);
+		
+		//verificacao
+		assertThat(pagina.getConteudo()).hasSize(2);
+		assertThat(pagina.getProximoCursor()).isEqualTo(2L);
+	}
+	
+	@Test
+	public void naoDeveRetornarCursorNaUltimaPagina() {
+		//cenario
+		Lancamento filtro = LancamentoRepositoryTest.criarLancamento();
+		List<Lancamento> lista = List.of(lancamentoComId(3L));
+		Mockito.when(repository.buscarPagina(Mockito.any(Example.class), Mockito.eq(2L), Mockito.eq(3))).thenReturn(lista);
+		
+		//execucao
+		Pagina<Lancamento> pagina = service.buscar(filtro, 2L, 2);
+		
+		//verificacao
+		assertThat(pagina.getConteudo()).hasSize(1);
+		assertThat(pagina.getProximoCursor()).isNull();
+	}
+	
+	@Test
+	public void deveLimitarOTamanhoDaPaginaAoMaximoPermitido() {
+		//cenario
+		Lancamento filtro = LancamentoRepositoryTest.criarLancamento();
+		Mockito.when(repository.buscarPagina(Mockito.any(Example.class), Mockito.any(), Mockito.anyInt())).thenReturn(List.of());
+		
+		//execucao
+		service.buscar(filtro, null, Integer.MAX_VALUE);
+		
+		//verificacao
+		Mockito.verify(repository).buscarPagina(Mockito.any(Example.class), Mockito.isNull(), Mockito.eq(501));
+	}
+	
+	@Test
+	public void deveExportarOsLancamentosDoUsuarioEFecharOStream() {
+		//cenario
+		List<Boolean> fechado = new ArrayList<>();
+		Stream<LancamentoResumido> lancamentos = Stream.of(new LancamentoResumido(), new LancamentoResumido())
+				.onClose(() -> fechado.add(true));
+		Mockito.when(repository.streamPorUsuario(1L)).thenReturn(lancamentos);
+		
+		//execucao
+		List<LancamentoResumido> exportados = new ArrayList<>();
+		service.exportar(1L, exportados::add);
+		
+		//verificacao
+		assertThat(exportados).hasSize(2);
+		assertThat(fechado).containsExactly(true);
+	}
+	
 	@Test 
 	public void deveAtualizarStatusDeUmLancamento() {
 		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
 		lancamento.setId(1L);
 		lancamento.setStatus(StatusLancamento.PENDENTE);
+		lancamento.setVersao(3L);
 		
 		StatusLancamento novoStatus = StatusLancamento.EFETIVADO;
 	
-		Mockito.doReturn(lancamento).when(service).atualizar(lancamento);
+		Mockito.when(repository.atualizarStatusNaVersao(1L, null, 3L, StatusLancamento.PENDENTE, novoStatus)).thenReturn(1);
 		
 		service.atualizarStatus(lancamento, novoStatus);
 		
 		assertThat(lancamento.getStatus()).isEqualTo(novoStatus);
-		Mockito.verify(service).atualizar(lancamento);
+		assertThat(lancamento.getVersao()).isEqualTo(4L);
+		Mockito.verify(service, Mockito.never()).atualizar(lancamento);
+		Mockito.verify(repository, Mockito.never()).findById(Mockito.any());
+	}
+	
+	@Test
+	public void deveLancarConflitoAoAtualizarStatusDeUmLancamentoAlteradoPorOutraRequisicao() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1L);
+		lancamento.setStatus(StatusLancamento.PENDENTE);
+		lancamento.setVersao(3L);
+		
+		Mockito.when(repository.atualizarStatusNaVersao(1L, null, 3L, StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO)).thenReturn(0);
+		
+		Throwable erro = catchThrowable(() -> service.atualizarStatus(lancamento, StatusLancamento.EFETIVADO));
+		
+		assertThat(erro).isInstanceOf(ConflitoConcorrenciaException.class);
+		assertThat(lancamento.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		assertThat(lancamento.getVersao()).isEqualTo(3L);
+	}
+	
+	@Test
+	public void deveEfetivarEmLoteApenasLancamentosPendentes() {
+		List<Long> ids = List.of(1L, 2L, 3L);
+		Mockito.when(repository.atualizarStatusPorIds(1L, ids, EnumSet.of(StatusLancamento.PENDENTE), StatusLancamento.EFETIVADO))
+			.thenReturn(2);
+		
+		int atualizados = service.atualizarStatus(1L, ids, StatusLancamento.EFETIVADO);
+		
+		assertThat(atualizados).isEqualTo(2);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Lancamento.class));
+	}
+	
+	@Test
+	public void deveDividirOsIdsDaAtualizacaoEmLotePeloLimiteDoComando() {
+		Mockito.when(repository.atualizarStatusPorIds(1L, List.of(1L, 2L, 3L), EnumSet.of(StatusLancamento.PENDENTE), StatusLancamento.EFETIVADO))
+			.thenReturn(3);
+		Mockito.when(repository.atualizarStatusPorIds(1L, List.of(4L), EnumSet.of(StatusLancamento.PENDENTE), StatusLancamento.EFETIVADO))
+			.thenReturn(1);
+		
+		int atualizados = service.atualizarStatus(1L, List.of(1L, 2L, 3L, 4L), StatusLancamento.EFETIVADO);
+		
+		assertThat(atualizados).isEqualTo(4);
+		Mockito.verify(repository, Mockito.times(2)).atualizarStatusPorIds(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void naoDeveAtualizarEmLotePorIdsSemUsuario() {
+		Throwable erro = catchThrowable(() -> service.atualizarStatus(null, List.of(1L), StatusLancamento.EFETIVADO));
+		
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um Usuário.");
+		Mockito.verify(repository, Mockito.never()).atualizarStatusPorIds(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void naoDeveAtualizarEmLoteUmaTransicaoDeStatusNaoPermitida() {
+		Throwable erro = catchThrowable(() -> service.atualizarStatus(1L, 2023, 2, StatusLancamento.EFETIVADO, StatusLancamento.CAMCELADO));
+		
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Transição de status não permitida.");
+		Mockito.verify(repository, Mockito.never())
+			.atualizarStatusPorPeriodo(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
 	}
 	
 	@Test
@@ -186,6 +392,33 @@ public class LancamentoServiceTest {
 		Assertions.assertFalse(resultado.isPresent());
 	}	
 	
+	@Test
+	public void deveObterOSaldoDoUsuarioPeloSaldoAcumulado() {
+		Mockito.when(saldoService.obterSaldo(1L)).thenReturn(BigDecimal.TEN);
+		
+		BigDecimal saldo = service.obterSaldoPorUsuario(1L);
+		
+		assertThat(saldo).isEqualTo(BigDecimal.TEN);
+		Mockito.verify(repository, Mockito.never()).obterSaldoPorTipoLancamentoEUsuario(Mockito.anyLong(), Mockito.any());
+	}
+	
+	@Test
+	public void deveAgruparOsTotaisPorMes() {
+		Mockito.when(repository.obterTotaisPorPeriodo(1L, 2023)).thenReturn(List.of(
+				total(2023, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100),
+				total(2023, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 50),
+				total(2023, 1, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 30),
+				total(2023, 2, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 10)));
+		
+		List<ResumoMensal> resumo = service.obterResumoMensal(1L, 2023, false);
+		List<ResumoMensal> resumoPorStatus = service.obterResumoMensal(1L, 2023, true);
+		
+		assertThat(resumo).hasSize(2);
+		assertThat(resumo.get(0).getSaldo()).isEqualByComparingTo(BigDecimal.valueOf(120));
+		assertThat(resumo.get(1).getSaldo()).isEqualByComparingTo(BigDecimal.valueOf(-10));
+		assertThat(resumoPorStatus).hasSize(3);
+	}
+	
 	@Test
 	public void deveLancarErroAoValidarUmLancamento() {
 		
@@ -223,4 +456,20 @@ public class LancamentoServiceTest {
 		lancamento.setTipo(TipoLancamento.DESPESA);
 	
 	} 
+
+	private TotalPorPeriodo total(Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status, int valor) {
+		return new TotalPorPeriodo() {
+			public Integer getAno() { return ano; }
+			public Integer getMes() { return mes; }
+			public TipoLancamento getTipo() { return tipo; }
+			public StatusLancamento getStatus() { return status; }
+			public BigDecimal getTotal() { return BigDecimal.valueOf(valor); }
+		};
+	}
+
+	private Lancamento lancamentoComId(Long id) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(id);
+		return lancamento;
+	}
 }
@@ -0,0 +1,205 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.unit.DataSize;
+
+import br.com.cnaga.minhasfinancas.exception.LimiteExcedidoException;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.enums.StatusRelatorio;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.model.projection.LancamentoResumido;
+import br.com.cnaga.minhasfinancas.model.projection.TotalPorTipo;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.cnaga.minhasfinancas.service.RelatorioAnual.SaldoMensal;
+import br.com.cnaga.minhasfinancas.service.impl.RelatorioServiceImpl;
+
+@SpringBootTest(properties = {
+		"minhasfinancas.relatorio.tamanho-lote=2",
+		"minhasfinancas.relatorio.maximo-por-usuario=2",
+		"minhasfinancas.relatorio.memoria-maxima=2KB" })
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class RelatorioServiceTest {
+
+	@SpyBean
+	RelatorioServiceImpl service;
+	@MockBean
+	LancamentoRepository repository;
+
+	CountDownLatch liberacao = new CountDownLatch(1);
+
+	@AfterEach
+	public void liberarTarefas() {
+		liberacao.countDown();
+	}
+
+	@Test
+	public void deveGerarORelatorioLendoOsLancamentosEmLotes() {
+		//cenario
+		Mockito.when(repository.obterTotaisPorTipoAntesDoAno(1L, 2023))
+			.thenReturn(List.of(total(TipoLancamento.RECEITA, 100), total(TipoLancamento.DESPESA, 30)));
+		Mockito.when(repository.buscarResumidosPorAno(1L, 2023, 0L, Limit.of(2)))
+			.thenReturn(List.of(
+					lancamento(1L, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 50),
+					lancamento(2L, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 20)));
+		Mockito.when(repository.buscarResumidosPorAno(1L, 2023, 2L, Limit.of(2)))
+			.thenReturn(List.of(
+					lancamento(3L, 3, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 10)));
+
+		//execucao
+		RelatorioAnual relatorio = service.gerar(1L, 2023);
+
+		//verificacao
+		assertThat(relatorio.getSaldoInicial()).isEqualByComparingTo("70");
+		assertThat(relatorio.getLancamentos()).extracting(LancamentoResumido::getId).containsExactly(1L, 2L, 3L);
+		assertThat(relatorio.getTotais()).hasSize(3);
+		assertThat(relatorio.getTotais().get(0).getMes()).isEqualTo(1);
+		assertThat(relatorio.getTotais().get(0).getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		assertThat(relatorio.getTotais().get(0).getDespesas()).isEqualByComparingTo("20");
+		assertThat(relatorio.getSaldos()).hasSize(12);
+		assertThat(relatorio.getSaldos()).extracting(SaldoMensal::saldo)
+			.usingElementComparator(BigDecimal::compareTo)
+			.startsWith(BigDecimal.valueOf(100), BigDecimal.valueOf(100), BigDecimal.valueOf(90))
+			.endsWith(BigDecimal.valueOf(90));
+	}
+
+	@Test
+	public void deveReaproveitarATarefaDoMesmoUsuarioEAno() throws Exception {
+		//cenario
+		bloquearLeitura();
+
+		//execucao
+		SituacaoRelatorio primeira = service.solicitar(2L, 2023);
+		SituacaoRelatorio segunda = service.solicitar(2L, 2023);
+		liberacao.countDown();
+
+		//verificacao
+		assertThat(segunda.getId()).isEqualTo(primeira.getId());
+		assertThat(aguardarConclusao(primeira.getId())).isEqualTo(StatusRelatorio.CONCLUIDO);
+		assertThat(service.obterRelatorio(primeira.getId())).isPresent();
+		assertThat(service.solicitar(2L, 2023).getId()).isEqualTo(primeira.getId());
+	}
+
+	@Test
+	public void deveLimitarOsRelatoriosEmAndamentoPorUsuario() {
+		//cenario
+		bloquearLeitura();
+		service.solicitar(3L, 2021);
+		service.solicitar(3L, 2022);
+
+		//execucao
+		Throwable erro = catchThrowable(() -> service.solicitar(3L, 2023));
+
+		//verificacao
+		assertThat(erro).isInstanceOf(LimiteExcedidoException.class)
+			.hasMessage("Limite de relatórios em andamento para o usuário atingido.");
+		assertThat(service.solicitar(4L, 2023).getStatus()).isEqualTo(StatusRelatorio.EM_ANDAMENTO);
+	}
+
+	@Test
+	public void deveFalharSemGuardarORelatorioQueNaoCabeNaMemoria() throws Exception {
+		//cenario
+		LancamentoResumido grande = lancamento(1L, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 50);
+		grande.setDescricao("x".repeat(1000));
+		Mockito.when(repository.buscarResumidosPorAno(5L, 2023, 0L, Limit.of(2))).thenReturn(List.of(grande));
+		RelatorioServiceImpl isolado = isolado();
+
+		try {
+			//execucao
+			SituacaoRelatorio situacao = isolado.solicitar(5L, 2023);
+
+			//verificacao
+			assertThat(aguardarConclusao(isolado, situacao.getId())).isEqualTo(StatusRelatorio.FALHOU);
+			assertThat(isolado.obterSituacao(situacao.getId()).get().getErro())
+				.isEqualTo("O relatório excede a memória reservada aos relatórios.");
+			assertThat(isolado.obterRelatorio(situacao.getId())).isEmpty();
+		} finally {
+			isolado.destroy();
+		}
+	}
+
+	@Test
+	public void deveInterromperAGeracaoNoLoteQuePassaDaMemoria() throws Exception {
+		//cenario
+		LancamentoResumido primeiro = lancamento(1L, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 50);
+		primeiro.setDescricao("x".repeat(500));
+		LancamentoResumido segundo = lancamento(2L, 1, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 50);
+		segundo.setDescricao("x".repeat(500));
+		Mockito.when(repository.buscarResumidosPorAno(6L, 2023, 0L, Limit.of(2))).thenReturn(List.of(primeiro, segundo));
+		RelatorioServiceImpl isolado = isolado();
+
+		try {
+			//execucao
+			SituacaoRelatorio situacao = isolado.solicitar(6L, 2023);
+
+			//verificacao
+			assertThat(aguardarConclusao(isolado, situacao.getId())).isEqualTo(StatusRelatorio.FALHOU);
+			Mockito.verify(repository, Mockito.never()).buscarResumidosPorAno(6L, 2023, 2L, Limit.of(2));
+			assertThat(isolado.obterRelatorio(situacao.getId())).isEmpty();
+		} finally {
+			isolado.destroy();
+		}
+	}
+
+	/**
+	 * Instância própria para os testes de memória: as tarefas dos outros testes
+	 * ocupam a memória da compartilhada e podem descartar a tarefa observada.
+	 */
+	private RelatorioServiceImpl isolado() {
+		return new RelatorioServiceImpl(repository, 1, 10, 2, 2, Duration.ofMinutes(1), DataSize.ofKilobytes(2));
+	}
+
+	private void bloquearLeitura() {
+		Mockito.when(repository.buscarResumidosPorAno(ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt(),
+				ArgumentMatchers.anyLong(), ArgumentMatchers.any()))
+			.thenAnswer(invocacao -> {
+				liberacao.await();
+				return List.of();
+			});
+	}
+
+	private StatusRelatorio aguardarConclusao(String id) throws InterruptedException {
+		return aguardarConclusao(service, id);
+	}
+
+	private StatusRelatorio aguardarConclusao(RelatorioService service, String id) throws InterruptedException {
+		long limite = System.currentTimeMillis() + 5_000;
+		StatusRelatorio status = service.obterSituacao(id).get().getStatus();
+		while(status == StatusRelatorio.EM_ANDAMENTO && System.currentTimeMillis() < limite) {
+			Thread.sleep(20);
+			status = service.obterSituacao(id).get().getStatus();
+		}
+		return status;
+	}
+
+	private LancamentoResumido lancamento(Long id, int mes, TipoLancamento tipo, StatusLancamento status, int valor) {
+		return new LancamentoResumido(id, "Lancamento", mes, 2023, BigDecimal.valueOf(valor), tipo, status, LocalDate.now());
+	}
+
+	private TotalPorTipo total(TipoLancamento tipo, int valor) {
+		return new TotalPorTipo() {
+			public Long getIdUsuario() { return 1L; }
+			public TipoLancamento getTipo() { return tipo; }
+			public BigDecimal getTotal() { return BigDecimal.valueOf(valor); }
+		};
+	}
+}
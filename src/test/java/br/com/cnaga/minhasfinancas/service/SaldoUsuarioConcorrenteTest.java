@@ -0,0 +1,96 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.cnaga.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepositoryTest;
+
+/**
+ * Primeiras escritas simultâneas de um usuário que ainda não tem registro de
+ * saldo, no banco H2 real: nenhuma pode falhar pela chave do registro, e o
+ * registro é criado na própria transação da escrita.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class SaldoUsuarioConcorrenteTest {
+
+	static final int THREADS = 8;
+
+	@Autowired
+	LancamentoService lancamentoService;
+	@Autowired
+	SaldoUsuarioService saldoUsuarioService;
+	@Autowired
+	SaldoUsuarioRepository saldoUsuarioRepository;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Test
+	public void deveAcumularAsPrimeirasInclusoesConcorrentesSemRegistroPrevio() throws Exception {
+		//cenario
+		Usuario usuario = UsuarioRepositoryTest.salvarUsuario(usuarioRepository);
+		assertThat(saldoUsuarioRepository.findById(usuario.getId())).isEmpty();
+
+		//execucao
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<Lancamento>> inclusoes = new ArrayList<>();
+		try(ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+			for(int i = 0; i < THREADS; i++) {
+				inclusoes.add(executor.submit(() -> {
+					Lancamento lancamento = LancamentoRepositoryTest.criarLancamento(usuario);
+					largada.await();
+					return lancamentoService.salvar(lancamento);
+				}));
+			}
+			largada.countDown();
+		}
+
+		//verificacao
+		for(Future<Lancamento> inclusao : inclusoes) {
+			assertThat(inclusao.get().getId()).isNotNull();
+		}
+		assertThat(saldoUsuarioService.obterSaldo(usuario.getId()))
+				.isEqualByComparingTo(BigDecimal.valueOf(10.5).multiply(BigDecimal.valueOf(THREADS)));
+	}
+
+	@Test
+	public void deveCriarORegistroDoUsuarioCadastradoNaMesmaTransacao() {
+		//cenario
+		TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+		//execucao
+		Usuario usuario = transacao.execute(status -> {
+			Usuario salvo = UsuarioRepositoryTest.salvarUsuario(usuarioRepository);
+			lancamentoService.salvar(LancamentoRepositoryTest.criarLancamento(salvo));
+			return salvo;
+		});
+
+		//verificacao
+		assertThat(saldoUsuarioRepository.findById(usuario.getId())).isPresent();
+		assertThat(saldoUsuarioService.obterSaldo(usuario.getId())).isEqualByComparingTo(BigDecimal.valueOf(10.5));
+	}
+}
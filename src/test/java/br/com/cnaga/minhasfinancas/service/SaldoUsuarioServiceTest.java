@@ -0,0 +1,159 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.SaldoUsuario;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.TipoLancamento;
+import br.com.cnaga.minhasfinancas.model.projection.TotalPorTipo;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepository;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.cnaga.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import br.com.cnaga.minhasfinancas.service.impl.SaldoUsuarioServiceImpl;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class SaldoUsuarioServiceTest {
+
+	@SpyBean
+	SaldoUsuarioServiceImpl service;
+	@MockBean
+	SaldoUsuarioRepository repository;
+	@MockBean
+	LancamentoRepository lancamentoRepository;
+	
+	@Test
+	public void deveAcumularOValorDeUmaReceitaIncluida() {
+		//cenario
+		Lancamento lancamento = criarLancamento(TipoLancamento.RECEITA, 10);
+		Mockito.when(repository.acumular(1L, BigDecimal.TEN, BigDecimal.ZERO)).thenReturn(1);
+		
+		//execucao
+		service.registrarInclusao(lancamento);
+		
+		//verificacao
+		Mockito.verify(repository).acumular(1L, BigDecimal.TEN, BigDecimal.ZERO);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+	}
+	
+	@Test
+	public void deveSubtrairOValorDeUmaDespesaExcluida() {
+		//cenario
+		Lancamento lancamento = criarLancamento(TipoLancamento.DESPESA, 10);
+		Mockito.when(repository.acumular(1L, BigDecimal.ZERO, BigDecimal.TEN.negate())).thenReturn(1);
+		
+		//execucao
+		service.registrarExclusao(lancamento);
+		
+		//verificacao
+		Mockito.verify(repository).acumular(1L, BigDecimal.ZERO, BigDecimal.TEN.negate());
+	}
+	
+	@Test
+	public void deveCriarORegistroSemODeltaESomarODeltaEmSeguidaQuandoOUsuarioAindaNaoPossuiRegistro() {
+		//cenario
+		Lancamento lancamento = criarLancamento(TipoLancamento.RECEITA, 10);
+		Mockito.when(repository.acumular(1L, BigDecimal.TEN, BigDecimal.ZERO)).thenReturn(0, 1);
+		Mockito.when(lancamentoRepository.obterTotaisPorTipo(1L)).thenReturn(List.of(
+				total(1L, TipoLancamento.RECEITA, 100), total(1L, TipoLancamento.DESPESA, 40)));
+		
+		//execucao
+		service.registrarInclusao(lancamento);
+		
+		//verificacao
+		Mockito.verify(repository).inserirSeAusente(1L, BigDecimal.valueOf(90), BigDecimal.valueOf(40));
+		Mockito.verify(repository, Mockito.never()).inserir(Mockito.anyLong(), Mockito.any(), Mockito.any());
+		Mockito.verify(repository, Mockito.times(2)).acumular(1L, BigDecimal.TEN, BigDecimal.ZERO);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+	}
+	
+	@Test
+	public void naoDeveAlterarOSaldoQuandoOValorDoLancamentoNaoMudar() {
+		//cenario
+		Lancamento anterior = criarLancamento(TipoLancamento.RECEITA, 10);
+		Lancamento atual = criarLancamento(TipoLancamento.RECEITA, 10);
+		
+		//execucao
+		service.registrarAlteracao(anterior, atual);
+		
+		//verificacao
+		Mockito.verify(repository, Mockito.never()).acumular(Mockito.anyLong(), Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void deveAcumularADiferencaQuandoOTipoDoLancamentoMudar() {
+		//cenario
+		Lancamento anterior = criarLancamento(TipoLancamento.RECEITA, 10);
+		Lancamento atual = criarLancamento(TipoLancamento.DESPESA, 10);
+		Mockito.when(repository.acumular(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(1);
+		
+		//execucao
+		service.registrarAlteracao(anterior, atual);
+		
+		//verificacao
+		Mockito.verify(repository).acumular(1L, BigDecimal.TEN.negate(), BigDecimal.TEN);
+	}
+	
+	@Test
+	public void deveObterOSaldoPeloRegistroDoUsuario() {
+		//cenario
+		SaldoUsuario saldo = SaldoUsuario.builder().idUsuario(1L).receitas(BigDecimal.TEN).despesas(BigDecimal.ONE).build();
+		Mockito.when(repository.findById(1L)).thenReturn(Optional.of(saldo));
+		
+		//execucao
+		BigDecimal resultado = service.obterSaldo(1L);
+		
+		//verificacao
+		assertThat(resultado).isEqualByComparingTo(BigDecimal.valueOf(9));
+		Mockito.verify(lancamentoRepository, Mockito.never()).obterTotaisPorTipo(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveReportarOsSaldosDivergentes() {
+		//cenario
+		Mockito.when(lancamentoRepository.obterTotaisPorUsuarioETipo()).thenReturn(List.of(
+				total(1L, TipoLancamento.RECEITA, 10), 
+				total(2L, TipoLancamento.RECEITA, 20),
+				total(3L, TipoLancamento.DESPESA, 5)));
+		Mockito.when(repository.findAll()).thenReturn(List.of(
+				SaldoUsuario.builder().idUsuario(1L).receitas(BigDecimal.TEN).despesas(BigDecimal.ZERO).build(),
+				SaldoUsuario.builder().idUsuario(2L).receitas(BigDecimal.TEN).despesas(BigDecimal.ZERO).build()));
+		
+		//execucao
+		List<DivergenciaSaldo> divergencias = service.verificar();
+		
+		//verificacao
+		assertThat(divergencias).extracting(DivergenciaSaldo::getIdUsuario).containsExactlyInAnyOrder(2L, 3L);
+	}
+	
+	private Lancamento criarLancamento(TipoLancamento tipo, int valor) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(Usuario.builder().id(1L).build());
+		lancamento.setTipo(tipo);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		return lancamento;
+	}
+	
+	private TotalPorTipo total(Long idUsuario, TipoLancamento tipo, int valor) {
+		return new TotalPorTipo() {
+			public Long getIdUsuario() { return idUsuario; }
+			public TipoLancamento getTipo() { return tipo; }
+			public BigDecimal getTotal() { return BigDecimal.valueOf(valor); }
+		};
+	}
+}
@@ -0,0 +1,43 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.service.TokenService.TokenSessao;
+import br.com.cnaga.minhasfinancas.service.impl.TokenServiceImpl;
+
+public class TokenServiceTest {
+
+	Usuario usuario = Usuario.builder().id(7L).email("email@email.com").build();
+	
+	@Test
+	public void deveValidarUmTokenGeradoERetornarOUsuario() {
+		TokenService service = new TokenServiceImpl("segredo", Duration.ofMinutes(30));
+		
+		TokenSessao sessao = service.gerar(usuario);
+		
+		assertThat(service.validar(sessao.token())).isEqualTo(Optional.of(7L));
+	}
+	
+	@Test
+	public void naoDeveValidarUmTokenExpirado() {
+		TokenService service = new TokenServiceImpl("segredo", Duration.ofSeconds(-1));
+		
+		TokenSessao sessao = service.gerar(usuario);
+		
+		assertThat(service.validar(sessao.token())).isEmpty();
+	}
+	
+	@Test
+	public void naoDeveValidarUmTokenAssinadoComOutraChave() {
+		TokenSessao sessao = new TokenServiceImpl("outro", Duration.ofMinutes(30)).gerar(usuario);
+		
+		assertThat(new TokenServiceImpl("segredo", Duration.ofMinutes(30)).validar(sessao.token())).isEmpty();
+		assertThat(new TokenServiceImpl("segredo", Duration.ofMinutes(30)).validar("invalido")).isEmpty();
+	}
+}
@@ -5,16 +5,19 @@ import java.util.Optional;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import br.com.cnaga.minhasfinancas.exception.ErroAutenticacao;
 import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
 import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.projection.UsuarioResumido;
 import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
 import br.com.cnaga.minhasfinancas.service.impl.UsuarioServiceImpl;
 
@@ -28,6 +31,12 @@ public class UsuarioServiceTest {
 
 	@MockBean
 	UsuarioRepository repository;
+	
+	@MockBean
+	SaldoUsuarioService saldoUsuarioService;
+	
+	@SpyBean
+	PasswordEncoder passwordEncoder;
 
 	String email = "email@email.com";
 	String senha = "senha";
@@ -49,6 +58,7 @@ public class UsuarioServiceTest {
 			Assertions.assertEquals(usuarioSalvo.getNome(),"Nome");
 			Assertions.assertEquals(usuarioSalvo.getEmail(), email);
 			Assertions.assertEquals(usuarioSalvo.getSenha(), senha);				
+			Mockito.verify(saldoUsuarioService).registrarUsuario(1L);
 
 		});
 	}
@@ -83,6 +93,60 @@ public class UsuarioServiceTest {
 		});
 	}
 
+	@Test
+	public void deveGravarASenhaComoHashAoSalvarUmUsuario() {
+		Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+		Usuario usuario = Usuario.builder().nome("Nome").email(email).senha(senha).build();
+		Mockito.when(repository.save(Mockito.any(Usuario.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+		
+		service.salvarUsuario(usuario);
+		
+		ArgumentCaptor<Usuario> salvo = ArgumentCaptor.forClass(Usuario.class);
+		Mockito.verify(repository).save(salvo.capture());
+		Assertions.assertNotEquals(senha, salvo.getValue().getSenha());
+		Assertions.assertTrue(passwordEncoder.matches(senha, salvo.getValue().getSenha()));
+	}
+	
+	@Test
+	public void deveRegravarComoHashASenhaEmTextoPuroAoAutenticar() {
+		Usuario usuario = Usuario.builder().email(email).senha(senha).id(1L).build();
+		Mockito.when(repository.findByEmail(email)).thenReturn(Optional.of(usuario));
+		
+		service.autenticar(email, senha);
+		
+		ArgumentCaptor<Usuario> salvo = ArgumentCaptor.forClass(Usuario.class);
+		Mockito.verify(repository).save(salvo.capture());
+		Assertions.assertEquals(1L, salvo.getValue().getId());
+		Assertions.assertTrue(passwordEncoder.matches(senha, salvo.getValue().getSenha()));
+	}
+	
+	@Test
+	public void deveConferirOHashUmaUnicaVezEmLoginsRepetidos() {
+		Usuario usuario = Usuario.builder().email("repetido@email.com").senha(passwordEncoder.encode(senha)).id(1L).build();
+		Mockito.when(repository.findByEmail(usuario.getEmail())).thenReturn(Optional.of(usuario));
+		
+		service.autenticar(usuario.getEmail(), senha);
+		service.autenticar(usuario.getEmail(), senha);
+		
+		Mockito.verify(passwordEncoder, Mockito.times(1)).matches(senha, usuario.getSenha());
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(Usuario.class));
+		Assertions.assertThrows(ErroAutenticacao.class, () -> service.autenticar(usuario.getEmail(), "outra"));
+	}
+
+	@Test
+	public void deveObterPorIdUmaCopiaSemSenhaACadaChamada() {
+		UsuarioResumido resumido = new UsuarioResumido(1L, "Nome", email);
+		Mockito.when(repository.buscarResumidoPorId(1L)).thenReturn(Optional.of(resumido));
+		
+		Usuario primeiro = service.obterPorId(1L).get();
+		primeiro.setNome("alterado");
+		Usuario segundo = service.obterPorId(1L).get();
+		
+		Assertions.assertNotSame(primeiro, segundo);
+		Assertions.assertEquals("Nome", segundo.getNome());
+		Assertions.assertNull(segundo.getSenha());
+	}
+
 	@Test
 	public void deveLancarErroQuandoNaoEncontrarUsuarioCadastradoComOEmailInformado() {
 		Assertions.assertThrows(ErroAutenticacao.class, () -> {
@@ -0,0 +1,91 @@
+package br.com.cnaga.minhasfinancas.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import br.com.cnaga.minhasfinancas.exception.RegraNegocioException;
+import br.com.cnaga.minhasfinancas.model.entity.Lancamento;
+import br.com.cnaga.minhasfinancas.model.entity.Usuario;
+import br.com.cnaga.minhasfinancas.model.enums.StatusLancamento;
+import br.com.cnaga.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepository;
+import br.com.cnaga.minhasfinancas.model.repository.UsuarioRepositoryTest;
+import br.com.cnaga.minhasfinancas.service.impl.VersaoDadosServiceImpl;
+
+@SpringBootTest(properties = "minhasfinancas.etag.habilitado=true")
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class VersaoDadosServiceTest {
+
+	@Autowired
+	VersaoDadosService service;
+	@Autowired
+	LancamentoService lancamentoService;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	Usuario usuario;
+	Usuario outroUsuario;
+	
+	@BeforeEach
+	public void criarUsuarios() {
+		usuario = UsuarioRepositoryTest.salvarUsuario(usuarioRepository);
+		outroUsuario = UsuarioRepositoryTest.salvarUsuario(usuarioRepository);
+	}
+	
+	@Test
+	public void deveMudarOEtagApenasDoUsuarioAlterado() {
+		Optional<String> etag = service.obterEtag(usuario.getId());
+		Optional<String> etagOutroUsuario = service.obterEtag(outroUsuario.getId());
+		
+		Lancamento lancamento = lancamentoService.salvar(LancamentoRepositoryTest.criarLancamento(usuario));
+		Optional<String> etagDepoisDeSalvar = service.obterEtag(usuario.getId());
+		lancamentoService.atualizarStatus(lancamento, StatusLancamento.EFETIVADO);
+		
+		assertThat(etagDepoisDeSalvar).isNotEqualTo(etag);
+		assertThat(service.obterEtag(usuario.getId())).isNotEqualTo(etagDepoisDeSalvar);
+		assertThat(service.obterEtag(outroUsuario.getId())).isEqualTo(etagOutroUsuario);
+	}
+	
+	@Test
+	public void naoDeveMudarOEtagQuandoAEscritaNaoEConfirmada() {
+		Optional<String> etag = service.obterEtag(-1L);
+		
+		Throwable erro = catchThrowable(() -> lancamentoService.salvar(LancamentoRepositoryTest.criarLancamento(Usuario.builder().id(-1L).build())));
+		
+		assertThat(erro).isInstanceOf(RegraNegocioException.class);
+		assertThat(service.obterEtag(-1L)).isEqualTo(etag);
+	}
+	
+	@Test
+	public void deveMudarApenasOEtagDoUsuarioNaAtualizacaoDeStatusPorIds() {
+		Lancamento lancamento = lancamentoService.salvar(LancamentoRepositoryTest.criarLancamento(usuario));
+		Optional<String> etag = service.obterEtag(usuario.getId());
+		Optional<String> etagOutroUsuario = service.obterEtag(outroUsuario.getId());
+		
+		lancamentoService.atualizarStatus(usuario.getId(), List.of(lancamento.getId()), StatusLancamento.EFETIVADO);
+		
+		assertThat(service.obterEtag(usuario.getId())).isNotEqualTo(etag);
+		assertThat(service.obterEtag(outroUsuario.getId())).isEqualTo(etagOutroUsuario);
+	}
+	
+	@Test
+	public void naoDeveEmitirEtagSemHabilitar() {
+		VersaoDadosServiceImpl desligado = new VersaoDadosServiceImpl();
+		
+		desligado.registrar(LancamentoAlteradoEvento.dosUsuarios(usuario.getId()));
+		
+		assertThat(desligado.obterEtag(usuario.getId())).isEmpty();
+	}
+}